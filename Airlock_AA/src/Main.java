@@ -1,5 +1,9 @@
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.util.Scanner;
 
+import airlock.batch.BatchRunner;
 import airlock.entities.AirLock;
 import airlock.entities.Door;
 import airlock.entities.DoorState;
@@ -8,10 +12,15 @@ import airlock.entities.IDoor;
 import airlock.entities.IPressureSensor;
 import airlock.entities.PressureSensor;
 import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
 
 public class Main {
 
 	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("--batch")) {
+			System.exit(runBatch(args));
+		}
 		try {
 			double exteriorPressure = 1.0;
 			double lockPressure = 1.0;
@@ -147,4 +156,31 @@ public class Main {
 		System.out.println("\nExiting\n");
 	}
 
+	/*
+	 * Main --batch [file] [--quiet]: runs commands from the file, or standard
+	 * input, against a fresh airlock. Exits 1 if any command fails and 2 if
+	 * the input cannot be read; the interactive menu is never shown.
+	 */
+	private static int runBatch(String[] args) {
+		boolean quiet = false;
+		String file = null;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--quiet")) quiet = true;
+			else file = args[i];
+		}
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out), false);
+		PrintWriter err = new PrintWriter(new OutputStreamWriter(System.err), true);
+		try {
+			IPressureSensor lockSensor = new PressureSensor(1.0);
+			IAirLock airLock = new AirLock(
+				new Door(new PressureSensor(1.0), lockSensor, DoorState.CLOSED),
+				new Door(new PressureSensor(1.0), lockSensor, DoorState.CLOSED),
+				lockSensor);
+			return BatchRunner.execute(airLock, file, new InputStreamReader(System.in), out, err, quiet);
+		} catch (DoorException | PressureException e) {
+			err.println("Batch error: " + e.getMessage());
+			return BatchRunner.EXIT_IO_ERROR;
+		}
+	}
+
 }
@@ -0,0 +1,113 @@
+package airlock.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+import airlock.entities.IAirLock;
+
+/*
+ * Non-interactive driver behind Main --batch. Reads one command per line
+ * (OX, CI, SX 12.5, ...) and prints "<line> <command> <result>" for each.
+ * Blank lines and lines starting with # are skipped and Q stops early.
+ */
+public final class BatchRunner {
+
+	public static final int EXIT_OK = 0;
+	public static final int EXIT_FAILED = 1;
+	public static final int EXIT_IO_ERROR = 2;
+
+	private BatchRunner() {
+	}
+
+	/*
+	 * Runs the file, or the given standard input when file is null, and
+	 * returns the process exit status: EXIT_FAILED if any command was
+	 * rejected or malformed, EXIT_IO_ERROR if the input could not be read.
+	 */
+	public static int execute(IAirLock airLock, String file, Reader stdin, PrintWriter out, PrintWriter err, boolean quiet) {
+		try (BufferedReader in = file == null
+				? new BufferedReader(stdin, 1 << 16)
+				: Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+			return run(airLock, in, out, quiet) == 0 ? EXIT_OK : EXIT_FAILED;
+		} catch (IOException | InvalidPathException e) {
+			err.println("Batch error: cannot read " + (file == null ? "standard input" : file) + ": " + e);
+			return EXIT_IO_ERROR;
+		} finally {
+			out.flush();
+			err.flush();
+		}
+	}
+
+	/*
+	 * In quiet mode only failures and the closing summary are printed.
+	 * Returns the number of commands that were rejected or could not be read.
+	 */
+	public static int run(IAirLock airLock, BufferedReader in, PrintWriter out, boolean quiet) throws IOException {
+		int lineNumber = 0;
+		int commands = 0;
+		int failures = 0;
+		String line;
+		while ((line = in.readLine()) != null) {
+			lineNumber++;
+			line = line.strip();
+			if (line.isEmpty() || line.charAt(0) == '#') continue;
+			int space = line.indexOf(' ');
+			String code = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+			String argument = space < 0 ? null : line.substring(space + 1).strip();
+			if (code.equals("Q")) break;
+
+			commands++;
+			String result;
+			try {
+				result = runCommand(airLock, code, argument).name();
+			} catch (NumberFormatException e) {
+				result = "INVALID_PRESSURE";
+			} catch (IllegalArgumentException e) {
+				result = "UNRECOGNISED";
+			}
+			boolean ok = result.equals("OK");
+			if (!ok) failures++;
+			if (!quiet || !ok) {
+				out.print(lineNumber);
+				out.print(' ');
+				out.print(code);
+				out.print(' ');
+				out.println(result);
+			}
+		}
+		out.print(commands);
+		out.print(" commands, ");
+		out.print(failures);
+		out.println(" failed");
+		return failures;
+	}
+
+	private static AirLockResult runCommand(IAirLock airLock, String code, String argument) {
+		switch (code) {
+			case "SX" :
+				return airLock.trySetEnvironmentPressure(pressure(argument));
+			case "SI" :
+				return airLock.trySetCabinPressure(pressure(argument));
+			default :
+				AirLockCommand command = AirLockCommand.fromCode(code);
+				if (command == null || argument != null) throw new IllegalArgumentException(code);
+				return command.tryExecute(airLock);
+		}
+	}
+
+	private static double pressure(String argument) {
+		if (argument == null) throw new NumberFormatException("Missing pressure");
+		double pressure = Double.parseDouble(argument);
+		if (!Double.isFinite(pressure)) throw new NumberFormatException("Pressure must be finite: " + argument);
+		return pressure;
+	}
+}
@@ -0,0 +1,265 @@
+package airlock.bench;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+import airlock.journal.JournalEvent;
+import airlock.journal.SyncPolicy;
+import airlock.journal.TransitionJournal;
+import airlock.metrics.AirLockMetrics;
+import airlock.simulation.PressureSimulation;
+
+/*
+ * Hot-path benchmarks for AirLock, Door and PressureSensor.
+ *
+ * Usage: java airlock.bench.AirLockBenchmarks [threads] [name-regex]
+ *
+ * Single-threaded variants run on one thread. ".contended" variants share one
+ * instance between all threads and ".parallel" variants give every thread its
+ * own instance, which shows how far the code scales without sharing.
+ */
+public class AirLockBenchmarks {
+
+	static class Fixture {
+		final PressureSensor environmentSensor;
+		final PressureSensor lockSensor;
+		final PressureSensor cabinSensor;
+		final Door outerDoor;
+		final Door innerDoor;
+		final AirLock airLock;
+
+		Fixture(double environment, double lock, double cabin, DoorState outerState) throws DoorException, PressureException {
+			environmentSensor = new PressureSensor(environment);
+			lockSensor = new PressureSensor(lock);
+			cabinSensor = new PressureSensor(cabin);
+			outerDoor = new Door(environmentSensor, lockSensor, outerState);
+			innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+			airLock = new AirLock(outerDoor, innerDoor, lockSensor);
+		}
+	}
+
+	// Pass through from inside to outside in AUTO mode as in FATTests, then
+	// back to MANUAL so the next call starts from the same state.
+	static long autoCycle(AirLock airLock) throws AirLockException {
+		airLock.toggleOperationMode();
+		airLock.openInnerDoor();
+		airLock.openOuterDoor();
+		airLock.closeOuterDoor();
+		airLock.toggleOperationMode();
+		return 1;
+	}
+
+	static long tryAutoCycle(AirLock airLock) {
+		return airLock.tryToggleOperationMode().ordinal()
+			+ airLock.tryOpenInnerDoor().ordinal()
+			+ airLock.tryOpenOuterDoor().ordinal()
+			+ airLock.tryCloseOuterDoor().ordinal()
+			+ airLock.tryToggleOperationMode().ordinal();
+	}
+
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+		Pattern filter = Pattern.compile(args.length > 1 ? args[1] : ".*");
+		BenchmarkRunner runner = new BenchmarkRunner(3, 5, 1000);
+
+		Fixture sharedCycle = new Fixture(10, 1, 13, DoorState.CLOSED);
+		Fixture sharedOpen = new Fixture(10, 10, 10, DoorState.OPEN);
+		PressureSensor sharedSensor = new PressureSensor(1.0);
+
+		System.out.printf("%-40s %3s %16s %14s %14s%n", "Benchmark", "Thr", "ops/s", "alloc MB/s", "alloc B/op");
+
+		if (filter.matcher("airLock.autoCycle").find()) {
+			System.out.println(runner.run("airLock.autoCycle", 1, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) throws Exception {
+					return new Fixture(10, 1, 13, DoorState.CLOSED).airLock;
+				}
+				public long run(AirLock airLock) throws Exception {
+					return autoCycle(airLock);
+				}
+			}));
+		}
+		if (filter.matcher("airLock.autoCycle.parallel").find()) {
+			System.out.println(runner.run("airLock.autoCycle.parallel", threads, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) throws Exception {
+					return new Fixture(10, 1, 13, DoorState.CLOSED).airLock;
+				}
+				public long run(AirLock airLock) throws Exception {
+					return autoCycle(airLock);
+				}
+			}));
+		}
+		if (filter.matcher("airLock.tryAutoCycle.contended").find()) {
+			System.out.println(runner.run("airLock.tryAutoCycle.contended", threads, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) {
+					return sharedCycle.airLock;
+				}
+				public long run(AirLock airLock) {
+					return tryAutoCycle(airLock);
+				}
+			}));
+		}
+		if (filter.matcher("airLock.tryAutoCycle.metrics").find()) {
+			System.out.println(runner.run("airLock.tryAutoCycle.metrics", 1, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) throws Exception {
+					AirLock airLock = new Fixture(10, 1, 13, DoorState.CLOSED).airLock;
+					airLock.attachMetrics(new AirLockMetrics());
+					return airLock;
+				}
+				public long run(AirLock airLock) {
+					return tryAutoCycle(airLock);
+				}
+			}));
+		}
+		if (filter.matcher("airLock.tryAutoCycle.metrics.sampled").find()) {
+			System.out.println(runner.run("airLock.tryAutoCycle.metrics.sampled", 1, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) throws Exception {
+					AirLock airLock = new Fixture(10, 1, 13, DoorState.CLOSED).airLock;
+					airLock.attachMetrics(new AirLockMetrics(64));
+					return airLock;
+				}
+				public long run(AirLock airLock) {
+					return tryAutoCycle(airLock);
+				}
+			}));
+		}
+		if (filter.matcher("door.openClose.balanced").find()) {
+			System.out.println(runner.run("door.openClose.balanced", 1, new Benchmark<Door>() {
+				public Door setUp(int thread) throws Exception {
+					return new Door(new PressureSensor(10), new PressureSensor(10), DoorState.CLOSED);
+				}
+				public long run(Door door) throws Exception {
+					door.open();
+					door.close();
+					return 1;
+				}
+			}));
+		}
+		if (filter.matcher("door.open.unbalanced").find()) {
+			System.out.println(runner.run("door.open.unbalanced", 1, new Benchmark<Door>() {
+				public Door setUp(int thread) throws Exception {
+					return new Door(new PressureSensor(10), new PressureSensor(20), DoorState.CLOSED);
+				}
+				public long run(Door door) {
+					try {
+						door.open();
+						return 0;
+					} catch (DoorException e) {
+						return 1;
+					}
+				}
+			}));
+		}
+		if (filter.matcher("pressureSensor.setPressure").find()) {
+			System.out.println(runner.run("pressureSensor.setPressure", 1, new Benchmark<PressureSensor>() {
+				public PressureSensor setUp(int thread) throws Exception {
+					return new PressureSensor(1.0);
+				}
+				public long run(PressureSensor sensor) throws Exception {
+					sensor.setPressure(sensor.getPressure() + 1.0);
+					return 1;
+				}
+			}));
+		}
+		if (filter.matcher("pressureSensor.setPressure.contended").find()) {
+			System.out.println(runner.run("pressureSensor.setPressure.contended", threads, new Benchmark<PressureSensor>() {
+				public PressureSensor setUp(int thread) {
+					return sharedSensor;
+				}
+				public long run(PressureSensor sensor) throws Exception {
+					sensor.setPressure(sensor.getPressure() + 1.0);
+					return 1;
+				}
+			}));
+		}
+		if (filter.matcher("airLock.rejected.exception").find()) {
+			System.out.println(runner.run("airLock.rejected.exception", 1, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) throws Exception {
+					return new Fixture(10, 10, 10, DoorState.OPEN).airLock;
+				}
+				public long run(AirLock airLock) {
+					try {
+						airLock.openOuterDoor();
+						return 0;
+					} catch (AirLockException e) {
+						return 1;
+					}
+				}
+			}));
+		}
+		if (filter.matcher("airLock.rejected.result").find()) {
+			System.out.println(runner.run("airLock.rejected.result", 1, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) throws Exception {
+					return new Fixture(10, 10, 10, DoorState.OPEN).airLock;
+				}
+				public long run(AirLock airLock) {
+					return airLock.tryOpenOuterDoor().ordinal();
+				}
+			}));
+		}
+		if (filter.matcher("airLock.rejected.result.contended").find()) {
+			System.out.println(runner.run("airLock.rejected.result.contended", threads, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) {
+					return sharedOpen.airLock;
+				}
+				public long run(AirLock airLock) {
+					return airLock.tryOpenOuterDoor().ordinal();
+				}
+			}));
+		}
+		if (filter.matcher("airLock.rejected.exception.contended").find()) {
+			System.out.println(runner.run("airLock.rejected.exception.contended", threads, new Benchmark<AirLock>() {
+				public AirLock setUp(int thread) {
+					return sharedOpen.airLock;
+				}
+				public long run(AirLock airLock) {
+					try {
+						airLock.openOuterDoor();
+						return 0;
+					} catch (AirLockException e) {
+						return 1;
+					}
+				}
+			}));
+		}
+		if (filter.matcher("simulation.step.100k").find()) {
+			System.out.println(runner.run("simulation.step.100k", 1, new Benchmark<PressureSimulation>() {
+				public PressureSimulation setUp(int thread) throws Exception {
+					PressureSimulation simulation = new PressureSimulation(100_000);
+					for (int i = 0; i < 100_000; i++) {
+						int chamber = simulation.addChamber(10.0 + i % 7, 2.0, 3.0, 1.0);
+						simulation.setTarget(chamber, i % 2 == 0 ? 1_000.0 : 0.0);
+					}
+					return simulation;
+				}
+				public long run(PressureSimulation simulation) {
+					simulation.step(0.001);
+					return 1;
+				}
+			}));
+		}
+		if (filter.matcher("journal.append.contended").find()) {
+			Path file = Files.createTempFile("airlock", ".journal");
+			try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.none())) {
+				System.out.println(runner.run("journal.append.contended", threads, new Benchmark<TransitionJournal>() {
+					public TransitionJournal setUp(int thread) {
+						return journal;
+					}
+					public long run(TransitionJournal target) {
+						target.append(1, JournalEvent.PRESSURE_SET, 1.0);
+						return 1;
+					}
+				}));
+			} finally {
+				Files.delete(file);
+			}
+		}
+	}
+}
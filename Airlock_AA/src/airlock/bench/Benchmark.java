@@ -0,0 +1,12 @@
+package airlock.bench;
+
+/*
+ * One benchmark body. Each worker thread gets its own state from setUp, then
+ * the runner calls run repeatedly and counts every call as one operation.
+ */
+public interface Benchmark<S> {
+
+	S setUp(int threadIndex) throws Exception;
+
+	long run(S state) throws Exception;
+}
@@ -0,0 +1,142 @@
+package airlock.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+/*
+ * Minimal timed-iteration runner: warm-up iterations followed by measured ones,
+ * with every worker thread running the same benchmark against its own state.
+ * Allocation is read from the per-thread allocation counters, which is what the
+ * JMH GC profiler reports as gc.alloc.rate and gc.alloc.rate.norm.
+ */
+public class BenchmarkRunner {
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+		(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final int warmupIterations;
+	private final int measurementIterations;
+	private final long iterationMillis;
+
+	private volatile boolean running;
+	private volatile long sink;
+
+	public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+		this.iterationMillis = iterationMillis;
+	}
+
+	public <S> Result run(String name, int threads, Benchmark<S> benchmark) throws Exception {
+		int iterations = warmupIterations + measurementIterations;
+		long[][] ops = new long[threads][iterations];
+		long[][] allocated = new long[threads][iterations];
+		Exception[] failure = new Exception[1];
+		CyclicBarrier barrier = new CyclicBarrier(threads + 1);
+
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			int index = t;
+			workers[t] = new Thread(() -> {
+				try {
+					S state = benchmark.setUp(index);
+					long local = 0;
+					for (int i = 0; i < iterations; i++) {
+						barrier.await();
+						long count = 0;
+						long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+						while (running) {
+							local += benchmark.run(state);
+							count++;
+						}
+						allocated[index][i] = THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+						ops[index][i] = count;
+						barrier.await();
+					}
+					sink += local;
+				} catch (Exception e) {
+					synchronized (failure) {
+						if (failure[0] == null) failure[0] = e;
+					}
+					barrier.reset();
+				}
+			}, name + "-" + t);
+			workers[t].setDaemon(true);
+			workers[t].start();
+		}
+
+		long measuredOps = 0;
+		long measuredBytes = 0;
+		long measuredNanos = 0;
+		try {
+			for (int i = 0; i < iterations; i++) {
+				running = true;
+				barrier.await();
+				long start = System.nanoTime();
+				Thread.sleep(iterationMillis);
+				running = false;
+				long elapsed = System.nanoTime() - start;
+				barrier.await();
+				if (i >= warmupIterations) {
+					measuredNanos += elapsed;
+					for (int t = 0; t < threads; t++) {
+						measuredOps += ops[t][i];
+						measuredBytes += allocated[t][i];
+					}
+				}
+			}
+		} catch (BrokenBarrierException e) {
+			running = false;
+			synchronized (failure) {
+				if (failure[0] != null) throw failure[0];
+			}
+			throw e;
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		return new Result(name, threads, measuredOps, measuredBytes, measuredNanos);
+	}
+
+	public static class Result {
+		private final String name;
+		private final int threads;
+		private final double opsPerSecond;
+		private final double bytesPerOp;
+		private final double allocationMbPerSecond;
+
+		Result(String name, int threads, long ops, long bytes, long nanos) {
+			this.name = name;
+			this.threads = threads;
+			this.opsPerSecond = ops * 1e9 / nanos;
+			this.bytesPerOp = ops == 0 ? 0.0 : (double) bytes / ops;
+			this.allocationMbPerSecond = bytes * 1e9 / nanos / (1024 * 1024);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public double getOpsPerSecond() {
+			return opsPerSecond;
+		}
+
+		public double getBytesPerOp() {
+			return bytesPerOp;
+		}
+
+		public double getAllocationMbPerSecond() {
+			return allocationMbPerSecond;
+		}
+
+		public String toString() {
+			return String.format("%-40s %3d %16.1f %14.1f %14.2f",
+				name, threads, opsPerSecond, allocationMbPerSecond, bytesPerOp);
+		}
+	}
+}
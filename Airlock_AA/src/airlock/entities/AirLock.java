@@ -1,137 +1,567 @@
 package airlock.entities;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
 import airlock.exceptions.AirLockException;
 import airlock.exceptions.DoorException;
 import airlock.exceptions.PressureException;
+import airlock.jfr.EqualisationEvent;
+import airlock.jfr.ModeChangeEvent;
+import airlock.jfr.RejectedCommandEvent;
+import airlock.journal.JournalEvent;
+import airlock.journal.TransitionJournal;
+import airlock.metrics.AirLockMetrics;
 
 public class AirLock implements IAirLock{
-	
+
+	/*
+	 * Both door states, the seal state and the mode live in one atomic word.
+	 * A command claims the word with a single CAS that sets BUSY, applies its
+	 * transitions to the owned copy and publishes the result when it finishes.
+	 * The seal and mode queries only read the word, so they never wait on a
+	 * running command; the door queries ask the doors themselves.
+	 */
+	static final int OUTER_OPEN = 1;
+	static final int INNER_OPEN = 1 << 1;
+	static final int SEALED     = 1 << 2;
+	static final int AUTO       = 1 << 3;
+	static final int BUSY       = 1 << 4;
+	static final int EQUALISED  = 1 << 5; // set in the working copy only, never published
+
+	private static final AirLockResult[] RESULTS = AirLockResult.values();
+	private static final long WAIT_NANOS = 10_000;
+
 	private IDoor outerDoor;
 	public IDoor innerDoor;
 	public IPressureSensor lockSensor;
-	
-	private AirLockState state;	
-	private OperationMode mode;
+
+	private final AtomicInteger word = new AtomicInteger();
+	private int claimed; // word as it was when BUSY was taken
+	private int working; // only touched by the thread holding BUSY
+	private AirLockEvent[] queued = new AirLockEvent[8]; // events of the running command, also BUSY-only
+	private int queuedCount;
+
+	private volatile AirLockListener[] listeners = Listeners.NO_AIRLOCK_LISTENERS;
+
+	private volatile TransitionJournal journal;
+	private int journalSource;
+
+	private volatile AirLockMetrics metrics;
+
+	private final AirLockProfile profile;
+	private final long toleranceMicroBar;
+	private final boolean autoModeAllowed;
 
 	IPressureSensor inSensor;
 	IPressureSensor exSensor;
 
 	public AirLock(IDoor outerDoor, IDoor innerDoor, IPressureSensor lockSensor) throws DoorException {
+		this(outerDoor, innerDoor, lockSensor, AirLockProfile.DEFAULT);
+	}
+
+	public AirLock(IDoor outerDoor, IDoor innerDoor, IPressureSensor lockSensor, OperationMode mode) throws DoorException {
+		this(outerDoor, innerDoor, lockSensor, mode, AirLockProfile.DEFAULT);
+	}
+
+	public AirLock(IDoor outerDoor, IDoor innerDoor, IPressureSensor lockSensor, AirLockProfile profile) throws DoorException {
+		this(outerDoor, innerDoor, lockSensor, profile.getDefaultMode(), profile);
+	}
+
+	public AirLock(IDoor outerDoor, IDoor innerDoor, IPressureSensor lockSensor, OperationMode mode,
+	               AirLockProfile profile) throws DoorException {
+		if (profile == null) throw new IllegalArgumentException("Profile must not be null.");
+		if (mode == OperationMode.AUTO && !profile.isAutoModeAllowed()) {
+			throw new IllegalArgumentException("AUTO mode is not allowed by profile " + profile.getName() + ".");
+		}
 		this.outerDoor = outerDoor;
 		this.innerDoor = innerDoor;
 		this.lockSensor = lockSensor;
+		this.profile = profile;
+		this.toleranceMicroBar = profile.getToleranceMicroBar();
+		this.autoModeAllowed = profile.isAutoModeAllowed();
 		if (outerDoor == null|| innerDoor == null) throw new DoorException("Door's are non-valid inputs of Door.");
-		mode = OperationMode.MANUAL;
-		if (outerDoor.isClosed() && innerDoor.isClosed()) {
-			state = AirLockState.SEALED;
+		if (mode == OperationMode.AUTO && outerDoor.isOpen() && innerDoor.isOpen()) {
+			throw new DoorException("Both doors cannot be open in AUTO mode.");
+		}
+		int initial = 0;
+		if (outerDoor.isOpen()) initial |= OUTER_OPEN;
+		if (innerDoor.isOpen()) initial |= INNER_OPEN;
+		if (outerDoor.isClosed() && innerDoor.isClosed()) initial |= SEALED;
+		if (mode == OperationMode.AUTO) initial |= AUTO;
+		word.set(initial);
+	}
+
+	private boolean acquire() {
+		while (true) {
+			int current = word.get();
+			if ((current & BUSY) != 0) return false;
+			if (word.compareAndSet(current, current | BUSY)) {
+				claimed = current;
+				working = current;
+				return true;
+			}
+		}
+	}
+
+	/*
+	 * Used by the throwing commands, which wait for a running command to
+	 * finish rather than failing with BUSY, so callers of the blocking API are
+	 * still serialised; only the try* variants report BUSY. Commands hold the
+	 * word for microseconds, so this spins briefly before backing off.
+	 */
+	private void acquireWaiting() {
+		for (int spins = 0; !acquire(); spins++) {
+			if (spins < 64) Thread.onSpinWait();
+			else if (spins < 128) Thread.yield();
+			else LockSupport.parkNanos(WAIT_NANOS);
+		}
+	}
+
+	/*
+	 * Listeners are called once the word is published, so they can query or
+	 * command the airlock, but with every event the command's ops produced,
+	 * in order, not just the net change.
+	 */
+	private void release() {
+		AirLockEvent[] events = queuedCount == 0 ? null : Arrays.copyOf(queued, queuedCount);
+		queuedCount = 0;
+		word.set(working & ~EQUALISED);
+		AirLockListener[] current = listeners;
+		if (events != null && current.length != 0) {
+			for (AirLockEvent event : events) {
+				fire(current, event);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void addListener(AirLockListener listener) {
+		listeners = Listeners.add(listeners, listener);
+	}
+
+	@Override
+	public synchronized void removeListener(AirLockListener listener) {
+		listeners = Listeners.remove(listeners, listener);
+	}
+
+	// Queues the events of one applied op; back-to-back equalisations (an
+	// AUTO equalise followed by its settle) are reported once.
+	private void queueChanges(int before, int after) {
+		int changed = before ^ after;
+		if ((changed & INNER_OPEN) != 0 && (after & INNER_OPEN) == 0) queue(AirLockEvent.INNER_DOOR_CLOSED);
+		if ((changed & OUTER_OPEN) != 0 && (after & OUTER_OPEN) == 0) queue(AirLockEvent.OUTER_DOOR_CLOSED);
+		if ((changed & OUTER_OPEN) != 0 && (after & OUTER_OPEN) != 0) queue(AirLockEvent.OUTER_DOOR_OPENED);
+		if ((changed & INNER_OPEN) != 0 && (after & INNER_OPEN) != 0) queue(AirLockEvent.INNER_DOOR_OPENED);
+		if ((changed & SEALED) != 0) queue((after & SEALED) != 0 ? AirLockEvent.SEALED : AirLockEvent.UNSEALED);
+		if ((changed & AUTO) != 0) queue(AirLockEvent.MODE_TOGGLED);
+		if ((after & EQUALISED) != 0 && (queuedCount == 0 || queued[queuedCount - 1] != AirLockEvent.EQUALISED)) {
+			queue(AirLockEvent.EQUALISED);
+		}
+	}
+
+	private void queue(AirLockEvent event) {
+		if (queuedCount == queued.length) queued = Arrays.copyOf(queued, queuedCount * 2);
+		queued[queuedCount++] = event;
+	}
+
+	private void fire(AirLockListener[] current, AirLockEvent event) {
+		for (int i = 0; i < current.length; i++) {
+			try {
+				current[i].onAirLockEvent(this, event);
+			} catch (RuntimeException e) {
+				Listeners.report(e);
+			}
+		}
+	}
+
+	/*
+	 * Records every door, seal and mode change made by commands in the
+	 * journal, under the given source id, op by op, so a door cycled within
+	 * one command or script is recorded too. Pass null to stop recording; a
+	 * journal closed while still attached drops the records.
+	 */
+	public void attachJournal(TransitionJournal journal, int source) {
+		this.journalSource = source;
+		this.journal = journal;
+	}
+
+	private void journalChanges(TransitionJournal recorder, int before, int after) {
+		int changed = before ^ after;
+		if ((changed & OUTER_OPEN) != 0) {
+			recorder.offer(journalSource, (after & OUTER_OPEN) != 0 ? JournalEvent.OUTER_DOOR_OPENED : JournalEvent.OUTER_DOOR_CLOSED, 0.0);
+		}
+		if ((changed & INNER_OPEN) != 0) {
+			recorder.offer(journalSource, (after & INNER_OPEN) != 0 ? JournalEvent.INNER_DOOR_OPENED : JournalEvent.INNER_DOOR_CLOSED, 0.0);
+		}
+		if ((changed & SEALED) != 0) {
+			recorder.offer(journalSource, (after & SEALED) != 0 ? JournalEvent.SEALED : JournalEvent.UNSEALED, 0.0);
+		}
+		if ((changed & AUTO) != 0) {
+			recorder.offer(journalSource, (after & AUTO) != 0 ? JournalEvent.AUTO_MODE : JournalEvent.MANUAL_MODE, 0.0);
+		}
+	}
+
+	/*
+	 * Records the latency and outcome of every command in the given metrics,
+	 * which may be shared between airlocks. Pass null to stop recording.
+	 */
+	public void attachMetrics(AirLockMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	private AirLockResult execute(AirLockCommand command, boolean wait) {
+		AirLockMetrics recorder = metrics;
+		AirLockResult result;
+		if (recorder == null) {
+			result = claimAndRun(command, wait);
+		} else if (!recorder.shouldTime()) {
+			result = claimAndRun(command, wait);
+			recorder.count(command, result);
 		} else {
-			state = AirLockState.UNSEALED;
+			long start = System.nanoTime();
+			result = claimAndRun(command, wait);
+			recorder.record(command, System.nanoTime() - start, result);
 		}
+		if (result != AirLockResult.OK) RejectedCommandEvent.emit(command.getCode(), result.name());
+		return result;
 	}
-		
+
+	private AirLockResult claimAndRun(AirLockCommand command, boolean wait) {
+		if (wait) acquireWaiting();
+		else if (!acquire()) return AirLockResult.BUSY;
+		try {
+			return doCommand(command);
+		} finally {
+			release();
+		}
+	}
+
+	private static void check(AirLockResult result) throws AirLockException {
+		if (result != AirLockResult.OK) throw new AirLockException(result.getMessage());
+	}
+
 	@Override
 	public void openOuterDoor() throws AirLockException {
-		if (outerDoor.isOpen()) throw new AirLockException("Door is already open.");
+		check(execute(AirLockCommand.OPEN_OUTER_DOOR, true));
+	}
+
+	@Override
+	public AirLockResult tryOpenOuterDoor() {
+		return execute(AirLockCommand.OPEN_OUTER_DOOR, false);
+	}
+
+	@Override
+	public void closeOuterDoor() throws AirLockException {
+		check(execute(AirLockCommand.CLOSE_OUTER_DOOR, true));
+	}
+
+	@Override
+	public AirLockResult tryCloseOuterDoor() {
+		return execute(AirLockCommand.CLOSE_OUTER_DOOR, false);
+	}
+
+	@Override
+	public void openInnerDoor() throws AirLockException {
+		check(execute(AirLockCommand.OPEN_INNER_DOOR, true));
+	}
+
+	@Override
+	public AirLockResult tryOpenInnerDoor() {
+		return execute(AirLockCommand.OPEN_INNER_DOOR, false);
+	}
+
+	@Override
+	public void closeInnerDoor() throws AirLockException {
+		check(execute(AirLockCommand.CLOSE_INNER_DOOR, true));
+	}
+
+	@Override
+	public AirLockResult tryCloseInnerDoor() {
+		return execute(AirLockCommand.CLOSE_INNER_DOOR, false);
+	}
+
+	@Override
+	public void equaliseWithCabinPressure() throws AirLockException {
+		check(execute(AirLockCommand.EQUALISE_WITH_CABIN, true));
+	}
+
+	@Override
+	public AirLockResult tryEqualiseWithCabinPressure() {
+		return execute(AirLockCommand.EQUALISE_WITH_CABIN, false);
+	}
+
+	@Override
+	public void equaliseWithEnvironmentPressure()  throws AirLockException {
+		check(execute(AirLockCommand.EQUALISE_WITH_ENVIRONMENT, true));
+	}
+
+	@Override
+	public AirLockResult tryEqualiseWithEnvironmentPressure() {
+		return execute(AirLockCommand.EQUALISE_WITH_ENVIRONMENT, false);
+	}
+
+	@Override
+	public AirLockProfile getProfile() {
+		return profile;
+	}
+
+	private AirLockResult setLockPressure(double pressure) {
+		if (pressure < 0.0) return AirLockResult.NEGATIVE_PRESSURE;
+		if (!profile.isInRange(pressure)) return AirLockResult.PRESSURE_OUT_OF_RANGE;
+		EqualisationEvent event = new EqualisationEvent();
+		event.begin();
+		double before = event.isEnabled() ? lockSensor.getPressure() : 0.0;
 		try {
-			if (mode == OperationMode.AUTO) {
-				if (isInnerDoorOpen()) { 
-					closeInnerDoor();
-				}
-				equaliseWithEnvironmentPressure();
-				if (outerDoor.getInternalPressure() - outerDoor.getExternalPressure() != 0) {
-					if (outerDoor.getInternalPressure() - outerDoor.getExternalPressure() > 0.001 || outerDoor.getInternalPressure() - outerDoor.getExternalPressure() < -0.001) {
-						throw new AirLockException("Pressure difference is too great. Cannot open.");
-					}
-				}
-				lockSensor.setPressure(outerDoor.getExternalPressure());
-			}
-			outerDoor.open();
-			state = AirLockState.UNSEALED;
-		} catch (PressureException | DoorException e) {
-			throw new AirLockException(e);
+			lockSensor.setPressure(pressure);
+		} catch (PressureException e) {
+			return AirLockResult.NEGATIVE_PRESSURE;
 		}
+		if (event.isEnabled()) event.record(before, pressure);
+		working |= EQUALISED;
+		return AirLockResult.OK;
 	}
-		
+
 	@Override
-	public void closeOuterDoor() throws AirLockException {
+	public void toggleOperationMode() throws AirLockException{
+		check(execute(AirLockCommand.TOGGLE_OPERATION_MODE, true));
+	}
+
+	@Override
+	public AirLockResult tryToggleOperationMode() {
+		return execute(AirLockCommand.TOGGLE_OPERATION_MODE, false);
+	}
+
+	@Override
+	public void setEnvironmentPressure(double pressure) throws AirLockException {
+		check(setPressure(pressure, false, true));
+	}
+
+	@Override
+	public AirLockResult trySetEnvironmentPressure(double pressure) {
+		return setPressure(pressure, false, false);
+	}
+
+	@Override
+	public void setCabinPressure(double pressure) throws AirLockException {
+		check(setPressure(pressure, true, true));
+	}
+
+	@Override
+	public AirLockResult trySetCabinPressure(double pressure) {
+		return setPressure(pressure, true, false);
+	}
+
+	private AirLockResult setPressure(double pressure, boolean cabin, boolean wait) {
+		if (pressure < 0.0) return AirLockResult.NEGATIVE_PRESSURE;
+		if (!profile.isInRange(pressure)) return AirLockResult.PRESSURE_OUT_OF_RANGE;
+		if (wait) acquireWaiting();
+		else if (!acquire()) return AirLockResult.BUSY;
 		try {
-			outerDoor.close();
-			if (isInnerDoorClosed()) {
-				state = AirLockState.SEALED;
-				equaliseWithCabinPressure();
+			return cabin
+				? spreadPressure(pressure, innerDoor, INNER_OPEN, outerDoor, OUTER_OPEN)
+				: spreadPressure(pressure, outerDoor, OUTER_OPEN, innerDoor, INNER_OPEN);
+		} finally {
+			release();
+		}
+	}
+
+	// The new pressure reaches the lock through an open near door, and the far
+	// side too if both doors are open.
+	private AirLockResult spreadPressure(double pressure, IDoor near, int nearOpen, IDoor far, int farOpen) {
+		try {
+			near.setExternalPressure(pressure);
+			if ((working & nearOpen) != 0) {
+				lockSensor.setPressure(pressure);
+				if ((working & farOpen) != 0) far.setExternalPressure(pressure);
 			}
-		} catch (DoorException e) {
-			throw new AirLockException(e);
+		} catch (PressureException e) {
+			return AirLockResult.NEGATIVE_PRESSURE;
 		}
+		return AirLockResult.OK;
 	}
-	
-	@Override
-	public void openInnerDoor() throws AirLockException {
-		if (innerDoor.isOpen()) throw new AirLockException("Door is already open.");
+
+	/*
+	 * Runs every step of the script under a single claim of the state word.
+	 * The whole sequence is first checked against the door, seal and mode bits,
+	 * so a script that cannot succeed is rejected before anything moves; only
+	 * pressure checks can still stop it part way, and the failing step is
+	 * reported either way.
+	 */
+	public ScriptResult runScript(CycleScript script) {
+		return runScript(script, false);
+	}
+
+	public void executeScript(CycleScript script) throws AirLockException {
+		ScriptResult result = runScript(script, true);
+		if (!result.isSuccess()) throw new AirLockException(result.toString());
+	}
+
+	private ScriptResult runScript(CycleScript script, boolean wait) {
+		AirLockCommand[] steps = script.steps();
+		AirLockMetrics recorder = metrics;
+		if (wait) acquireWaiting();
+		else if (!acquire()) return reject(recorder, steps, 0, AirLockResult.BUSY, false);
 		try {
-			if (mode == OperationMode.AUTO) {
-				if (isOuterDoorOpen()) {
-					closeOuterDoor();
+			int predicted = working;
+			for (int i = 0; i < steps.length; i++) {
+				predicted = predict(predicted, steps[i]);
+				if (predicted >= 0 && (predicted & AUTO) != 0 && !autoModeAllowed) {
+					predicted = ~AirLockResult.AUTO_MODE_NOT_ALLOWED.ordinal();
 				}
-				equaliseWithCabinPressure();
-				if (innerDoor.getInternalPressure() - innerDoor.getExternalPressure() != 0) {
-					if (innerDoor.getExternalPressure() - innerDoor.getInternalPressure() > 0.001 || innerDoor.getExternalPressure() - innerDoor.getInternalPressure() < -0.001) { 
-						throw new AirLockException("Pressure difference is too great. Cannot open.");
-					}
-				}
-				lockSensor.setPressure(innerDoor.getInternalPressure());
+				if (predicted < 0) return reject(recorder, steps, i, RESULTS[~predicted], false);
+			}
+			for (int i = 0; i < steps.length; i++) {
+				AirLockResult result = runStep(recorder, steps[i]);
+				if (result != AirLockResult.OK) return reject(recorder, steps, i, result, true);
 			}
-			innerDoor.open();
-			state = AirLockState.UNSEALED;
-		} catch (DoorException | PressureException e) {
-			throw new AirLockException(e);
+			return ScriptResult.SUCCESS;
+		} finally {
+			release();
 		}
 	}
-	
-	@Override
-	public void closeInnerDoor() throws AirLockException {
+
+	// Steps that ran were already recorded by runStep; the rest count here.
+	private static ScriptResult reject(AirLockMetrics recorder, AirLockCommand[] steps, int step, AirLockResult result, boolean executed) {
+		if (recorder != null && !executed) recorder.count(steps[step], result);
+		RejectedCommandEvent.emit(steps[step].getCode(), result.name());
+		return new ScriptResult(step, steps[step], result, executed);
+	}
+
+	private AirLockResult runStep(AirLockMetrics recorder, AirLockCommand command) {
+		if (recorder == null) return doCommand(command);
+		AirLockResult result;
+		if (!recorder.shouldTime()) {
+			result = doCommand(command);
+			recorder.count(command, result);
+		} else {
+			long start = System.nanoTime();
+			result = doCommand(command);
+			recorder.record(command, System.nanoTime() - start, result);
+		}
+		return result;
+	}
+
+	/*
+	 * Runs the command's program from the transition table against the
+	 * working copy. Each op's control bits are applied as soon as it succeeds.
+	 */
+	private AirLockResult doCommand(AirLockCommand command) {
+		int[] program = TransitionTable.program(working, command);
+		for (int i = 0; i < program.length; i++) {
+			int op = program[i];
+			AirLockResult result = perform(op);
+			if (result != AirLockResult.OK) return result;
+			int before = working;
+			working = (working & ~TransitionTable.CONTROL) | TransitionTable.next(op);
+			TransitionJournal recorder = journal;
+			if (recorder != null && working != before) journalChanges(recorder, before, working);
+			if (listeners.length != 0) queueChanges(before, working);
+			working &= ~EQUALISED;
+		}
+		return AirLockResult.OK;
+	}
+
+	private AirLockResult perform(int op) {
+		switch (TransitionTable.action(op)) {
+			case TransitionTable.REJECT :
+				return RESULTS[TransitionTable.result(op)];
+			case TransitionTable.CLOSE_OUTER :
+				return closeDoor(outerDoor);
+			case TransitionTable.CLOSE_INNER :
+				return closeDoor(innerDoor);
+			case TransitionTable.EQUALISE_ENVIRONMENT :
+				return setLockPressure(outerDoor.getExternalPressure());
+			case TransitionTable.EQUALISE_CABIN :
+				return setLockPressure(innerDoor.getExternalPressure());
+			case TransitionTable.SETTLE_ENVIRONMENT :
+				return settle(outerDoor, outerDoor.getExternalPressure());
+			case TransitionTable.SETTLE_CABIN :
+				return settle(innerDoor, innerDoor.getInternalPressure());
+			case TransitionTable.OPEN_OUTER :
+				return openDoor(outerDoor);
+			case TransitionTable.OPEN_INNER :
+				return openDoor(innerDoor);
+			default :
+				boolean auto = (TransitionTable.next(op) & AUTO) != 0;
+				if (auto && !autoModeAllowed) return AirLockResult.AUTO_MODE_NOT_ALLOWED;
+				ModeChangeEvent.emit(auto ? "AUTO" : "MANUAL");
+				return AirLockResult.OK;
+		}
+	}
+
+	private AirLockResult openDoor(IDoor door) {
+		if (!Pressures.isBalanced(door, toleranceMicroBar)) return AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT;
 		try {
-			innerDoor.close();
-			if (isOuterDoorClosed()) {
-				state = AirLockState.SEALED;
-				equaliseWithCabinPressure();
-			}
+			door.open();
 		} catch (DoorException e) {
-			throw new AirLockException(e);
+			return door.isOpen() ? AirLockResult.DOOR_ALREADY_OPEN : AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT;
 		}
+		return AirLockResult.OK;
 	}
-	
-	@Override
-	public void equaliseWithCabinPressure() throws AirLockException {
-		if (state != AirLockState.SEALED) throw new AirLockException("Error: Airlock is not sealed.");
-		else {
-			try {
-				lockSensor.setPressure(innerDoor.getExternalPressure());
-			} catch (PressureException e) {
-				throw new AirLockException(e);
-			}
+
+	private static AirLockResult closeDoor(IDoor door) {
+		try {
+			door.close();
+		} catch (DoorException e) {
+			return AirLockResult.DOOR_ALREADY_CLOSED;
 		}
-	}	
+		return AirLockResult.OK;
+	}
 
-	@Override
-	public void equaliseWithEnvironmentPressure()  throws AirLockException {
-		if (state != AirLockState.SEALED) throw new AirLockException("Error: Airlock is not sealed.");
-		else {
-			try {
-				lockSensor.setPressure(outerDoor.getExternalPressure());
-			} catch (PressureException e) {
-				throw new AirLockException(e);
-			}
+	private AirLockResult settle(IDoor door, double pressure) {
+		if (!Pressures.isBalanced(door, toleranceMicroBar)) {
+			return AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT;
 		}
+		return setLockPressure(pressure);
+	}
+
+	/*
+	 * The state word a command would leave behind, ignoring pressures, or the
+	 * complement of the rejecting AirLockResult's ordinal (always negative).
+	 */
+	static int predict(int current, AirLockCommand command) {
+		int next = TransitionTable.predicted(current, command);
+		return next < 0 ? next : (current & ~TransitionTable.CONTROL) | next;
 	}
 
 	@Override
-	public void toggleOperationMode() throws AirLockException{
-		if (state != AirLockState.SEALED) throw new AirLockException("Error: Airlock is not sealed.");
-		else if (mode == OperationMode.AUTO) mode = OperationMode.MANUAL;
-		else mode = OperationMode.AUTO;
+	public boolean canOpenOuterDoor() {
+		int current = word.get();
+		if ((current & (BUSY | OUTER_OPEN)) != 0) return false;
+		return (current & AUTO) != 0 || Pressures.isBalanced(outerDoor, toleranceMicroBar);
+	}
+
+	@Override
+	public boolean canCloseOuterDoor() {
+		return (word.get() & (BUSY | OUTER_OPEN)) == OUTER_OPEN;
+	}
+
+	@Override
+	public boolean canOpenInnerDoor() {
+		int current = word.get();
+		if ((current & (BUSY | INNER_OPEN)) != 0) return false;
+		return (current & AUTO) != 0 || Pressures.isBalanced(innerDoor, toleranceMicroBar);
 	}
-	
+
+	@Override
+	public boolean canCloseInnerDoor() {
+		return (word.get() & (BUSY | INNER_OPEN)) == INNER_OPEN;
+	}
+
+	@Override
+	public boolean canEqualisePressure() {
+		return (word.get() & (BUSY | SEALED)) == SEALED;
+	}
+
+	@Override
+	public boolean canToggleOperationMode() {
+		int current = word.get();
+		if ((current & (BUSY | SEALED)) != SEALED) return false;
+		return autoModeAllowed || (current & AUTO) != 0;
+	}
+
 	@Override
 	public boolean isOuterDoorClosed() {
 		return outerDoor.isClosed();
@@ -154,33 +584,52 @@ public class AirLock implements IAirLock{
 
 	@Override
 	public boolean isInManualMode() {
-		if (mode == OperationMode.MANUAL) return true;
-		return false;
+		return (word.get() & AUTO) == 0;
 	}
 
 	@Override
 	public boolean isInAutoMode() {
-		if (mode == OperationMode.AUTO) return true;
-		return false;
+		return (word.get() & AUTO) != 0;
 	}
 
 	@Override
 	public boolean isSealed() {
-		if (state == AirLockState.SEALED) return true;
-		return false;
+		return (word.get() & SEALED) != 0;
+	}
+
+	// The word's low bits are the STATE_* bits.
+	@Override
+	public int getState() {
+		return word.get() & (OUTER_OPEN | INNER_OPEN | SEALED | AUTO);
 	}
 
 	@Override
 	public boolean isUnsealed() {
-		if (state == AirLockState.UNSEALED) return true;
-		return false;
+		return (word.get() & SEALED) == 0;
+	}
+
+	@Override
+	public double getEnvironmentPressure() {
+		return outerDoor.getExternalPressure();
+	}
+
+	@Override
+	public double getLockPressure() {
+		return lockSensor.getPressure();
+	}
+
+	@Override
+	public double getCabinPressure() {
+		return innerDoor.getExternalPressure();
 	}
 
 	public String toString() {
+		int current = word.get();
 		return String.format(
-			"Airlock: state: %s, mode: %s", 
-			state, mode);
+			"Airlock: state: %s, mode: %s",
+			(current & SEALED) != 0 ? AirLockState.SEALED : AirLockState.UNSEALED,
+			(current & AUTO) != 0 ? OperationMode.AUTO : OperationMode.MANUAL);
 	}
-	
+
 
 }
@@ -0,0 +1,80 @@
+package airlock.entities;
+
+import java.util.Locale;
+
+import airlock.exceptions.AirLockException;
+
+public enum AirLockCommand {
+	OPEN_OUTER_DOOR("OX"),
+	OPEN_INNER_DOOR("OI"),
+	CLOSE_OUTER_DOOR("CX"),
+	CLOSE_INNER_DOOR("CI"),
+	EQUALISE_WITH_ENVIRONMENT("EX"),
+	EQUALISE_WITH_CABIN("EI"),
+	TOGGLE_OPERATION_MODE("TM");
+
+	private static final AirLockCommand[] VALUES = values();
+
+	private final String code;
+
+	AirLockCommand(String code) {
+		this.code = code;
+	}
+
+	public String getCode() {
+		return code;
+	}
+
+	public void execute(IAirLock airLock) throws AirLockException {
+		switch (this) {
+			case OPEN_OUTER_DOOR :
+				airLock.openOuterDoor();
+				break;
+			case OPEN_INNER_DOOR :
+				airLock.openInnerDoor();
+				break;
+			case CLOSE_OUTER_DOOR :
+				airLock.closeOuterDoor();
+				break;
+			case CLOSE_INNER_DOOR :
+				airLock.closeInnerDoor();
+				break;
+			case EQUALISE_WITH_ENVIRONMENT :
+				airLock.equaliseWithEnvironmentPressure();
+				break;
+			case EQUALISE_WITH_CABIN :
+				airLock.equaliseWithCabinPressure();
+				break;
+			case TOGGLE_OPERATION_MODE :
+				airLock.toggleOperationMode();
+				break;
+		}
+	}
+
+	public AirLockResult tryExecute(IAirLock airLock) {
+		switch (this) {
+			case OPEN_OUTER_DOOR :
+				return airLock.tryOpenOuterDoor();
+			case OPEN_INNER_DOOR :
+				return airLock.tryOpenInnerDoor();
+			case CLOSE_OUTER_DOOR :
+				return airLock.tryCloseOuterDoor();
+			case CLOSE_INNER_DOOR :
+				return airLock.tryCloseInnerDoor();
+			case EQUALISE_WITH_ENVIRONMENT :
+				return airLock.tryEqualiseWithEnvironmentPressure();
+			case EQUALISE_WITH_CABIN :
+				return airLock.tryEqualiseWithCabinPressure();
+			default :
+				return airLock.tryToggleOperationMode();
+		}
+	}
+
+	public static AirLockCommand fromCode(String code) {
+		String key = code.toUpperCase(Locale.ROOT).strip();
+		for (AirLockCommand command : VALUES) {
+			if (command.code.equals(key)) return command;
+		}
+		return null;
+	}
+}
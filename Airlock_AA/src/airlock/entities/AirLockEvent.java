@@ -0,0 +1,12 @@
+package airlock.entities;
+
+public enum AirLockEvent {
+	OUTER_DOOR_OPENED,
+	OUTER_DOOR_CLOSED,
+	INNER_DOOR_OPENED,
+	INNER_DOOR_CLOSED,
+	SEALED,
+	UNSEALED,
+	MODE_TOGGLED,
+	EQUALISED
+}
@@ -0,0 +1,10 @@
+package airlock.entities;
+
+/*
+ * Called on the thread that ran the command, after the new state has been
+ * published, so listeners see it through the IAirLock queries.
+ */
+public interface AirLockListener {
+
+	void onAirLockEvent(IAirLock source, AirLockEvent event);
+}
@@ -0,0 +1,202 @@
+package airlock.entities;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/*
+ * Immutable operating limits for a class of airlock: the door pressure
+ * tolerance, the range of pressures the airlock accepts, the mode it starts
+ * in and whether AUTO mode may be used at all. A profile is validated when it
+ * is built, and Door and AirLock copy what they need into final fields, so
+ * airlocks with different profiles share nothing mutable.
+ *
+ * Profiles are loaded from a properties file keyed by profile name:
+ *
+ *   cargo.tolerance       = 0.01
+ *   cargo.minPressure     = 0.0
+ *   cargo.maxPressure     = 2.0
+ *   cargo.defaultMode     = MANUAL
+ *   cargo.autoModeAllowed = false
+ *
+ * Any key left out takes its value from DEFAULT.
+ */
+public final class AirLockProfile {
+
+	public static final AirLockProfile DEFAULT = new AirLockProfile(
+		"default", Door.TOLERANCE, 0.0, Double.POSITIVE_INFINITY, OperationMode.MANUAL, true);
+
+	private static final String[] KEYS = {"tolerance", "minPressure", "maxPressure", "defaultMode", "autoModeAllowed"};
+
+	private final String name;
+	private final double tolerance;
+	private final double minPressure;
+	private final double maxPressure;
+	private final OperationMode defaultMode;
+	private final boolean autoModeAllowed;
+	private final long toleranceMicroBar;
+	private final long minMicroBar;
+	private final long maxMicroBar;
+
+	public AirLockProfile(String name, double tolerance, double minPressure, double maxPressure,
+	                      OperationMode defaultMode, boolean autoModeAllowed) {
+		if (name == null || name.isEmpty()) throw new IllegalArgumentException("Profile name must not be empty.");
+		if (!(tolerance >= 0.0) || Double.isInfinite(tolerance)) {
+			throw new IllegalArgumentException("Profile " + name + ": tolerance must be a finite, non-negative pressure.");
+		}
+		if (!(minPressure >= 0.0) || Double.isInfinite(minPressure) || !(maxPressure >= minPressure)) {
+			throw new IllegalArgumentException("Profile " + name + ": pressure range must satisfy 0 <= minPressure <= maxPressure.");
+		}
+		if (defaultMode == null) throw new IllegalArgumentException("Profile " + name + ": defaultMode must not be null.");
+		if (defaultMode == OperationMode.AUTO && !autoModeAllowed) {
+			throw new IllegalArgumentException("Profile " + name + ": defaultMode is AUTO but AUTO mode is not allowed.");
+		}
+		this.name = name;
+		this.tolerance = tolerance;
+		this.minPressure = minPressure;
+		this.maxPressure = maxPressure;
+		this.defaultMode = defaultMode;
+		this.autoModeAllowed = autoModeAllowed;
+		this.toleranceMicroBar = Pressures.toMicroBar(tolerance);
+		this.minMicroBar = Pressures.toMicroBar(minPressure);
+		this.maxMicroBar = maxPressure == Double.POSITIVE_INFINITY ? Long.MAX_VALUE : Pressures.toMicroBar(maxPressure);
+	}
+
+	/*
+	 * Reads every profile in the file, in the order the names first appear.
+	 */
+	public static Map<String, AirLockProfile> load(Path path) throws IOException {
+		Properties properties = new Properties();
+		try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			properties.load(in);
+		}
+		return fromProperties(properties);
+	}
+
+	public static Map<String, AirLockProfile> fromProperties(Properties properties) {
+		Map<String, Properties> grouped = new LinkedHashMap<>();
+		for (String key : properties.stringPropertyNames()) {
+			int dot = key.lastIndexOf('.');
+			String field = key.substring(dot + 1);
+			if (dot <= 0 || !isKey(field)) throw new IllegalArgumentException("Unknown profile setting: " + key);
+			grouped.computeIfAbsent(key.substring(0, dot), n -> new Properties())
+				.setProperty(field, properties.getProperty(key).trim());
+		}
+		Map<String, AirLockProfile> profiles = new LinkedHashMap<>();
+		for (Map.Entry<String, Properties> entry : grouped.entrySet()) {
+			profiles.put(entry.getKey(), parse(entry.getKey(), entry.getValue()));
+		}
+		return Collections.unmodifiableMap(profiles);
+	}
+
+	private static boolean isKey(String field) {
+		for (String key : KEYS) {
+			if (key.equals(field)) return true;
+		}
+		return false;
+	}
+
+	private static AirLockProfile parse(String name, Properties values) {
+		return new AirLockProfile(name,
+			number(name, values, "tolerance", DEFAULT.tolerance),
+			number(name, values, "minPressure", DEFAULT.minPressure),
+			number(name, values, "maxPressure", DEFAULT.maxPressure),
+			mode(name, values.getProperty("defaultMode")),
+			flag(name, values.getProperty("autoModeAllowed")));
+	}
+
+	private static double number(String name, Properties values, String key, double fallback) {
+		String value = values.getProperty(key);
+		if (value == null) return fallback;
+		try {
+			return Double.parseDouble(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Profile " + name + ": " + key + " is not a number: " + value);
+		}
+	}
+
+	private static OperationMode mode(String name, String value) {
+		if (value == null) return DEFAULT.defaultMode;
+		try {
+			return OperationMode.valueOf(value.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Profile " + name + ": defaultMode must be MANUAL or AUTO, not " + value);
+		}
+	}
+
+	private static boolean flag(String name, String value) {
+		if (value == null) return DEFAULT.autoModeAllowed;
+		if (value.equalsIgnoreCase("true")) return true;
+		if (value.equalsIgnoreCase("false")) return false;
+		throw new IllegalArgumentException("Profile " + name + ": autoModeAllowed must be true or false, not " + value);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	public long getToleranceMicroBar() {
+		return toleranceMicroBar;
+	}
+
+	public double getMinPressure() {
+		return minPressure;
+	}
+
+	public double getMaxPressure() {
+		return maxPressure;
+	}
+
+	// NaN, infinities and pressures beyond a long micro-bar count are never in range.
+	public boolean isInRange(double pressure) {
+		if (!Pressures.isRepresentable(pressure)) return false;
+		long microBar = Pressures.toMicroBar(pressure);
+		return microBar >= minMicroBar && microBar <= maxMicroBar;
+	}
+
+	public OperationMode getDefaultMode() {
+		return defaultMode;
+	}
+
+	public boolean isAutoModeAllowed() {
+		return autoModeAllowed;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof AirLockProfile)) return false;
+		AirLockProfile that = (AirLockProfile) other;
+		return name.equals(that.name)
+			&& Double.compare(tolerance, that.tolerance) == 0
+			&& Double.compare(minPressure, that.minPressure) == 0
+			&& Double.compare(maxPressure, that.maxPressure) == 0
+			&& defaultMode == that.defaultMode
+			&& autoModeAllowed == that.autoModeAllowed;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = name.hashCode();
+		hash = 31 * hash + Double.hashCode(tolerance);
+		hash = 31 * hash + Double.hashCode(minPressure);
+		hash = 31 * hash + Double.hashCode(maxPressure);
+		hash = 31 * hash + defaultMode.hashCode();
+		return 31 * hash + Boolean.hashCode(autoModeAllowed);
+	}
+
+	public String toString() {
+		return String.format(
+			"AirLockProfile: %s, tolerance: %s bar, range: %s-%s bar, default mode: %s, auto mode allowed: %s",
+			name, tolerance, minPressure, maxPressure, defaultMode, autoModeAllowed);
+	}
+}
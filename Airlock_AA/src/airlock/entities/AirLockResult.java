@@ -0,0 +1,27 @@
+package airlock.entities;
+
+public enum AirLockResult {
+	OK("OK"),
+	BUSY("Airlock is busy with another command."),
+	DOOR_ALREADY_OPEN("Door is already open."),
+	DOOR_ALREADY_CLOSED("Door is already closed."),
+	PRESSURE_DIFFERENCE_TOO_GREAT("Pressure difference is too great. Cannot open."),
+	NOT_SEALED("Error: Airlock is not sealed."),
+	NEGATIVE_PRESSURE("Cannot set negative pressure."),
+	PRESSURE_OUT_OF_RANGE("Pressure is outside the range allowed by the airlock's profile."),
+	AUTO_MODE_NOT_ALLOWED("AUTO mode is not allowed by the airlock's profile.");
+
+	private final String message;
+
+	AirLockResult(String message) {
+		this.message = message;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public boolean isSuccess() {
+		return this == OK;
+	}
+}
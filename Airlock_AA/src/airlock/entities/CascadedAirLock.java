@@ -0,0 +1,672 @@
+package airlock.entities;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+import airlock.jfr.ModeChangeEvent;
+import airlock.jfr.RejectedCommandEvent;
+
+/*
+ * Airlock with several chambers in series. Door 0 is the outer door, facing
+ * the environment, and the last door is the inner door, facing the cabin;
+ * chamber k lies between doors k and k + 1. As with AirLock, the outer and
+ * inner doors' external sensors read the environment and cabin pressures.
+ * Doors in between sit between two chamber sensors, either way round.
+ *
+ * The IAirLock commands act on the two end doors; openDoor and closeDoor
+ * reach the ones in between. In AUTO mode at most one door is open at a
+ * time, and opening door i first brings both its chambers to the stage
+ * pressure for that door, graded evenly from the environment (door 0) to the
+ * cabin (last door). Each stage therefore pumps only its share of the total
+ * difference. Once the door is open, the chamber after the next door in the
+ * direction of travel is isolated, so it is pre-equalised to the next stage
+ * on the given executor while this door is in use; the next open waits for
+ * it instead of pumping it again.
+ *
+ * As with AirLock, closing the last open door seals the airlock and
+ * equalises the whole chain with the cabin, from the inner end outwards. In
+ * AUTO mode the doors an open command closes are left alone, since the chain
+ * is staged for the opening door straight away; after a close command the
+ * next stage is pre-equalised again. A pre-equalisation the executor refuses
+ * is left to the next open, which pumps the chamber itself.
+ *
+ * The try* commands return BUSY while another command runs; the throwing
+ * ones wait for it to finish.
+ */
+public class CascadedAirLock implements IAirLock {
+
+	public static final int MAX_DOORS = 62;
+
+	private static final long AUTO = 1L << 62;
+	private static final long BUSY = 1L << 63;
+
+	private static final Executor DIRECT = Runnable::run;
+	private static final long WAIT_NANOS = 10_000;
+
+	private static final int OPEN = 0;
+	private static final int CLOSE = 1;
+	private static final int EQUALISE_ENVIRONMENT = 2;
+	private static final int EQUALISE_CABIN = 3;
+	private static final int TOGGLE = 4;
+	private static final int SET_ENVIRONMENT = 5;
+	private static final int SET_CABIN = 6;
+
+	private final IDoor[] doors;
+	private final IPressureSensor[] chambers;
+	private final int last;
+	private final long allDoors;
+	private final AirLockProfile profile;
+	private final long toleranceMicroBar;
+	private final ChamberPump pump;
+	private final Executor executor;
+
+	private final AtomicLong word = new AtomicLong();
+	// Only touched by the thread holding BUSY.
+	private long claimed;
+	private long working;
+	private boolean equalised;
+	private int lastDoor = -1;
+	private int direction = 1;
+	private final CompletableFuture<?>[] pending;
+
+	private volatile AirLockListener[] listeners = Listeners.NO_AIRLOCK_LISTENERS;
+
+	public CascadedAirLock(List<? extends IDoor> doors, List<? extends IPressureSensor> chambers) throws DoorException {
+		this(doors, chambers, AirLockProfile.DEFAULT);
+	}
+
+	public CascadedAirLock(List<? extends IDoor> doors, List<? extends IPressureSensor> chambers,
+	                       AirLockProfile profile) throws DoorException {
+		this(doors, chambers, profile.getDefaultMode(), profile, ChamberPump.INSTANT, DIRECT);
+	}
+
+	/*
+	 * Pre-equalisation runs on the executor; pass a direct executor to have
+	 * it done by the command that opened the door.
+	 */
+	public CascadedAirLock(List<? extends IDoor> doors, List<? extends IPressureSensor> chambers, OperationMode mode,
+	                       AirLockProfile profile, ChamberPump pump, Executor executor) throws DoorException {
+		if (profile == null || pump == null || executor == null) {
+			throw new IllegalArgumentException("Profile, pump and executor must not be null.");
+		}
+		if (mode == OperationMode.AUTO && !profile.isAutoModeAllowed()) {
+			throw new IllegalArgumentException("AUTO mode is not allowed by profile " + profile.getName() + ".");
+		}
+		if (doors == null || doors.size() < 2 || doors.size() > MAX_DOORS || doors.contains(null)) {
+			throw new DoorException("A cascaded airlock needs between 2 and " + MAX_DOORS + " valid doors.");
+		}
+		if (chambers == null || chambers.size() != doors.size() - 1 || chambers.contains(null)) {
+			throw new IllegalArgumentException(doors.size() + " doors need " + (doors.size() - 1) + " chamber sensors.");
+		}
+		this.doors = doors.toArray(new IDoor[0]);
+		this.chambers = chambers.toArray(new IPressureSensor[0]);
+		this.last = this.doors.length - 1;
+		this.allDoors = (1L << this.doors.length) - 1;
+		this.profile = profile;
+		this.toleranceMicroBar = profile.getToleranceMicroBar();
+		this.pump = pump;
+		this.executor = executor;
+		this.pending = new CompletableFuture<?>[this.chambers.length];
+
+		long initial = 0;
+		for (int i = 0; i <= last; i++) {
+			if (this.doors[i].isOpen()) initial |= 1L << i;
+		}
+		if (mode == OperationMode.AUTO) {
+			if (Long.bitCount(initial) > 1) throw new DoorException("At most one door can be open in AUTO mode.");
+			initial |= AUTO;
+		}
+		word.set(initial);
+	}
+
+	private boolean acquire() {
+		while (true) {
+			long current = word.get();
+			if ((current & BUSY) != 0) return false;
+			if (word.compareAndSet(current, current | BUSY)) {
+				claimed = current;
+				working = current;
+				return true;
+			}
+		}
+	}
+
+	private void acquireWaiting() {
+		for (int spins = 0; !acquire(); spins++) {
+			if (spins < 64) Thread.onSpinWait();
+			else if (spins < 128) Thread.yield();
+			else LockSupport.parkNanos(WAIT_NANOS);
+		}
+	}
+
+	private boolean claim(boolean wait) {
+		if (!wait) return acquire();
+		acquireWaiting();
+		return true;
+	}
+
+	private void release() {
+		long before = claimed;
+		long after = working;
+		boolean pumped = equalised;
+		equalised = false;
+		word.set(after);
+		AirLockListener[] current = listeners;
+		if (current.length != 0 && (after != before || pumped)) fireChanges(current, before, after, pumped);
+	}
+
+	@Override
+	public synchronized void addListener(AirLockListener listener) {
+		listeners = Listeners.add(listeners, listener);
+	}
+
+	@Override
+	public synchronized void removeListener(AirLockListener listener) {
+		listeners = Listeners.remove(listeners, listener);
+	}
+
+	private void fireChanges(AirLockListener[] current, long before, long after, boolean pumped) {
+		long changed = before ^ after;
+		long inner = 1L << last;
+		if ((changed & inner) != 0 && (after & inner) == 0) fire(current, AirLockEvent.INNER_DOOR_CLOSED);
+		if ((changed & 1) != 0 && (after & 1) == 0) fire(current, AirLockEvent.OUTER_DOOR_CLOSED);
+		if ((changed & 1) != 0 && (after & 1) != 0) fire(current, AirLockEvent.OUTER_DOOR_OPENED);
+		if ((changed & inner) != 0 && (after & inner) != 0) fire(current, AirLockEvent.INNER_DOOR_OPENED);
+		boolean sealedBefore = (before & allDoors) == 0;
+		boolean sealedAfter = (after & allDoors) == 0;
+		if (sealedBefore != sealedAfter) fire(current, sealedAfter ? AirLockEvent.SEALED : AirLockEvent.UNSEALED);
+		if ((changed & AUTO) != 0) fire(current, AirLockEvent.MODE_TOGGLED);
+		if (pumped) fire(current, AirLockEvent.EQUALISED);
+	}
+
+	private void fire(AirLockListener[] current, AirLockEvent event) {
+		for (int i = 0; i < current.length; i++) {
+			try {
+				current[i].onAirLockEvent(this, event);
+			} catch (RuntimeException e) {
+				Listeners.report(e);
+			}
+		}
+	}
+
+	private AirLockResult execute(int action, int door, double pressure, boolean wait) {
+		AirLockResult result;
+		if (!claim(wait)) {
+			result = AirLockResult.BUSY;
+		} else {
+			try {
+				result = perform(action, door, pressure);
+			} finally {
+				release();
+			}
+		}
+		if (result != AirLockResult.OK) RejectedCommandEvent.emit(codeOf(action, door), result.name());
+		return result;
+	}
+
+	private String codeOf(int action, int door) {
+		switch (action) {
+			case OPEN :
+				return door == 0 ? "OX" : door == last ? "OI" : "O" + door;
+			case CLOSE :
+				return door == 0 ? "CX" : door == last ? "CI" : "C" + door;
+			case EQUALISE_ENVIRONMENT :
+				return "EX";
+			case EQUALISE_CABIN :
+				return "EI";
+			case TOGGLE :
+				return "TM";
+			case SET_ENVIRONMENT :
+				return "SX";
+			default :
+				return "SI";
+		}
+	}
+
+	private AirLockResult perform(int action, int door, double pressure) {
+		switch (action) {
+			case OPEN :
+				return open(door);
+			case CLOSE :
+				return closeAndSeal(door);
+			case EQUALISE_ENVIRONMENT :
+				return equalise(doors[0].getExternalPressure(), 0, 1);
+			case EQUALISE_CABIN :
+				return equalise(doors[last].getExternalPressure(), chambers.length - 1, -1);
+			case TOGGLE :
+				return toggle();
+			case SET_ENVIRONMENT :
+				return spread(pressure, 0, 1);
+			default :
+				return spread(pressure, last, -1);
+		}
+	}
+
+	private AirLockResult open(int door) {
+		long bit = 1L << door;
+		if ((working & bit) != 0) return AirLockResult.DOOR_ALREADY_OPEN;
+		if (door > 0) await(door - 1);
+		if (door < last) await(door);
+		if (door == 0) direction = 1;
+		else if (door == last) direction = -1;
+		else if (door != lastDoor) direction = door > lastDoor ? 1 : -1;
+		lastDoor = door;
+
+		if ((working & AUTO) != 0) {
+			for (int i = 0; i <= last; i++) {
+				if ((working & (1L << i)) == 0) continue;
+				AirLockResult closed = close(i);
+				if (closed != AirLockResult.OK) return closed;
+			}
+			AirLockResult staged = stage(door);
+			if (staged != AirLockResult.OK) return staged;
+		}
+		IDoor target = doors[door];
+		if (!Pressures.isBalanced(target, toleranceMicroBar)) return AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT;
+		try {
+			target.open();
+		} catch (DoorException e) {
+			return target.isOpen() ? AirLockResult.DOOR_ALREADY_OPEN : AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT;
+		}
+		working |= bit;
+		if ((working & AUTO) != 0) preEqualise(door);
+		return AirLockResult.OK;
+	}
+
+	private AirLockResult closeAndSeal(int door) {
+		AirLockResult result = close(door);
+		if (result != AirLockResult.OK || (working & allDoors) != 0) return result;
+		result = equalise(doors[last].getExternalPressure(), chambers.length - 1, -1);
+		if (result == AirLockResult.OK && (working & AUTO) != 0 && lastDoor >= 0) preEqualise(lastDoor);
+		return result;
+	}
+
+	private AirLockResult close(int door) {
+		long bit = 1L << door;
+		if ((working & bit) == 0) return AirLockResult.DOOR_ALREADY_CLOSED;
+		try {
+			doors[door].close();
+		} catch (DoorException e) {
+			return AirLockResult.DOOR_ALREADY_CLOSED;
+		}
+		working &= ~bit;
+		return AirLockResult.OK;
+	}
+
+	// Brings the chambers either side of the door to its stage pressure.
+	private AirLockResult stage(int door) {
+		double target = stagePressure(door);
+		if (!profile.isInRange(target)) return AirLockResult.PRESSURE_OUT_OF_RANGE;
+		if (door > 0) {
+			AirLockResult result = pumpTo(door - 1, target);
+			if (result != AirLockResult.OK) return result;
+		}
+		if (door < last) return pumpTo(door, target);
+		return AirLockResult.OK;
+	}
+
+	/*
+	 * Pressure both sides of a door are brought to before it opens in AUTO
+	 * mode, graded evenly between the environment and the cabin.
+	 */
+	public double stagePressure(int door) {
+		Objects.checkIndex(door, doors.length);
+		double environment = doors[0].getExternalPressure();
+		double cabin = doors[last].getExternalPressure();
+		if (door == 0) return environment;
+		if (door == last) return cabin;
+		return environment + (cabin - environment) * door / last;
+	}
+
+	private AirLockResult pumpTo(int chamber, double target) {
+		IPressureSensor sensor = chambers[chamber];
+		if (sensor.getMicroBar() == Pressures.toMicroBar(target)) return AirLockResult.OK;
+		try {
+			pump.pump(sensor, target);
+		} catch (PressureException e) {
+			return AirLockResult.NEGATIVE_PRESSURE;
+		}
+		equalised = true;
+		return AirLockResult.OK;
+	}
+
+	// Starts pumping the chamber beyond the next door while this one is in use.
+	private void preEqualise(int door) {
+		int next = door + direction;
+		int chamber = direction > 0 ? door + 1 : door - 2;
+		if (chamber < 0 || chamber >= chambers.length) return;
+		double target = stagePressure(next);
+		IPressureSensor sensor = chambers[chamber];
+		if (!profile.isInRange(target) || sensor.getMicroBar() == Pressures.toMicroBar(target)) return;
+		await(chamber);
+		try {
+			pending[chamber] = CompletableFuture.runAsync(() -> {
+				try {
+					pump.pump(sensor, target);
+				} catch (PressureException e) {
+					throw new CompletionException(e);
+				}
+			}, executor);
+		} catch (RejectedExecutionException e) {
+			// pumped on demand by the next open
+		}
+	}
+
+	// A failed pre-equalisation is ignored here; the chamber is simply pumped
+	// again when its door is opened, which reports the failure if it persists.
+	private void await(int chamber) {
+		CompletableFuture<?> running = pending[chamber];
+		if (running == null) return;
+		pending[chamber] = null;
+		try {
+			running.join();
+		} catch (CompletionException e) {
+			// pumped again on demand
+		}
+	}
+
+	private AirLockResult equalise(double pressure, int first, int step) {
+		if ((working & allDoors) != 0) return AirLockResult.NOT_SEALED;
+		if (!profile.isInRange(pressure)) return AirLockResult.PRESSURE_OUT_OF_RANGE;
+		for (int chamber = first; chamber >= 0 && chamber < chambers.length; chamber += step) {
+			await(chamber);
+			AirLockResult result = pumpTo(chamber, pressure);
+			if (result != AirLockResult.OK) return result;
+		}
+		return AirLockResult.OK;
+	}
+
+	private AirLockResult toggle() {
+		if ((working & allDoors) != 0) return AirLockResult.NOT_SEALED;
+		boolean auto = (working & AUTO) == 0;
+		if (auto && !profile.isAutoModeAllowed()) return AirLockResult.AUTO_MODE_NOT_ALLOWED;
+		working ^= AUTO;
+		ModeChangeEvent.emit(auto ? "AUTO" : "MANUAL");
+		return AirLockResult.OK;
+	}
+
+	// The new pressure reaches every chamber up to the first closed door, and
+	// the far side too if all the doors are open.
+	private AirLockResult spread(double pressure, int end, int step) {
+		if (pressure < 0.0) return AirLockResult.NEGATIVE_PRESSURE;
+		// isInRange also turns away NaN and infinities
+		if (!profile.isInRange(pressure)) return AirLockResult.PRESSURE_OUT_OF_RANGE;
+		try {
+			doors[end].setExternalPressure(pressure);
+			for (int door = end; door >= 0 && door <= last && (working & (1L << door)) != 0; door += step) {
+				int chamber = step > 0 ? door : door - 1;
+				if (chamber < 0 || chamber >= chambers.length) {
+					doors[door].setExternalPressure(pressure);
+				} else {
+					chambers[chamber].setPressure(pressure);
+				}
+			}
+		} catch (PressureException e) {
+			return AirLockResult.NEGATIVE_PRESSURE;
+		}
+		return AirLockResult.OK;
+	}
+
+	private static void check(AirLockResult result) throws AirLockException {
+		if (result != AirLockResult.OK) throw new AirLockException(result.getMessage());
+	}
+
+	public void openDoor(int door) throws AirLockException {
+		Objects.checkIndex(door, doors.length);
+		check(execute(OPEN, door, 0.0, true));
+	}
+
+	public AirLockResult tryOpenDoor(int door) {
+		Objects.checkIndex(door, doors.length);
+		return execute(OPEN, door, 0.0, false);
+	}
+
+	public void closeDoor(int door) throws AirLockException {
+		Objects.checkIndex(door, doors.length);
+		check(execute(CLOSE, door, 0.0, true));
+	}
+
+	public AirLockResult tryCloseDoor(int door) {
+		Objects.checkIndex(door, doors.length);
+		return execute(CLOSE, door, 0.0, false);
+	}
+
+	@Override
+	public void openOuterDoor() throws AirLockException {
+		check(execute(OPEN, 0, 0.0, true));
+	}
+
+	@Override
+	public AirLockResult tryOpenOuterDoor() {
+		return execute(OPEN, 0, 0.0, false);
+	}
+
+	@Override
+	public void closeOuterDoor() throws AirLockException {
+		check(execute(CLOSE, 0, 0.0, true));
+	}
+
+	@Override
+	public AirLockResult tryCloseOuterDoor() {
+		return execute(CLOSE, 0, 0.0, false);
+	}
+
+	@Override
+	public void openInnerDoor() throws AirLockException {
+		check(execute(OPEN, last, 0.0, true));
+	}
+
+	@Override
+	public AirLockResult tryOpenInnerDoor() {
+		return execute(OPEN, last, 0.0, false);
+	}
+
+	@Override
+	public void closeInnerDoor() throws AirLockException {
+		check(execute(CLOSE, last, 0.0, true));
+	}
+
+	@Override
+	public AirLockResult tryCloseInnerDoor() {
+		return execute(CLOSE, last, 0.0, false);
+	}
+
+	@Override
+	public void equaliseWithCabinPressure() throws AirLockException {
+		check(execute(EQUALISE_CABIN, 0, 0.0, true));
+	}
+
+	@Override
+	public AirLockResult tryEqualiseWithCabinPressure() {
+		return execute(EQUALISE_CABIN, 0, 0.0, false);
+	}
+
+	@Override
+	public void equaliseWithEnvironmentPressure() throws AirLockException {
+		check(execute(EQUALISE_ENVIRONMENT, 0, 0.0, true));
+	}
+
+	@Override
+	public AirLockResult tryEqualiseWithEnvironmentPressure() {
+		return execute(EQUALISE_ENVIRONMENT, 0, 0.0, false);
+	}
+
+	@Override
+	public void toggleOperationMode() throws AirLockException {
+		check(execute(TOGGLE, 0, 0.0, true));
+	}
+
+	@Override
+	public AirLockResult tryToggleOperationMode() {
+		return execute(TOGGLE, 0, 0.0, false);
+	}
+
+	@Override
+	public void setEnvironmentPressure(double pressure) throws AirLockException {
+		check(execute(SET_ENVIRONMENT, 0, pressure, true));
+	}
+
+	@Override
+	public AirLockResult trySetEnvironmentPressure(double pressure) {
+		return execute(SET_ENVIRONMENT, 0, pressure, false);
+	}
+
+	@Override
+	public void setCabinPressure(double pressure) throws AirLockException {
+		check(execute(SET_CABIN, last, pressure, true));
+	}
+
+	@Override
+	public AirLockResult trySetCabinPressure(double pressure) {
+		return execute(SET_CABIN, last, pressure, false);
+	}
+
+	public boolean canOpenDoor(int door) {
+		long current = word.get();
+		if ((current & (BUSY | (1L << door))) != 0) return false;
+		return (current & AUTO) != 0 || Pressures.isBalanced(doors[door], toleranceMicroBar);
+	}
+
+	public boolean canCloseDoor(int door) {
+		long bit = 1L << door;
+		return (word.get() & (BUSY | bit)) == bit;
+	}
+
+	@Override
+	public boolean canOpenOuterDoor() {
+		return canOpenDoor(0);
+	}
+
+	@Override
+	public boolean canCloseOuterDoor() {
+		return canCloseDoor(0);
+	}
+
+	@Override
+	public boolean canOpenInnerDoor() {
+		return canOpenDoor(last);
+	}
+
+	@Override
+	public boolean canCloseInnerDoor() {
+		return canCloseDoor(last);
+	}
+
+	@Override
+	public boolean canEqualisePressure() {
+		return (word.get() & (BUSY | allDoors)) == 0;
+	}
+
+	@Override
+	public boolean canToggleOperationMode() {
+		long current = word.get();
+		if ((current & (BUSY | allDoors)) != 0) return false;
+		return profile.isAutoModeAllowed() || (current & AUTO) != 0;
+	}
+
+	public boolean isDoorOpen(int door) {
+		Objects.checkIndex(door, doors.length);
+		return (word.get() & (1L << door)) != 0;
+	}
+
+	@Override
+	public boolean isOuterDoorClosed() {
+		return (word.get() & 1) == 0;
+	}
+
+	@Override
+	public boolean isOuterDoorOpen() {
+		return (word.get() & 1) != 0;
+	}
+
+	@Override
+	public boolean isInnerDoorClosed() {
+		return (word.get() & (1L << last)) == 0;
+	}
+
+	@Override
+	public boolean isInnerDoorOpen() {
+		return (word.get() & (1L << last)) != 0;
+	}
+
+	@Override
+	public boolean isSealed() {
+		return (word.get() & allDoors) == 0;
+	}
+
+	@Override
+	public boolean isUnsealed() {
+		return (word.get() & allDoors) != 0;
+	}
+
+	@Override
+	public boolean isInManualMode() {
+		return (word.get() & AUTO) == 0;
+	}
+
+	@Override
+	public boolean isInAutoMode() {
+		return (word.get() & AUTO) != 0;
+	}
+
+	@Override
+	public int getState() {
+		long current = word.get();
+		int state = 0;
+		if ((current & 1) != 0) state |= STATE_OUTER_OPEN;
+		if ((current & (1L << last)) != 0) state |= STATE_INNER_OPEN;
+		if ((current & allDoors) == 0) state |= STATE_SEALED;
+		if ((current & AUTO) != 0) state |= STATE_AUTO;
+		return state;
+	}
+
+	public int getDoorCount() {
+		return doors.length;
+	}
+
+	public int getChamberCount() {
+		return chambers.length;
+	}
+
+	public double getChamberPressure(int chamber) {
+		return chambers[chamber].getPressure();
+	}
+
+	@Override
+	public AirLockProfile getProfile() {
+		return profile;
+	}
+
+	@Override
+	public double getEnvironmentPressure() {
+		return doors[0].getExternalPressure();
+	}
+
+	// The first chamber, next to the outer door.
+	@Override
+	public double getLockPressure() {
+		return chambers[0].getPressure();
+	}
+
+	@Override
+	public double getCabinPressure() {
+		return doors[last].getExternalPressure();
+	}
+
+	public String toString() {
+		long current = word.get();
+		return String.format(
+			"CascadedAirlock: chambers: %d, state: %s, mode: %s", chambers.length,
+			(current & allDoors) == 0 ? AirLockState.SEALED : AirLockState.UNSEALED,
+			(current & AUTO) != 0 ? OperationMode.AUTO : OperationMode.MANUAL);
+	}
+}
@@ -0,0 +1,15 @@
+package airlock.entities;
+
+import airlock.exceptions.PressureException;
+
+/*
+ * Brings one chamber of a CascadedAirLock to a target pressure, returning
+ * once it is there. The default just writes the sensor; a real pump blocks
+ * for as long as pumping takes.
+ */
+public interface ChamberPump {
+
+	ChamberPump INSTANT = (chamber, target) -> chamber.setPressure(target);
+
+	void pump(IPressureSensor chamber, double target) throws PressureException;
+}
@@ -0,0 +1,69 @@
+package airlock.entities;
+
+import java.util.Arrays;
+
+import airlock.exceptions.AirLockException;
+
+/*
+ * A compiled sequence of airlock commands, e.g. "OI, CI, EX, OX, CX", that
+ * AirLock.runScript executes as one unit.
+ */
+public final class CycleScript {
+
+	private final AirLockCommand[] steps;
+
+	private CycleScript(AirLockCommand[] steps) {
+		this.steps = steps;
+	}
+
+	public static CycleScript of(AirLockCommand... steps) throws AirLockException {
+		if (steps.length == 0) throw new AirLockException("Cycle script has no steps.");
+		for (AirLockCommand step : steps) {
+			if (step == null) throw new AirLockException("Cycle script contains a null step.");
+		}
+		return new CycleScript(steps.clone());
+	}
+
+	public static CycleScript compile(String source) throws AirLockException {
+		String[] codes = source.strip().split("[\\s,;]+");
+		AirLockCommand[] steps = new AirLockCommand[codes.length];
+		for (int i = 0; i < codes.length; i++) {
+			steps[i] = AirLockCommand.fromCode(codes[i]);
+			if (steps[i] == null) {
+				throw new AirLockException(String.format("Unrecognised command '%s' at step %d.", codes[i], i));
+			}
+		}
+		return of(steps);
+	}
+
+	public int length() {
+		return steps.length;
+	}
+
+	public AirLockCommand getStep(int index) {
+		return steps[index];
+	}
+
+	AirLockCommand[] steps() {
+		return steps;
+	}
+
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (AirLockCommand step : steps) {
+			if (builder.length() > 0) builder.append(", ");
+			builder.append(step.getCode());
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof CycleScript && Arrays.equals(steps, ((CycleScript) other).steps);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(steps);
+	}
+}
@@ -1,24 +1,44 @@
 package airlock.entities;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import airlock.exceptions.DoorException;
 import airlock.exceptions.PressureException;
+import airlock.jfr.DoorActuationEvent;
+import airlock.journal.JournalEvent;
+import airlock.journal.TransitionJournal;
 
 public class Door implements IDoor, IPressureSensor{
 	
-	public static double TOLERANCE = 0.001;
+	public static final double TOLERANCE = 0.001;
 	
 	IPressureSensor inSensor;
 	IPressureSensor exSensor;
 	
-	private DoorState state;
+	private final AtomicReference<DoorState> state;
+	private final AirLockProfile profile;
+	private final long toleranceMicroBar;
+
+	private volatile DoorListener[] listeners = Listeners.NO_DOOR_LISTENERS;
+
+	private volatile TransitionJournal journal;
+	private int journalSource;
 	
 	public Door(IPressureSensor exSensor, IPressureSensor inSensor, 
 	            DoorState initialState) throws DoorException {
+		this(exSensor, inSensor, initialState, AirLockProfile.DEFAULT);
+	}
+
+	public Door(IPressureSensor exSensor, IPressureSensor inSensor,
+	            DoorState initialState, AirLockProfile profile) throws DoorException {
+		if (profile == null) throw new IllegalArgumentException("Profile must not be null.");
 		this.inSensor = inSensor;
 		this.exSensor = exSensor;
-		this.state = initialState;
+		this.state = new AtomicReference<>(initialState);
+		this.profile = profile;
+		this.toleranceMicroBar = profile.getToleranceMicroBar();
 		if (this.inSensor != null && this.exSensor != null) {
-			if (initialState == DoorState.OPEN && (Math.abs(inSensor.getPressure() - exSensor.getPressure()) > TOLERANCE)) {
+			if (initialState == DoorState.OPEN && !Pressures.isBalanced(this, toleranceMicroBar)) {
 				throw new DoorException("Door initial state cannot be open with difference in pressure is greater than the tolerance");
 			} 
 		} else {
@@ -29,22 +49,75 @@ public class Door implements IDoor, IPressureSensor{
 	
 	@Override
 	public void open() throws DoorException {
-		if (state == DoorState.OPEN) {
+		DoorActuationEvent event = new DoorActuationEvent();
+		event.begin();
+		boolean opened = false;
+		try {
+			openDoor();
+			opened = true;
+		} finally {
+			if (event.isEnabled()) event.record("OPEN", opened, exSensor.getPressure(), inSensor.getPressure());
+		}
+	}
+
+	private void openDoor() throws DoorException {
+		if (state.get() == DoorState.OPEN) {
 			throw new DoorException("Door is already open");
 		} else {
-			if (Math.abs(inSensor.getPressure() - exSensor.getPressure()) > TOLERANCE) {
+			if (!Pressures.isBalanced(this, toleranceMicroBar)) {
 				throw new DoorException("Difference in pressure is greater than the tolerance");
 			}
-			state = DoorState.OPEN;
+			if (!state.compareAndSet(DoorState.CLOSED, DoorState.OPEN)) {
+				throw new DoorException("Door is already open");
+			}
+			TransitionJournal recorder = journal;
+			if (recorder != null) recorder.offer(journalSource, JournalEvent.DOOR_OPENED, 0.0);
+			fire(DoorEvent.OPENED);
 		}
 	}
 	
 	@Override
 	public void close() throws DoorException {
-		if (state == DoorState.CLOSED) {
+		DoorActuationEvent event = new DoorActuationEvent();
+		event.begin();
+		boolean closed = state.compareAndSet(DoorState.OPEN, DoorState.CLOSED);
+		if (event.isEnabled()) event.record("CLOSE", closed, exSensor.getPressure(), inSensor.getPressure());
+		if (!closed) {
 			throw new DoorException("Door is already closed");
 		}
-		state = DoorState.CLOSED;
+		TransitionJournal recorder = journal;
+		if (recorder != null) recorder.offer(journalSource, JournalEvent.DOOR_CLOSED, 0.0);
+		fire(DoorEvent.CLOSED);
+	}
+
+	@Override
+	public synchronized void addListener(DoorListener listener) {
+		listeners = Listeners.add(listeners, listener);
+	}
+
+	@Override
+	public synchronized void removeListener(DoorListener listener) {
+		listeners = Listeners.remove(listeners, listener);
+	}
+
+	private void fire(DoorEvent event) {
+		DoorListener[] current = listeners;
+		for (int i = 0; i < current.length; i++) {
+			try {
+				current[i].onDoorEvent(this, event);
+			} catch (RuntimeException e) {
+				Listeners.report(e);
+			}
+		}
+	}
+
+	public AirLockProfile getProfile() {
+		return profile;
+	}
+
+	public void attachJournal(TransitionJournal journal, int source) {
+		this.journalSource = source;
+		this.journal = journal;
 	}
 
 	@Override
@@ -57,22 +130,37 @@ public class Door implements IDoor, IPressureSensor{
 		return inSensor.getPressure();
 	}
 
+	@Override
+	public long getExternalMicroBar() {
+		return exSensor.getMicroBar();
+	}
+
+	@Override
+	public long getInternalMicroBar() {
+		return inSensor.getMicroBar();
+	}
+
+	@Override
+	public void setExternalPressure(double pressure) throws PressureException {
+		exSensor.setPressure(pressure);
+	}
+
 	@Override
 	public boolean isOpen() {
-		if (state == DoorState.OPEN) return true;
+		if (state.get() == DoorState.OPEN) return true;
 		else return false;
 	}
 
 	@Override
 	public boolean isClosed() {
-		if (state == DoorState.CLOSED) return true;
+		if (state.get() == DoorState.CLOSED) return true;
 		else return false;
 	}
 
 	public String toString() {
 		return String.format(
 			"Door: state: %s, external pressure: %3.1f bar, internal pressure: %3.1f bar", 
-			state, exSensor.getPressure(), inSensor.getPressure());
+			state.get(), exSensor.getPressure(), inSensor.getPressure());
 	}
 
 	@Override
@@ -85,4 +173,14 @@ public class Door implements IDoor, IPressureSensor{
 		inSensor.setPressure(newPressure);
 	}	
 
+	@Override
+	public long getMicroBar() {
+		return exSensor.getMicroBar();
+	}
+
+	@Override
+	public void setMicroBar(long newPressure) throws PressureException {
+		inSensor.setMicroBar(newPressure);
+	}
+
 }
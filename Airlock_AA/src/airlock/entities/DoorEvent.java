@@ -0,0 +1,5 @@
+package airlock.entities;
+
+public enum DoorEvent {
+	OPENED, CLOSED
+}
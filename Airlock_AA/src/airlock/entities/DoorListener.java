@@ -0,0 +1,6 @@
+package airlock.entities;
+
+public interface DoorListener {
+
+	void onDoorEvent(IDoor source, DoorEvent event);
+}
@@ -0,0 +1,54 @@
+package airlock.entities;
+
+import airlock.exceptions.PressureException;
+
+/*
+ * Pressure sensor that stores its reading as a whole number of micro-bar.
+ * Values written through setPressure are rounded to the nearest micro-bar,
+ * so readings copied from one fixed-point sensor to another and tolerance
+ * checks between them are exact.
+ */
+public class FixedPointPressureSensor implements IPressureSensor {
+
+	private volatile long microBar;
+
+	public FixedPointPressureSensor(double initialPressure) throws PressureException {
+		setPressure(initialPressure);
+	}
+
+	private FixedPointPressureSensor(long initialMicroBar) throws PressureException {
+		setMicroBar(initialMicroBar);
+	}
+
+	public static FixedPointPressureSensor ofMicroBar(long initialMicroBar) throws PressureException {
+		return new FixedPointPressureSensor(initialMicroBar);
+	}
+
+	@Override
+	public double getPressure() {
+		return Pressures.toBar(microBar);
+	}
+
+	@Override
+	public void setPressure(double newPressure) throws PressureException {
+		if (newPressure < 0.0) throw new PressureException("Cannot set negative pressure");
+		if (!Pressures.isRepresentable(newPressure)) throw new PressureException("Pressure must be a finite number of bar");
+		setMicroBar(Pressures.toMicroBar(newPressure));
+	}
+
+	@Override
+	public long getMicroBar() {
+		return microBar;
+	}
+
+	@Override
+	public void setMicroBar(long newPressure) throws PressureException {
+		if (newPressure < 0) throw new PressureException("Cannot set negative pressure");
+		this.microBar = newPressure;
+	}
+
+	public String toString() {
+		return String.format(
+			"FixedPointPressureSensor: pressure: %3.1f bar", getPressure());
+	}
+}
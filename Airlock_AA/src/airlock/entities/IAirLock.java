@@ -4,6 +4,12 @@ import airlock.exceptions.AirLockException;
 
 public interface IAirLock {
 
+	// Bits of getState().
+	int STATE_OUTER_OPEN = 1;
+	int STATE_INNER_OPEN = 1 << 1;
+	int STATE_SEALED     = 1 << 2;
+	int STATE_AUTO       = 1 << 3;
+
 	void openOuterDoor() throws AirLockException;
 	void closeOuterDoor() throws AirLockException;
 
@@ -14,6 +20,33 @@ public interface IAirLock {
 	void equaliseWithEnvironmentPressure() throws AirLockException;
 	
 	void toggleOperationMode() throws AirLockException;
+
+	// Result-code variants of the commands above: a rejected command returns its
+	// reason instead of allocating and throwing an exception.
+	AirLockResult tryOpenOuterDoor();
+	AirLockResult tryCloseOuterDoor();
+
+	AirLockResult tryOpenInnerDoor();
+	AirLockResult tryCloseInnerDoor();
+
+	AirLockResult tryEqualiseWithCabinPressure();
+	AirLockResult tryEqualiseWithEnvironmentPressure();
+
+	AirLockResult tryToggleOperationMode();
+
+	// Pressure changes from outside the airlock, as the SX and SI console
+	// commands make them; they spread through whichever doors are open.
+	void setEnvironmentPressure(double pressure) throws AirLockException;
+	void setCabinPressure(double pressure) throws AirLockException;
+	AirLockResult trySetEnvironmentPressure(double pressure);
+	AirLockResult trySetCabinPressure(double pressure);
+
+	boolean canOpenOuterDoor();
+	boolean canCloseOuterDoor();
+	boolean canOpenInnerDoor();
+	boolean canCloseInnerDoor();
+	boolean canEqualisePressure();
+	boolean canToggleOperationMode();
 	
 	boolean isOuterDoorClosed();
 	boolean isOuterDoorOpen();
@@ -25,6 +58,19 @@ public interface IAirLock {
 	
 	boolean isInManualMode();
 	boolean isInAutoMode();
+
+	// Door, seal and mode state as STATE_* bits, taken in a single read so that
+	// they always describe one state the airlock was actually in.
+	int getState();
+
+	AirLockProfile getProfile();
+
+	void addListener(AirLockListener listener);
+	void removeListener(AirLockListener listener);
+
+	double getEnvironmentPressure();
+	double getLockPressure();
+	double getCabinPressure();
 }
 
 
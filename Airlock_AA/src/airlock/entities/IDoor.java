@@ -1,6 +1,7 @@
 package airlock.entities;
 
 import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
 
 public interface IDoor {
 	
@@ -9,7 +10,19 @@ public interface IDoor {
 	
 	public double getExternalPressure();
 	public double getInternalPressure();
+	public void setExternalPressure(double pressure) throws PressureException;
+
+	public default long getExternalMicroBar() {
+		return Pressures.toMicroBar(getExternalPressure());
+	}
+
+	public default long getInternalMicroBar() {
+		return Pressures.toMicroBar(getInternalPressure());
+	}
 	
 	public boolean isOpen();
 	public boolean isClosed();
+
+	public void addListener(DoorListener listener);
+	public void removeListener(DoorListener listener);
 }
@@ -7,4 +7,12 @@ public interface IPressureSensor {
 	public double getPressure();
 	public void setPressure(double newPressure) throws PressureException;
 
+	public default long getMicroBar() {
+		return Pressures.toMicroBar(getPressure());
+	}
+
+	public default void setMicroBar(long newPressure) throws PressureException {
+		setPressure(Pressures.toBar(newPressure));
+	}
+
 }
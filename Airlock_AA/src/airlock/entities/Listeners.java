@@ -0,0 +1,41 @@
+package airlock.entities;
+
+import java.util.Arrays;
+
+/*
+ * Copy-on-write helpers for listener arrays: adding or removing copies the
+ * array, so firing an event is a plain read of the current array.
+ */
+final class Listeners {
+
+	static final AirLockListener[] NO_AIRLOCK_LISTENERS = new AirLockListener[0];
+	static final DoorListener[] NO_DOOR_LISTENERS = new DoorListener[0];
+
+	private Listeners() {
+	}
+
+	static <T> T[] add(T[] listeners, T listener) {
+		if (listener == null) throw new IllegalArgumentException("Listener must not be null.");
+		T[] grown = Arrays.copyOf(listeners, listeners.length + 1);
+		grown[listeners.length] = listener;
+		return grown;
+	}
+
+	static <T> T[] remove(T[] listeners, T listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				T[] shrunk = Arrays.copyOf(listeners, listeners.length - 1);
+				System.arraycopy(listeners, i + 1, shrunk, i, listeners.length - i - 1);
+				return shrunk;
+			}
+		}
+		return listeners;
+	}
+
+	// A failing listener is reported like an uncaught exception and does not
+	// stop the remaining listeners or fail the command that fired the event.
+	static void report(RuntimeException e) {
+		Thread thread = Thread.currentThread();
+		thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+	}
+}
@@ -0,0 +1,127 @@
+package airlock.entities;
+
+/*
+ * Fixed-capacity ring buffer of timestamped pressure samples held in two
+ * primitive arrays, so recording a sample never boxes or allocates. Once full,
+ * the oldest sample is overwritten. Timestamps are expected to be
+ * non-decreasing (System.nanoTime), which lets window queries binary search.
+ */
+public class PressureHistory {
+
+	private final long[] timestamps;
+	private final double[] pressures;
+	private int head;  // next slot to write
+	private int count;
+
+	public PressureHistory(int capacity) {
+		if (capacity < 1) throw new IllegalArgumentException("History capacity must be at least 1.");
+		timestamps = new long[capacity];
+		pressures = new double[capacity];
+	}
+
+	/*
+	 * Stamps the sample with System.nanoTime() while holding the lock, so
+	 * samples from concurrent writers are stored in timestamp order.
+	 */
+	public synchronized void record(double pressure) {
+		record(System.nanoTime(), pressure);
+	}
+
+	public synchronized void record(long timestamp, double pressure) {
+		timestamps[head] = timestamp;
+		pressures[head] = pressure;
+		head = head + 1 == timestamps.length ? 0 : head + 1;
+		if (count < timestamps.length) count++;
+	}
+
+	public int capacity() {
+		return timestamps.length;
+	}
+
+	public synchronized int size() {
+		return count;
+	}
+
+	public synchronized void clear() {
+		head = 0;
+		count = 0;
+	}
+
+	public synchronized double min(long from, long to) {
+		int first = lowerBound(from);
+		int last = upperBound(to);
+		if (first >= last) return Double.NaN;
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = first; i < last; i++) {
+			min = Math.min(min, pressures[physical(i)]);
+		}
+		return min;
+	}
+
+	public synchronized double max(long from, long to) {
+		int first = lowerBound(from);
+		int last = upperBound(to);
+		if (first >= last) return Double.NaN;
+		double max = Double.NEGATIVE_INFINITY;
+		for (int i = first; i < last; i++) {
+			max = Math.max(max, pressures[physical(i)]);
+		}
+		return max;
+	}
+
+	public synchronized double mean(long from, long to) {
+		int first = lowerBound(from);
+		int last = upperBound(to);
+		if (first >= last) return Double.NaN;
+		double sum = 0.0;
+		for (int i = first; i < last; i++) {
+			sum += pressures[physical(i)];
+		}
+		return sum / (last - first);
+	}
+
+	/*
+	 * Copies the retained samples, oldest first, into the given arrays and
+	 * returns how many were copied (at most the length of the shorter array).
+	 */
+	public synchronized int export(long[] timestampsOut, double[] pressuresOut) {
+		int n = Math.min(count, Math.min(timestampsOut.length, pressuresOut.length));
+		int start = physical(count - n);
+		int firstPart = Math.min(n, timestamps.length - start);
+		System.arraycopy(timestamps, start, timestampsOut, 0, firstPart);
+		System.arraycopy(pressures, start, pressuresOut, 0, firstPart);
+		System.arraycopy(timestamps, 0, timestampsOut, firstPart, n - firstPart);
+		System.arraycopy(pressures, 0, pressuresOut, firstPart, n - firstPart);
+		return n;
+	}
+
+	// Maps the i-th oldest retained sample to its slot in the arrays.
+	private int physical(int logical) {
+		int index = head - count + logical;
+		return index < 0 ? index + timestamps.length : index;
+	}
+
+	// First logical index whose timestamp is >= the given time.
+	private int lowerBound(long time) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (timestamps[physical(mid)] < time) low = mid + 1;
+			else high = mid;
+		}
+		return low;
+	}
+
+	// First logical index whose timestamp is > the given time.
+	private int upperBound(long time) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (timestamps[physical(mid)] <= time) low = mid + 1;
+			else high = mid;
+		}
+		return low;
+	}
+}
@@ -1,10 +1,20 @@
 package airlock.entities;
 
 import airlock.exceptions.PressureException;
+import airlock.jfr.RejectedCommandEvent;
+import airlock.journal.JournalEvent;
+import airlock.journal.TransitionJournal;
+import airlock.metrics.AirLockMetrics;
 
 public class PressureSensor implements IPressureSensor {
-	
-	double pressure;
+
+	// The only published value; the micro-bar reading is derived from it, so
+	// the two can never disagree and a write allocates nothing.
+	private volatile double pressure;
+	private volatile PressureHistory history;
+	private volatile TransitionJournal journal;
+	private int journalSource;
+	private volatile AirLockMetrics metrics;
 	
 	public PressureSensor(double initialPressure) throws PressureException {
 		if (initialPressure < 0.0) {
@@ -20,9 +30,52 @@ public class PressureSensor implements IPressureSensor {
 	
 	public void setPressure(double newPressure) throws PressureException {
 		if (newPressure < 0.0) {
+			AirLockMetrics recorder = metrics;
+			if (recorder != null) recorder.recordRejection(AirLockResult.NEGATIVE_PRESSURE);
+			RejectedCommandEvent.emit("setPressure", AirLockResult.NEGATIVE_PRESSURE.name());
 			throw new PressureException("Cannot set negative pressure");
 		}
+		if (!Pressures.isRepresentable(newPressure)) {
+			AirLockMetrics recorder = metrics;
+			if (recorder != null) recorder.recordRejection(AirLockResult.PRESSURE_OUT_OF_RANGE);
+			RejectedCommandEvent.emit("setPressure", AirLockResult.PRESSURE_OUT_OF_RANGE.name());
+			throw new PressureException("Pressure must be a finite number of bar");
+		}
 		this.pressure = newPressure;
+		PressureHistory recorder = history;
+		if (recorder != null) recorder.record(newPressure);
+		TransitionJournal audit = journal;
+		if (audit != null) audit.offer(journalSource, JournalEvent.PRESSURE_SET, newPressure);
+	}
+
+	@Override
+	public long getMicroBar() {
+		return Pressures.toMicroBar(pressure);
+	}
+
+	public void attachJournal(TransitionJournal journal, int source) {
+		this.journalSource = source;
+		this.journal = journal;
+	}
+
+	/*
+	 * Counts attempts to set a negative pressure as NEGATIVE_PRESSURE
+	 * rejections in the given metrics. Pass null to stop counting.
+	 */
+	public void attachMetrics(AirLockMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public void enableHistory(int capacity) {
+		history = new PressureHistory(capacity);
+	}
+
+	public void disableHistory() {
+		history = null;
+	}
+
+	public PressureHistory getHistory() {
+		return history;
 	}
 
 	public String toString() {
@@ -0,0 +1,48 @@
+package airlock.entities;
+
+/*
+ * Fixed-point pressure helpers. Pressures are compared as whole micro-bar
+ * (1 bar = 1,000,000 micro-bar) so a tolerance check is an exact integer
+ * compare rather than a difference of two rounded doubles.
+ */
+public final class Pressures {
+
+	public static final long MICRO_BAR_PER_BAR = 1_000_000L;
+
+	private static final double LIMIT = 0x1p63; // first scaled value a long cannot hold
+
+	private Pressures() {
+	}
+
+	/*
+	 * Rounds half away from zero. A plain cast is much cheaper than
+	 * Math.round and this runs on every sensor write and tolerance check.
+	 * NaN, infinities and values too large for a long are rejected rather
+	 * than cast to 0 or Long.MIN/MAX_VALUE.
+	 */
+	public static long toMicroBar(double bar) {
+		double scaled = bar * MICRO_BAR_PER_BAR;
+		if (!(Math.abs(scaled) < LIMIT)) throw new IllegalArgumentException("Not a finite pressure: " + bar);
+		return (long) (scaled < 0.0 ? scaled - 0.5 : scaled + 0.5);
+	}
+
+	/*
+	 * True when toMicroBar accepts the value: finite and within about nine
+	 * million million bar.
+	 */
+	public static boolean isRepresentable(double bar) {
+		return Math.abs(bar * MICRO_BAR_PER_BAR) < LIMIT;
+	}
+
+	public static double toBar(long microBar) {
+		return (double) microBar / MICRO_BAR_PER_BAR;
+	}
+
+	/*
+	 * True when the pressures either side of the door are no more than the
+	 * given number of micro-bar apart.
+	 */
+	public static boolean isBalanced(IDoor door, long toleranceMicroBar) {
+		return Math.abs(door.getInternalMicroBar() - door.getExternalMicroBar()) <= toleranceMicroBar;
+	}
+}
@@ -0,0 +1,52 @@
+package airlock.entities;
+
+/*
+ * Outcome of AirLock.runScript: either success, or the index and command of
+ * the step that was rejected together with the reason.
+ */
+public final class ScriptResult {
+
+	static final ScriptResult SUCCESS = new ScriptResult(-1, null, AirLockResult.OK, true);
+
+	private final int failedStep;
+	private final AirLockCommand failedCommand;
+	private final AirLockResult result;
+	private final boolean executed;
+
+	ScriptResult(int failedStep, AirLockCommand failedCommand, AirLockResult result, boolean executed) {
+		this.failedStep = failedStep;
+		this.failedCommand = failedCommand;
+		this.result = result;
+		this.executed = executed;
+	}
+
+	public boolean isSuccess() {
+		return result == AirLockResult.OK;
+	}
+
+	public int getFailedStep() {
+		return failedStep;
+	}
+
+	public AirLockCommand getFailedCommand() {
+		return failedCommand;
+	}
+
+	public AirLockResult getResult() {
+		return result;
+	}
+
+	/*
+	 * False when the script was rejected during validation, before any door
+	 * or sensor was touched; true when it failed part way through execution.
+	 */
+	public boolean wasExecuted() {
+		return executed;
+	}
+
+	public String toString() {
+		if (isSuccess()) return "Script: OK";
+		return String.format("Script: step %d (%s) failed: %s",
+			failedStep, failedCommand == null ? "-" : failedCommand.getCode(), result.getMessage());
+	}
+}
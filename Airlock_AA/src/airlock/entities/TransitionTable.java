@@ -0,0 +1,208 @@
+package airlock.entities;
+
+import java.util.Arrays;
+
+import static airlock.entities.AirLock.AUTO;
+import static airlock.entities.AirLock.INNER_OPEN;
+import static airlock.entities.AirLock.OUTER_OPEN;
+import static airlock.entities.AirLock.SEALED;
+
+/*
+ * AirLock's control logic compiled into a table, indexed by the four control
+ * bits (doors, seal, mode) and the command. Each entry is a short program of
+ * ops; every op names one side effect on the doors or the lock sensor and
+ * the control bits to publish once it succeeds, so a pressure check failing
+ * part way leaves the word describing exactly what has already moved. A
+ * rejection that depends only on the control bits is a REJECT op carrying
+ * its AirLockResult.
+ *
+ * The table is built once from the rules below, which are the only place the
+ * command semantics are written down. predict() reads the same table.
+ */
+final class TransitionTable {
+
+	static final int CONTROL = OUTER_OPEN | INNER_OPEN | SEALED | AUTO;
+
+	// Op layout: bits 0-3 action, 4-7 result ordinal (REJECT), 8-11 next control bits.
+	static final int REJECT = 0;
+	static final int CLOSE_OUTER = 1;
+	static final int CLOSE_INNER = 2;
+	static final int EQUALISE_ENVIRONMENT = 3;
+	static final int EQUALISE_CABIN = 4;
+	static final int SETTLE_ENVIRONMENT = 5; // AUTO re-check and re-set after equalising
+	static final int SETTLE_CABIN = 6;
+	static final int OPEN_OUTER = 7;
+	static final int OPEN_INNER = 8;
+	static final int TOGGLE_MODE = 9;
+
+	private static final AirLockCommand[] COMMANDS = AirLockCommand.values();
+	private static final int COMMAND_BITS = 3;
+	private static final int[][] PROGRAMS = new int[(CONTROL + 1) << COMMAND_BITS][];
+	private static final int[] PREDICTED = new int[PROGRAMS.length];
+
+	static {
+		for (int state = 0; state <= CONTROL; state++) {
+			if ((state & ~CONTROL) != 0) continue;
+			for (AirLockCommand command : COMMANDS) {
+				Builder builder = new Builder(state);
+				compile(builder, command);
+				int index = state << COMMAND_BITS | command.ordinal();
+				PROGRAMS[index] = builder.program();
+				PREDICTED[index] = builder.rejected >= 0 ? ~builder.rejected : builder.state;
+			}
+		}
+	}
+
+	private TransitionTable() {
+	}
+
+	static int[] program(int word, AirLockCommand command) {
+		return PROGRAMS[(word & CONTROL) << COMMAND_BITS | command.ordinal()];
+	}
+
+	/*
+	 * Control bits after the command if nothing but the control bits can stop
+	 * it, or the complement of the rejecting AirLockResult's ordinal.
+	 */
+	static int predicted(int word, AirLockCommand command) {
+		return PREDICTED[(word & CONTROL) << COMMAND_BITS | command.ordinal()];
+	}
+
+	static int action(int op) {
+		return op & 0xF;
+	}
+
+	static int result(int op) {
+		return (op >>> 4) & 0xF;
+	}
+
+	static int next(int op) {
+		return op >>> 8;
+	}
+
+	private static final class Builder {
+		int state;
+		int rejected = -1;
+		int[] ops = new int[8];
+		int size;
+
+		Builder(int state) {
+			this.state = state;
+		}
+
+		boolean is(int bit) {
+			return (state & bit) != 0;
+		}
+
+		void emit(int action, int next) {
+			ops[size++] = action | next << 8;
+			state = next;
+		}
+
+		void reject(AirLockResult result) {
+			ops[size++] = REJECT | result.ordinal() << 4 | state << 8;
+			rejected = result.ordinal();
+		}
+
+		boolean failed() {
+			return rejected >= 0;
+		}
+
+		int[] program() {
+			return Arrays.copyOf(ops, size);
+		}
+	}
+
+	private static void compile(Builder b, AirLockCommand command) {
+		switch (command) {
+			case OPEN_OUTER_DOOR :
+				openOuter(b);
+				break;
+			case OPEN_INNER_DOOR :
+				openInner(b);
+				break;
+			case CLOSE_OUTER_DOOR :
+				closeOuter(b);
+				break;
+			case CLOSE_INNER_DOOR :
+				closeInner(b);
+				break;
+			case EQUALISE_WITH_ENVIRONMENT :
+				equalise(b, EQUALISE_ENVIRONMENT);
+				break;
+			case EQUALISE_WITH_CABIN :
+				equalise(b, EQUALISE_CABIN);
+				break;
+			default :
+				if (!b.is(SEALED)) b.reject(AirLockResult.NOT_SEALED);
+				else b.emit(TOGGLE_MODE, b.state ^ AUTO);
+		}
+	}
+
+	// In AUTO mode the other door is closed and the lock equalised first.
+	private static void openOuter(Builder b) {
+		if (b.is(OUTER_OPEN)) {
+			b.reject(AirLockResult.DOOR_ALREADY_OPEN);
+			return;
+		}
+		if (b.is(AUTO)) {
+			if (b.is(INNER_OPEN)) {
+				closeInner(b);
+				if (b.failed()) return;
+			}
+			equalise(b, EQUALISE_ENVIRONMENT);
+			if (b.failed()) return;
+			b.emit(SETTLE_ENVIRONMENT, b.state);
+		}
+		b.emit(OPEN_OUTER, (b.state | OUTER_OPEN) & ~SEALED);
+	}
+
+	private static void openInner(Builder b) {
+		if (b.is(INNER_OPEN)) {
+			b.reject(AirLockResult.DOOR_ALREADY_OPEN);
+			return;
+		}
+		if (b.is(AUTO)) {
+			if (b.is(OUTER_OPEN)) {
+				closeOuter(b);
+				if (b.failed()) return;
+			}
+			equalise(b, EQUALISE_CABIN);
+			if (b.failed()) return;
+			b.emit(SETTLE_CABIN, b.state);
+		}
+		b.emit(OPEN_INNER, (b.state | INNER_OPEN) & ~SEALED);
+	}
+
+	// Closing the last open door seals the lock and equalises it with the cabin.
+	private static void closeOuter(Builder b) {
+		if (!b.is(OUTER_OPEN)) {
+			b.reject(AirLockResult.DOOR_ALREADY_CLOSED);
+			return;
+		}
+		if (b.is(INNER_OPEN)) {
+			b.emit(CLOSE_OUTER, b.state & ~OUTER_OPEN);
+		} else {
+			b.emit(CLOSE_OUTER, (b.state & ~OUTER_OPEN) | SEALED);
+			equalise(b, EQUALISE_CABIN);
+		}
+	}
+
+	private static void closeInner(Builder b) {
+		if (!b.is(INNER_OPEN)) {
+			b.reject(AirLockResult.DOOR_ALREADY_CLOSED);
+			return;
+		}
+		if (b.is(OUTER_OPEN)) {
+			b.emit(CLOSE_INNER, b.state & ~INNER_OPEN);
+		} else {
+			b.emit(CLOSE_INNER, (b.state & ~INNER_OPEN) | SEALED);
+			equalise(b, EQUALISE_CABIN);
+		}
+	}
+
+	private static void equalise(Builder b, int action) {
+		if (!b.is(SEALED)) b.reject(AirLockResult.NOT_SEALED);
+		else b.emit(action, b.state);
+	}
+}
@@ -0,0 +1,15 @@
+package airlock.exceptions;
+
+public class FleetException extends Exception {
+
+	private static final long serialVersionUID = 1L;
+
+	public FleetException(String message) {
+		super(message);
+	}
+
+	public FleetException(Exception e) {
+		super(e);
+	}
+
+}
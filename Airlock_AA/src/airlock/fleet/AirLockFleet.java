@@ -0,0 +1,196 @@
+package airlock.fleet;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import airlock.entities.AirLockCommand;
+import airlock.entities.IAirLock;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.FleetException;
+
+/*
+ * Registry of every airlock on a station. Each airlock is pinned to a single
+ * worker thread when it is registered, so its commands run in submission order,
+ * while airlocks on different workers run in parallel.
+ */
+public class AirLockFleet implements AutoCloseable {
+
+	private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+	private static final long SAMPLE_NANOS = WINDOW_NANOS / 8;
+	private static final int SAMPLES = 10;
+
+	private final ConcurrentHashMap<String, Entry> airLocks = new ConcurrentHashMap<>();
+	private final ExecutorService[] shards;
+	private final AtomicInteger nextShard = new AtomicInteger();
+	private final LongAdder commandCount = new LongAdder();
+
+	// Ring of (time, command count) samples for getCommandsPerSecond, at
+	// least SAMPLE_NANOS apart; guarded by this.
+	private final long[] sampleTimes = new long[SAMPLES];
+	private final long[] sampleCounts = new long[SAMPLES];
+	private int newestSample;
+	private int sampleCount = 1;
+
+	public AirLockFleet() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public AirLockFleet(int shardCount) {
+		if (shardCount < 1) throw new IllegalArgumentException("Fleet needs at least one shard.");
+		shards = new ExecutorService[shardCount];
+		for (int i = 0; i < shardCount; i++) {
+			String name = "airlock-fleet-" + i;
+			shards[i] = Executors.newSingleThreadExecutor(r -> {
+				Thread thread = new Thread(r, name);
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		sampleTimes[0] = System.nanoTime();
+	}
+
+	public void register(String id, IAirLock airLock) throws FleetException {
+		if (id == null || airLock == null) throw new FleetException("Id and airlock must not be null.");
+		int shard = Math.floorMod(nextShard.getAndIncrement(), shards.length);
+		if (airLocks.putIfAbsent(id, new Entry(airLock, shard)) != null) {
+			throw new FleetException("Airlock " + id + " is already registered.");
+		}
+	}
+
+	public IAirLock unregister(String id) {
+		Entry entry = airLocks.remove(id);
+		return entry == null ? null : entry.airLock;
+	}
+
+	public IAirLock get(String id) {
+		Entry entry = airLocks.get(id);
+		return entry == null ? null : entry.airLock;
+	}
+
+	public Set<String> ids() {
+		return Collections.unmodifiableSet(airLocks.keySet());
+	}
+
+	public int size() {
+		return airLocks.size();
+	}
+
+	public int getShardCount() {
+		return shards.length;
+	}
+
+	/*
+	 * Once the fleet is closed the returned future fails with a
+	 * RejectedExecutionException.
+	 */
+	public CompletableFuture<Void> submit(String id, AirLockCommand command) throws FleetException {
+		return dispatch(id, airLock -> {
+			command.execute(airLock);
+			return null;
+		});
+	}
+
+	/*
+	 * Runs the task against the airlock on its worker, in order with every
+	 * other command submitted for it, and completes the future with what the
+	 * task returns. Used for the result-code API, where a rejection is a
+	 * value rather than an exception.
+	 */
+	public <T> CompletableFuture<T> submit(String id, Function<? super IAirLock, ? extends T> task) throws FleetException {
+		return dispatch(id, task::apply);
+	}
+
+	private <T> CompletableFuture<T> dispatch(String id, Task<T> task) throws FleetException {
+		Entry entry = airLocks.get(id);
+		if (entry == null) throw new FleetException("No airlock registered with id " + id + ".");
+		CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			shards[entry.shard].execute(() -> {
+				try {
+					T value = task.run(entry.airLock);
+					commandCount.increment();
+					result.complete(value);
+				} catch (AirLockException | RuntimeException e) {
+					commandCount.increment();
+					result.completeExceptionally(e);
+				} catch (Throwable e) {
+					// the caller still hears about it; the worker thread dies
+					// and the executor replaces it
+					commandCount.increment();
+					result.completeExceptionally(e);
+					throw e;
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	public long getCommandCount() {
+		return commandCount.sum();
+	}
+
+	/*
+	 * Fleet-wide throughput over about the last second, measured from the
+	 * oldest sample no more than a second old (or, when reads are further
+	 * apart, from the last read). Any number of readers see the same rate;
+	 * reading only adds a sample.
+	 */
+	public synchronized double getCommandsPerSecond() {
+		long now = System.nanoTime();
+		long count = commandCount.sum();
+		int base = -1;
+		for (int i = 0; i < sampleCount; i++) {
+			int slot = Math.floorMod(newestSample - i, SAMPLES);
+			long age = now - sampleTimes[slot];
+			if (age <= 0) continue;
+			base = slot;
+			if (age >= WINDOW_NANOS) break;
+		}
+		if (now - sampleTimes[newestSample] >= SAMPLE_NANOS) {
+			newestSample = (newestSample + 1) % SAMPLES;
+			sampleTimes[newestSample] = now;
+			sampleCounts[newestSample] = count;
+			sampleCount = Math.min(sampleCount + 1, SAMPLES);
+		}
+		return base < 0 ? 0.0 : (count - sampleCounts[base]) * 1e9 / (now - sampleTimes[base]);
+	}
+
+	@Override
+	public void close() {
+		for (ExecutorService shard : shards) {
+			shard.shutdown();
+		}
+		try {
+			for (ExecutorService shard : shards) {
+				shard.awaitTermination(10, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private interface Task<T> {
+		T run(IAirLock airLock) throws AirLockException;
+	}
+
+	private static final class Entry {
+		final IAirLock airLock;
+		final int shard;
+
+		Entry(IAirLock airLock, int shard) {
+			this.airLock = airLock;
+			this.shard = shard;
+		}
+	}
+}
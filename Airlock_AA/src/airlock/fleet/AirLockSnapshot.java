@@ -0,0 +1,182 @@
+package airlock.fleet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockProfile;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IAirLock;
+import airlock.entities.OperationMode;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.FleetException;
+import airlock.exceptions.PressureException;
+
+/*
+ * Immutable capture of one airlock: door states, seal state and mode packed
+ * into a flags byte, the environment, lock and cabin pressures, and the
+ * airlock's profile. The flags come from one IAirLock.getState() read, so
+ * they always describe a state the airlock was actually in.
+ *
+ * Only a plain AirLock can be captured, since restore() can rebuild nothing
+ * else; any other IAirLock is rejected when the snapshot is taken.
+ */
+public final class AirLockSnapshot {
+
+	static final int OUTER_OPEN = IAirLock.STATE_OUTER_OPEN;
+	static final int INNER_OPEN = IAirLock.STATE_INNER_OPEN;
+	static final int SEALED     = IAirLock.STATE_SEALED;
+	static final int AUTO       = IAirLock.STATE_AUTO;
+
+	private static final OperationMode[] MODES = OperationMode.values();
+
+	private final int flags;
+	private final double environmentPressure;
+	private final double lockPressure;
+	private final double cabinPressure;
+	private final AirLockProfile profile;
+
+	AirLockSnapshot(int flags, double environmentPressure, double lockPressure, double cabinPressure,
+	                AirLockProfile profile) {
+		this.flags = flags;
+		this.environmentPressure = environmentPressure;
+		this.lockPressure = lockPressure;
+		this.cabinPressure = cabinPressure;
+		this.profile = profile;
+	}
+
+	public static AirLockSnapshot of(IAirLock airLock) {
+		if (airLock.getClass() != AirLock.class) {
+			throw new IllegalArgumentException("Cannot snapshot a " + airLock.getClass().getSimpleName() + ", only an AirLock can be restored.");
+		}
+		return new AirLockSnapshot(airLock.getState(),
+			airLock.getEnvironmentPressure(), airLock.getLockPressure(), airLock.getCabinPressure(),
+			airLock.getProfile());
+	}
+
+	/*
+	 * Builds a new AirLock, with its own sensors and doors, in exactly the
+	 * captured state, including AUTO mode and the profile.
+	 */
+	public AirLock restore() throws FleetException {
+		try {
+			PressureSensor environmentSensor = new PressureSensor(environmentPressure);
+			PressureSensor lockSensor = new PressureSensor(lockPressure);
+			PressureSensor cabinSensor = new PressureSensor(cabinPressure);
+			Door outerDoor = new Door(environmentSensor, lockSensor,
+				isOuterDoorOpen() ? DoorState.OPEN : DoorState.CLOSED, profile);
+			Door innerDoor = new Door(cabinSensor, lockSensor,
+				isInnerDoorOpen() ? DoorState.OPEN : DoorState.CLOSED, profile);
+			AirLock airLock = new AirLock(outerDoor, innerDoor, lockSensor,
+				isInAutoMode() ? OperationMode.AUTO : OperationMode.MANUAL, profile);
+			if (airLock.isSealed() != isSealed()) throw new FleetException("Snapshot seal state does not match its door states.");
+			return airLock;
+		} catch (DoorException | PressureException | IllegalArgumentException e) {
+			throw new FleetException(e);
+		}
+	}
+
+	// The profile is written once per frame by SnapshotWriter; the record
+	// holds its index in that frame's profile table.
+	void write(DataOutput out, int profileIndex) throws IOException {
+		out.writeByte(flags);
+		out.writeDouble(environmentPressure);
+		out.writeDouble(lockPressure);
+		out.writeDouble(cabinPressure);
+		out.writeShort(profileIndex);
+	}
+
+	static AirLockSnapshot read(int flags, DataInput in, AirLockProfile[] profiles) throws IOException {
+		double environmentPressure = in.readDouble();
+		double lockPressure = in.readDouble();
+		double cabinPressure = in.readDouble();
+		int profileIndex = in.readUnsignedShort();
+		if (profileIndex >= profiles.length) throw new IOException("Unknown profile index " + profileIndex + " in snapshot.");
+		return new AirLockSnapshot(flags, environmentPressure, lockPressure, cabinPressure, profiles[profileIndex]);
+	}
+
+	static void writeProfile(DataOutput out, AirLockProfile profile) throws IOException {
+		out.writeUTF(profile.getName());
+		out.writeDouble(profile.getTolerance());
+		out.writeDouble(profile.getMinPressure());
+		out.writeDouble(profile.getMaxPressure());
+		out.writeByte(profile.getDefaultMode().ordinal());
+		out.writeBoolean(profile.isAutoModeAllowed());
+	}
+
+	static AirLockProfile readProfile(DataInput in) throws IOException {
+		String name = in.readUTF();
+		double tolerance = in.readDouble();
+		double minPressure = in.readDouble();
+		double maxPressure = in.readDouble();
+		int mode = in.readUnsignedByte();
+		boolean autoModeAllowed = in.readBoolean();
+		if (mode >= MODES.length) throw new IOException("Unknown operation mode " + mode + " in profile " + name + ".");
+		try {
+			return new AirLockProfile(name, tolerance, minPressure, maxPressure, MODES[mode], autoModeAllowed);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("Invalid profile in snapshot: " + e.getMessage(), e);
+		}
+	}
+
+	public boolean isOuterDoorOpen() {
+		return (flags & OUTER_OPEN) != 0;
+	}
+
+	public boolean isInnerDoorOpen() {
+		return (flags & INNER_OPEN) != 0;
+	}
+
+	public boolean isSealed() {
+		return (flags & SEALED) != 0;
+	}
+
+	public boolean isInAutoMode() {
+		return (flags & AUTO) != 0;
+	}
+
+	public double getEnvironmentPressure() {
+		return environmentPressure;
+	}
+
+	public double getLockPressure() {
+		return lockPressure;
+	}
+
+	public double getCabinPressure() {
+		return cabinPressure;
+	}
+
+	public AirLockProfile getProfile() {
+		return profile;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (!(other instanceof AirLockSnapshot)) return false;
+		AirLockSnapshot that = (AirLockSnapshot) other;
+		return flags == that.flags
+			&& Double.compare(environmentPressure, that.environmentPressure) == 0
+			&& Double.compare(lockPressure, that.lockPressure) == 0
+			&& Double.compare(cabinPressure, that.cabinPressure) == 0
+			&& profile.equals(that.profile);
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = flags;
+		hash = 31 * hash + Double.hashCode(environmentPressure);
+		hash = 31 * hash + Double.hashCode(lockPressure);
+		hash = 31 * hash + Double.hashCode(cabinPressure);
+		return 31 * hash + profile.hashCode();
+	}
+
+	public String toString() {
+		return String.format(
+			"AirLockSnapshot: flags: %d, pressures: %3.1f/%3.1f/%3.1f bar, profile: %s",
+			flags, environmentPressure, lockPressure, cabinPressure, profile.getName());
+	}
+}
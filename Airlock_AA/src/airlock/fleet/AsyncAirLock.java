@@ -0,0 +1,169 @@
+package airlock.fleet;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+import airlock.entities.IAirLock;
+import airlock.exceptions.AirLockException;
+
+/*
+ * Asynchronous facade over an IAirLock. Commands go into a single-consumer
+ * mailbox and are run one at a time, in order, on a shared executor; the
+ * caller gets a CompletableFuture straight away. A queued command is just a
+ * mailbox entry, so many thousands can be in flight while only airlocks that
+ * are actually running a command occupy a thread.
+ *
+ * The shared executor has one thread per processor. Pass an executor to the
+ * constructor to use another one; if it rejects a drain, every command still
+ * queued fails with the RejectedExecutionException.
+ */
+public class AsyncAirLock {
+
+	private static final int DRAIN_BATCH = 64;
+
+	private static final int SHARED_THREADS = Runtime.getRuntime().availableProcessors();
+
+	private static final ThreadPoolExecutor SHARED_EXECUTOR = new ThreadPoolExecutor(
+		SHARED_THREADS, SHARED_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "airlock-async");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	static {
+		SHARED_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	private final IAirLock airLock;
+	private final Executor executor;
+	private final ConcurrentLinkedQueue<Task> mailbox = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	public AsyncAirLock(IAirLock airLock) {
+		this(airLock, SHARED_EXECUTOR);
+	}
+
+	public AsyncAirLock(IAirLock airLock, Executor executor) {
+		if (airLock == null || executor == null) throw new IllegalArgumentException("Airlock and executor must not be null.");
+		this.airLock = airLock;
+		this.executor = executor;
+	}
+
+	public IAirLock getAirLock() {
+		return airLock;
+	}
+
+	public CompletableFuture<Void> openOuterDoor() {
+		return execute(AirLockCommand.OPEN_OUTER_DOOR);
+	}
+
+	public CompletableFuture<Void> closeOuterDoor() {
+		return execute(AirLockCommand.CLOSE_OUTER_DOOR);
+	}
+
+	public CompletableFuture<Void> openInnerDoor() {
+		return execute(AirLockCommand.OPEN_INNER_DOOR);
+	}
+
+	public CompletableFuture<Void> closeInnerDoor() {
+		return execute(AirLockCommand.CLOSE_INNER_DOOR);
+	}
+
+	public CompletableFuture<Void> equaliseWithCabinPressure() {
+		return execute(AirLockCommand.EQUALISE_WITH_CABIN);
+	}
+
+	public CompletableFuture<Void> equaliseWithEnvironmentPressure() {
+		return execute(AirLockCommand.EQUALISE_WITH_ENVIRONMENT);
+	}
+
+	public CompletableFuture<Void> toggleOperationMode() {
+		return execute(AirLockCommand.TOGGLE_OPERATION_MODE);
+	}
+
+	/*
+	 * Runs the command through the throwing IAirLock method; a rejection
+	 * completes the future exceptionally with the AirLockException.
+	 */
+	public CompletableFuture<Void> execute(AirLockCommand command) {
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		enqueue(new Task(result, () -> {
+			try {
+				command.execute(airLock);
+				result.complete(null);
+			} catch (AirLockException | RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		}));
+		return result;
+	}
+
+	/*
+	 * Runs the command through the result-code API; the future always
+	 * completes normally with the AirLockResult.
+	 */
+	public CompletableFuture<AirLockResult> submit(AirLockCommand command) {
+		CompletableFuture<AirLockResult> result = new CompletableFuture<>();
+		enqueue(new Task(result, () -> {
+			try {
+				result.complete(command.tryExecute(airLock));
+			} catch (RuntimeException e) {
+				result.completeExceptionally(e);
+			}
+		}));
+		return result;
+	}
+
+	public int pendingCommands() {
+		return mailbox.size();
+	}
+
+	private void enqueue(Task task) {
+		mailbox.add(task);
+		schedule();
+	}
+
+	private void schedule() {
+		if (!scheduled.compareAndSet(false, true)) return;
+		try {
+			executor.execute(this::drain);
+		} catch (RejectedExecutionException e) {
+			scheduled.set(false);
+			Task task;
+			while ((task = mailbox.poll()) != null) {
+				task.result.completeExceptionally(e);
+			}
+		}
+	}
+
+	private void drain() {
+		Task task;
+		int processed = 0;
+		while (processed < DRAIN_BATCH && (task = mailbox.poll()) != null) {
+			task.body.run();
+			processed++;
+		}
+		scheduled.set(false);
+		// Give other mailboxes a turn, and pick up anything added after the last poll.
+		if (!mailbox.isEmpty()) schedule();
+	}
+
+	private static final class Task {
+
+		final CompletableFuture<?> result;
+		final Runnable body;
+
+		Task(CompletableFuture<?> result, Runnable body) {
+			this.result = result;
+			this.body = body;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package airlock.fleet;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import airlock.entities.AirLockProfile;
+import airlock.exceptions.FleetException;
+
+public final class SnapshotReader {
+
+	private SnapshotReader() {
+	}
+
+	/*
+	 * Replays every frame in the stream and returns the resulting state of
+	 * each airlock by id.
+	 */
+	public static Map<String, AirLockSnapshot> read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in, 64 * 1024));
+		Map<String, AirLockSnapshot> states = new HashMap<>();
+		while (true) {
+			int magic;
+			try {
+				magic = data.readInt();
+			} catch (EOFException e) {
+				return states;
+			}
+			if (magic != SnapshotWriter.MAGIC) throw new IOException("Not an airlock fleet snapshot frame.");
+			byte type = data.readByte();
+			if (type != SnapshotWriter.FULL && type != SnapshotWriter.DELTA) {
+				throw new IOException("Unknown snapshot frame type " + type + ".");
+			}
+			AirLockProfile[] profiles = new AirLockProfile[data.readUnsignedShort()];
+			for (int i = 0; i < profiles.length; i++) {
+				profiles[i] = AirLockSnapshot.readProfile(data);
+			}
+			int count = data.readInt();
+			if (type == SnapshotWriter.FULL) states = new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+			for (int i = 0; i < count; i++) {
+				String id = data.readUTF();
+				int flags = data.readUnsignedByte();
+				if ((flags & SnapshotWriter.REMOVED) != 0) {
+					states.remove(id);
+				} else {
+					states.put(id, AirLockSnapshot.read(flags, data, profiles));
+				}
+			}
+		}
+	}
+
+	/*
+	 * Rebuilds every airlock in the stream and registers it in the fleet.
+	 * Returns the number of airlocks restored.
+	 */
+	public static int restore(InputStream in, AirLockFleet fleet) throws IOException, FleetException {
+		Map<String, AirLockSnapshot> states = read(in);
+		for (Map.Entry<String, AirLockSnapshot> entry : states.entrySet()) {
+			fleet.register(entry.getKey(), entry.getValue().restore());
+		}
+		return states.size();
+	}
+}
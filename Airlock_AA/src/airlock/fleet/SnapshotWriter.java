@@ -0,0 +1,139 @@
+package airlock.fleet;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import airlock.entities.AirLockProfile;
+import airlock.entities.IAirLock;
+
+/*
+ * Writes fleet snapshots as a stream of frames: a full frame with every
+ * airlock, then delta frames holding only the airlocks that changed (or were
+ * removed) since the previous frame. Each frame is
+ *
+ *   int magic, byte type, short profile count, then per profile:
+ *   UTF name, doubles tolerance, minPressure and maxPressure, byte default
+ *   mode and boolean autoModeAllowed;
+ *   int count, then per airlock:
+ *   UTF id, byte flags, and unless flagged REMOVED three doubles
+ *   (environment, lock and cabin pressure) followed by a short index into
+ *   the frame's profile table.
+ *
+ * Each distinct profile in a frame is written once however many airlocks
+ * share it. Airlocks unregistered while a frame is being built are left out
+ * of it. A fleet holding anything other than plain AirLocks cannot be
+ * written, as AirLockSnapshot.of rejects it before the frame starts.
+ *
+ * SnapshotReader replays the frames in order.
+ */
+public class SnapshotWriter implements AutoCloseable {
+
+	static final int MAGIC = 0x414C5333; // "ALS3"
+	static final byte FULL = 0;
+	static final byte DELTA = 1;
+	static final int REMOVED = 0x80;
+	static final int MAX_PROFILES = 0xFFFF;
+
+	private final DataOutputStream out;
+	private final Map<String, AirLockSnapshot> written = new HashMap<>();
+	private final Map<AirLockProfile, Integer> profileIndex = new HashMap<>();
+	private final List<AirLockProfile> profiles = new ArrayList<>();
+
+	public SnapshotWriter(OutputStream out) {
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+	}
+
+	/*
+	 * Writes every airlock in the fleet and returns how many were written.
+	 */
+	public int writeFull(AirLockFleet fleet) throws IOException {
+		written.clear();
+		List<String> ids = new ArrayList<>();
+		List<AirLockSnapshot> states = new ArrayList<>();
+		for (String id : fleet.ids()) {
+			IAirLock airLock = fleet.get(id);
+			if (airLock == null) continue;
+			ids.add(id);
+			states.add(AirLockSnapshot.of(airLock));
+		}
+		out.writeInt(MAGIC);
+		out.writeByte(FULL);
+		writeProfiles(states);
+		out.writeInt(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			writeRecord(ids.get(i), states.get(i));
+		}
+		out.flush();
+		return ids.size();
+	}
+
+	/*
+	 * Writes only the airlocks whose state differs from the last frame and
+	 * returns how many records the delta holds.
+	 */
+	public int writeDelta(AirLockFleet fleet) throws IOException {
+		List<String> changedIds = new ArrayList<>();
+		List<AirLockSnapshot> changed = new ArrayList<>();
+		for (String id : fleet.ids()) {
+			IAirLock airLock = fleet.get(id);
+			if (airLock == null) continue;
+			AirLockSnapshot state = AirLockSnapshot.of(airLock);
+			if (!state.equals(written.get(id))) {
+				changedIds.add(id);
+				changed.add(state);
+			}
+		}
+		List<String> removed = new ArrayList<>();
+		for (Iterator<String> it = written.keySet().iterator(); it.hasNext();) {
+			String id = it.next();
+			if (fleet.get(id) == null) {
+				removed.add(id);
+				it.remove();
+			}
+		}
+		out.writeInt(MAGIC);
+		out.writeByte(DELTA);
+		writeProfiles(changed);
+		out.writeInt(changedIds.size() + removed.size());
+		for (int i = 0; i < changedIds.size(); i++) {
+			writeRecord(changedIds.get(i), changed.get(i));
+		}
+		for (String id : removed) {
+			out.writeUTF(id);
+			out.writeByte(REMOVED);
+		}
+		out.flush();
+		return changedIds.size() + removed.size();
+	}
+
+	private void writeProfiles(List<AirLockSnapshot> states) throws IOException {
+		profileIndex.clear();
+		profiles.clear();
+		for (AirLockSnapshot state : states) {
+			if (profileIndex.putIfAbsent(state.getProfile(), profiles.size()) == null) profiles.add(state.getProfile());
+		}
+		if (profiles.size() > MAX_PROFILES) throw new IOException("A frame cannot hold more than " + MAX_PROFILES + " profiles.");
+		out.writeShort(profiles.size());
+		for (AirLockProfile profile : profiles) {
+			AirLockSnapshot.writeProfile(out, profile);
+		}
+	}
+
+	private void writeRecord(String id, AirLockSnapshot state) throws IOException {
+		out.writeUTF(id);
+		state.write(out, profileIndex.get(state.getProfile()));
+		written.put(id, state);
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
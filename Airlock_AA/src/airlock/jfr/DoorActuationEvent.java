@@ -0,0 +1,47 @@
+package airlock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/*
+ * One Door.open or Door.close, timed from the first sensor read to the state
+ * change. Rejected actuations are recorded too, with succeeded = false.
+ *
+ * All airlock events are in the "Airlock" category and can be switched off
+ * per event name in a .jfc settings file. A disabled event costs an
+ * isEnabled check; the event object never escapes, so the JIT drops it.
+ */
+@Name("airlock.DoorActuation")
+@Label("Door Actuation")
+@Category("Airlock")
+@Description("A door was opened or closed, or refused to be.")
+@StackTrace(false)
+public class DoorActuationEvent extends Event {
+
+	@Label("Action")
+	private String action;
+
+	@Label("Succeeded")
+	private boolean succeeded;
+
+	@Label("External Pressure")
+	private double externalPressure;
+
+	@Label("Internal Pressure")
+	private double internalPressure;
+
+	public void record(String action, boolean succeeded, double externalPressure, double internalPressure) {
+		end();
+		if (shouldCommit()) {
+			this.action = action;
+			this.succeeded = succeeded;
+			this.externalPressure = externalPressure;
+			this.internalPressure = internalPressure;
+			commit();
+		}
+	}
+}
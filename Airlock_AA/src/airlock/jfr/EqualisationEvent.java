@@ -0,0 +1,31 @@
+package airlock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("airlock.Equalisation")
+@Label("Equalisation")
+@Category("Airlock")
+@Description("The lock pressure was set to match the cabin or the environment.")
+@StackTrace(false)
+public class EqualisationEvent extends Event {
+
+	@Label("Pressure Before")
+	private double before;
+
+	@Label("Pressure After")
+	private double after;
+
+	public void record(double before, double after) {
+		end();
+		if (shouldCommit()) {
+			this.before = before;
+			this.after = after;
+			commit();
+		}
+	}
+}
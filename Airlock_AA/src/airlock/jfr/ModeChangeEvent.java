@@ -0,0 +1,27 @@
+package airlock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("airlock.ModeChange")
+@Label("Mode Change")
+@Category("Airlock")
+@Description("An airlock was toggled between MANUAL and AUTO mode.")
+@StackTrace(false)
+public class ModeChangeEvent extends Event {
+
+	@Label("Mode")
+	private String mode;
+
+	public static void emit(String mode) {
+		ModeChangeEvent event = new ModeChangeEvent();
+		if (event.isEnabled()) {
+			event.mode = mode;
+			event.commit();
+		}
+	}
+}
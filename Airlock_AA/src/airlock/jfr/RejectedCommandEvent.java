@@ -0,0 +1,33 @@
+package airlock.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/*
+ * A command or sensor write that was refused. Keeps its stack trace so a
+ * recording shows who issued it.
+ */
+@Name("airlock.RejectedCommand")
+@Label("Rejected Command")
+@Category("Airlock")
+@Description("An airlock command or pressure write was rejected.")
+public class RejectedCommandEvent extends Event {
+
+	@Label("Command")
+	private String command;
+
+	@Label("Reason")
+	private String reason;
+
+	public static void emit(String command, String reason) {
+		RejectedCommandEvent event = new RejectedCommandEvent();
+		if (event.isEnabled()) {
+			event.command = command;
+			event.reason = reason;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package airlock.journal;
+
+public enum JournalEvent {
+	DOOR_OPENED,
+	DOOR_CLOSED,
+	OUTER_DOOR_OPENED,
+	OUTER_DOOR_CLOSED,
+	INNER_DOOR_OPENED,
+	INNER_DOOR_CLOSED,
+	SEALED,
+	UNSEALED,
+	AUTO_MODE,
+	MANUAL_MODE,
+	PRESSURE_SET;
+
+	private static final JournalEvent[] VALUES = values();
+
+	// Codes start at 1 so an all-zero record marks the end of the journal.
+	short code() {
+		return (short) (ordinal() + 1);
+	}
+
+	static JournalEvent fromCode(short code) {
+		return code < 1 || code > VALUES.length ? null : VALUES[code - 1];
+	}
+}
@@ -0,0 +1,9 @@
+package airlock.journal;
+
+/*
+ * Receives the records of a journal, in append order, from TransitionJournal.read.
+ */
+public interface JournalReader {
+
+	void record(long sequence, long timestampNanos, int source, JournalEvent event, double value);
+}
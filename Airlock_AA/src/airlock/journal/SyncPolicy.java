@@ -0,0 +1,49 @@
+package airlock.journal;
+
+/*
+ * When a TransitionJournal forces its mapped pages to disk: after every
+ * event, on a fixed interval, once a number of bytes has been written, or
+ * never (left to the operating system).
+ */
+public final class SyncPolicy {
+
+	enum Kind { EVERY_EVENT, INTERVAL, SIZE, NONE }
+
+	private final Kind kind;
+	private final long amount;
+
+	private SyncPolicy(Kind kind, long amount) {
+		this.kind = kind;
+		this.amount = amount;
+	}
+
+	public static SyncPolicy everyEvent() {
+		return new SyncPolicy(Kind.EVERY_EVENT, 0);
+	}
+
+	public static SyncPolicy interval(long millis) {
+		if (millis <= 0) throw new IllegalArgumentException("Sync interval must be positive.");
+		return new SyncPolicy(Kind.INTERVAL, millis);
+	}
+
+	public static SyncPolicy everyBytes(long bytes) {
+		if (bytes <= 0) throw new IllegalArgumentException("Sync size must be positive.");
+		return new SyncPolicy(Kind.SIZE, bytes);
+	}
+
+	public static SyncPolicy none() {
+		return new SyncPolicy(Kind.NONE, 0);
+	}
+
+	Kind kind() {
+		return kind;
+	}
+
+	long amount() {
+		return amount;
+	}
+
+	public String toString() {
+		return kind == Kind.EVERY_EVENT || kind == Kind.NONE ? kind.toString() : kind + "(" + amount + ")";
+	}
+}
@@ -0,0 +1,265 @@
+package airlock.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Append-only binary audit journal of airlock transitions.
+ *
+ * The file is a 24-byte header followed by fixed 24-byte records:
+ *
+ *   0  long   timestamp, nanoseconds since the epoch
+ *   8  double value (the pressure for PRESSURE_SET, otherwise 0)
+ *   16 int    source id given when the journal was attached
+ *   20 short  event code (JournalEvent ordinal + 1, 0 = no record)
+ *   22 short  reserved
+ *
+ * Writers reserve a slot with one atomic increment and write it straight into
+ * a memory-mapped region, so appending never allocates and many airlocks can
+ * append at once. The file is mapped in fixed-size regions as it grows.
+ *
+ * A slot whose writer had not finished when the file was last forced reads
+ * back as zero. Readers skip such torn slots rather than stopping there, and
+ * a reopened journal appends after the last complete record.
+ *
+ * Airlocks, doors and sensors record through offer, which drops and counts
+ * records once the journal is closed, so closing a journal that is still
+ * attached never fails a command.
+ */
+public class TransitionJournal implements AutoCloseable {
+
+	public static final int RECORD_SIZE = 24;
+
+	static final int MAGIC = 0x414C4A31; // "ALJ1"
+	static final short VERSION = 1;
+	static final long REGION_SIZE = RECORD_SIZE * (1L << 20);
+
+	private final FileChannel channel;
+	private final SyncPolicy policy;
+	private final AtomicLong nextSequence = new AtomicLong();
+	private final AtomicLong syncedOffset = new AtomicLong();
+	private final long baseEpochNanos;
+	private final long baseNanoTime;
+	private final ScheduledExecutorService syncer;
+
+	private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+	private volatile boolean closed;
+	private final LongAdder dropped = new LongAdder();
+
+	public TransitionJournal(Path path, SyncPolicy policy) throws IOException {
+		this.policy = policy;
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() == 0) {
+				MappedByteBuffer header = region(0);
+				header.putInt(0, MAGIC);
+				header.putShort(4, VERSION);
+				header.putShort(6, (short) RECORD_SIZE);
+				header.force();
+			} else {
+				nextSequence.set(scan(channel, null));
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		syncedOffset.set(offsetOf(nextSequence.get()));
+
+		Instant now = Instant.now();
+		baseNanoTime = System.nanoTime();
+		baseEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+
+		if (policy.kind() == SyncPolicy.Kind.INTERVAL) {
+			syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "airlock-journal-sync");
+				thread.setDaemon(true);
+				return thread;
+			});
+			syncer.scheduleAtFixedRate(this::sync, policy.amount(), policy.amount(), TimeUnit.MILLISECONDS);
+		} else {
+			syncer = null;
+		}
+	}
+
+	/*
+	 * Throws IllegalStateException once the journal has been closed.
+	 */
+	public void append(int source, JournalEvent event, double value) {
+		if (closed) throw new IllegalStateException("Transition journal is closed.");
+		write(source, event, value);
+	}
+
+	/*
+	 * Appends the record unless the journal has been closed, in which case it
+	 * is dropped, counted and false is returned.
+	 */
+	public boolean offer(int source, JournalEvent event, double value) {
+		if (!closed) {
+			try {
+				write(source, event, value);
+				return true;
+			} catch (UncheckedIOException e) {
+				// mapping a new region failed; only expected if closed meanwhile
+				if (!closed) throw e;
+			}
+		}
+		dropped.increment();
+		return false;
+	}
+
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	private void write(int source, JournalEvent event, double value) {
+		long offset = offsetOf(nextSequence.getAndIncrement());
+		MappedByteBuffer region = region((int) (offset / REGION_SIZE));
+		int index = (int) (offset % REGION_SIZE);
+		region.putLong(index, baseEpochNanos + (System.nanoTime() - baseNanoTime));
+		region.putDouble(index + 8, value);
+		region.putInt(index + 16, source);
+		region.putShort(index + 22, (short) 0);
+		region.putShort(index + 20, event.code());
+
+		switch (policy.kind()) {
+			case EVERY_EVENT :
+				region.force(index, RECORD_SIZE);
+				break;
+			case SIZE :
+				long end = offset + RECORD_SIZE;
+				long synced = syncedOffset.get();
+				if (end - synced >= policy.amount() && syncedOffset.compareAndSet(synced, end)) {
+					force(synced, end);
+				}
+				break;
+			default :
+				break;
+		}
+	}
+
+	public long size() {
+		return nextSequence.get();
+	}
+
+	public SyncPolicy getPolicy() {
+		return policy;
+	}
+
+	/*
+	 * Forces everything appended so far to disk.
+	 */
+	public void sync() {
+		long end = offsetOf(nextSequence.get());
+		long synced = syncedOffset.getAndSet(end);
+		force(Math.min(synced, end), end);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		if (syncer != null) syncer.shutdownNow();
+		sync();
+		channel.close();
+	}
+
+	/*
+	 * Reads every complete record of a journal file in append order and
+	 * returns how many there were. Torn slots are skipped, so the sequence
+	 * numbers passed to the reader may have gaps.
+	 */
+	public static long read(Path path, JournalReader reader) throws IOException {
+		long[] count = new long[1];
+		try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+			scan(in, (sequence, timestampNanos, source, event, value) -> {
+				count[0]++;
+				reader.record(sequence, timestampNanos, source, event, value);
+			});
+		}
+		return count[0];
+	}
+
+	private static long offsetOf(long sequence) {
+		return (sequence + 1) * RECORD_SIZE;
+	}
+
+	private static void readHeader(FileChannel in) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(RECORD_SIZE);
+		if (in.read(header, 0) < RECORD_SIZE || header.getInt(0) != MAGIC) {
+			throw new IOException("Not an airlock transition journal.");
+		}
+		if (header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+			throw new IOException("Unsupported journal version.");
+		}
+	}
+
+	// Returns the sequence after the last complete record; the zero-filled
+	// tail of the last mapped region is read through like any torn slot.
+	private static long scan(FileChannel in, JournalReader reader) throws IOException {
+		readHeader(in);
+		ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 4096);
+		long sequence = 0;
+		long next = 0;
+		long position = RECORD_SIZE;
+		while (true) {
+			buffer.clear();
+			int read = in.read(buffer, position);
+			if (read < RECORD_SIZE) return next;
+			int records = read / RECORD_SIZE;
+			for (int i = 0; i < records; i++, sequence++) {
+				int index = i * RECORD_SIZE;
+				JournalEvent event = JournalEvent.fromCode(buffer.getShort(index + 20));
+				if (event == null) continue;
+				if (reader != null) {
+					reader.record(sequence, buffer.getLong(index), buffer.getInt(index + 16), event, buffer.getDouble(index + 8));
+				}
+				next = sequence + 1;
+			}
+			position += (long) records * RECORD_SIZE;
+		}
+	}
+
+	private void force(long from, long to) {
+		if (to <= from) return;
+		int first = (int) (from / REGION_SIZE);
+		int last = (int) ((to - 1) / REGION_SIZE);
+		for (int i = first; i <= last; i++) {
+			long regionStart = (long) i * REGION_SIZE;
+			int start = (int) (Math.max(from, regionStart) - regionStart);
+			int end = (int) (Math.min(to, regionStart + REGION_SIZE) - regionStart);
+			region(i).force(start, end - start);
+		}
+	}
+
+	private MappedByteBuffer region(int index) {
+		MappedByteBuffer[] mapped = regions;
+		if (index < mapped.length && mapped[index] != null) return mapped[index];
+		return mapRegion(index);
+	}
+
+	private synchronized MappedByteBuffer mapRegion(int index) {
+		MappedByteBuffer[] mapped = regions;
+		if (index < mapped.length && mapped[index] != null) return mapped[index];
+		try {
+			MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, index * REGION_SIZE, REGION_SIZE);
+			MappedByteBuffer[] grown = Arrays.copyOf(mapped, Math.max(mapped.length, index + 1));
+			grown[index] = region;
+			regions = grown;
+			return region;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package airlock.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+
+/*
+ * Per-command counters and latency histograms and per-reason rejection
+ * counters. One instance can be shared by every airlock in a fleet; recording
+ * takes no locks. Exposed through JMX (register) and as Prometheus text.
+ *
+ * Reading the clock twice costs more than the rest of a command on some
+ * machines, so latency can be sampled: with a sample rate of n, one command in
+ * n (chosen at random) is timed. Command and rejection counts are always exact.
+ */
+public class AirLockMetrics implements AirLockMetricsMBean {
+
+	private static final AirLockCommand[] COMMANDS = AirLockCommand.values();
+	private static final AirLockResult[] RESULTS = AirLockResult.values();
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+	private final LatencyHistogram[] latencies = new LatencyHistogram[COMMANDS.length];
+	private final LongAdder[] commands = new LongAdder[COMMANDS.length];
+	private final LongAdder[] rejections = new LongAdder[RESULTS.length];
+	private final int sampleMask;
+
+	public AirLockMetrics() {
+		this(1);
+	}
+
+	public AirLockMetrics(int sampleRate) {
+		if (sampleRate < 1 || Integer.bitCount(sampleRate) != 1) {
+			throw new IllegalArgumentException("Sample rate must be a power of two.");
+		}
+		sampleMask = sampleRate - 1;
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i] = new LatencyHistogram();
+			commands[i] = new LongAdder();
+		}
+		for (int i = 0; i < rejections.length; i++) {
+			rejections[i] = new LongAdder();
+		}
+	}
+
+	public int getSampleRate() {
+		return sampleMask + 1;
+	}
+
+	/*
+	 * Whether the next command should be timed and passed to record, or just
+	 * counted.
+	 */
+	public boolean shouldTime() {
+		return sampleMask == 0 || (ThreadLocalRandom.current().nextInt() & sampleMask) == 0;
+	}
+
+	public void record(AirLockCommand command, long nanos, AirLockResult result) {
+		latencies[command.ordinal()].record(nanos);
+		count(command, result);
+	}
+
+	public void count(AirLockCommand command, AirLockResult result) {
+		commands[command.ordinal()].increment();
+		if (result != AirLockResult.OK) rejections[result.ordinal()].increment();
+	}
+
+	public void recordRejection(AirLockResult reason) {
+		if (reason != AirLockResult.OK) rejections[reason.ordinal()].increment();
+	}
+
+	public LatencyHistogram getLatency(AirLockCommand command) {
+		return latencies[command.ordinal()];
+	}
+
+	public long getRejections(AirLockResult reason) {
+		return rejections[reason.ordinal()].sum();
+	}
+
+	public ObjectName register(String name) throws JMException {
+		ObjectName objectName = new ObjectName("airlock:type=AirLockMetrics,name=" + ObjectName.quote(name));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		return objectName;
+	}
+
+	@Override
+	public long getCommandCount() {
+		long total = 0;
+		for (LongAdder command : commands) {
+			total += command.sum();
+		}
+		return total;
+	}
+
+	@Override
+	public long getRejectionCount() {
+		long total = 0;
+		for (LongAdder rejection : rejections) {
+			total += rejection.sum();
+		}
+		return total;
+	}
+
+	@Override
+	public long getRejections(String reason) {
+		return getRejections(AirLockResult.valueOf(reason.toUpperCase()));
+	}
+
+	@Override
+	public long getCount(String command) {
+		return commands[commandOf(command).ordinal()].sum();
+	}
+
+	@Override
+	public double getMeanNanos(String command) {
+		return latencyOf(command).getMean();
+	}
+
+	@Override
+	public long getMaxNanos(String command) {
+		return latencyOf(command).getMax();
+	}
+
+	@Override
+	public long getPercentileNanos(String command, double percentile) {
+		return latencyOf(command).getValueAtPercentile(percentile);
+	}
+
+	@Override
+	public String getPrometheusText() {
+		StringBuilder text = new StringBuilder(4096);
+		try {
+			writePrometheus(text);
+		} catch (IOException e) {
+			// StringBuilder does not throw
+		}
+		return text.toString();
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < latencies.length; i++) {
+			latencies[i].reset();
+			commands[i].reset();
+		}
+		for (LongAdder rejection : rejections) {
+			rejection.reset();
+		}
+	}
+
+	public void writePrometheus(Appendable out) throws IOException {
+		out.append("# HELP airlock_commands_total Commands run, by command code.\n");
+		out.append("# TYPE airlock_commands_total counter\n");
+		for (AirLockCommand command : COMMANDS) {
+			out.append("airlock_commands_total{command=\"").append(command.getCode()).append("\"} ")
+				.append(Long.toString(commands[command.ordinal()].sum())).append('\n');
+		}
+		out.append("# HELP airlock_command_latency_seconds Time taken by timed (sampled) airlock commands.\n");
+		out.append("# TYPE airlock_command_latency_seconds summary\n");
+		for (AirLockCommand command : COMMANDS) {
+			LatencyHistogram latency = latencies[command.ordinal()];
+			for (double quantile : QUANTILES) {
+				out.append("airlock_command_latency_seconds{command=\"").append(command.getCode())
+					.append("\",quantile=\"").append(Double.toString(quantile)).append("\"} ")
+					.append(Double.toString(latency.getValueAtPercentile(quantile * 100.0) / 1e9)).append('\n');
+			}
+			out.append("airlock_command_latency_seconds_sum{command=\"").append(command.getCode()).append("\"} ")
+				.append(Double.toString(latency.getSum() / 1e9)).append('\n');
+			out.append("airlock_command_latency_seconds_count{command=\"").append(command.getCode()).append("\"} ")
+				.append(Long.toString(latency.getCount())).append('\n');
+		}
+		out.append("# HELP airlock_rejections_total Commands rejected, by reason.\n");
+		out.append("# TYPE airlock_rejections_total counter\n");
+		for (AirLockResult result : RESULTS) {
+			if (result == AirLockResult.OK) continue;
+			out.append("airlock_rejections_total{reason=\"").append(result.name().toLowerCase()).append("\"} ")
+				.append(Long.toString(rejections[result.ordinal()].sum())).append('\n');
+		}
+	}
+
+	private LatencyHistogram latencyOf(String command) {
+		return latencies[commandOf(command).ordinal()];
+	}
+
+	// Accepts either the console code ("OX") or the enum name.
+	private static AirLockCommand commandOf(String command) {
+		AirLockCommand parsed = AirLockCommand.fromCode(command);
+		return parsed != null ? parsed : AirLockCommand.valueOf(command.toUpperCase());
+	}
+}
@@ -0,0 +1,18 @@
+package airlock.metrics;
+
+public interface AirLockMetricsMBean {
+
+	long getCommandCount();
+	long getRejectionCount();
+
+	long getRejections(String reason);
+
+	long getCount(String command);
+	double getMeanNanos(String command);
+	long getMaxNanos(String command);
+	long getPercentileNanos(String command, double percentile);
+
+	String getPrometheusText();
+
+	void reset();
+}
@@ -0,0 +1,96 @@
+package airlock.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Lock-free log-linear latency histogram in the style of HdrHistogram. Values
+ * (nanoseconds) are bucketed by their highest set bit and then split into
+ * 2^SUB_BUCKET_BITS linear sub-buckets, which keeps the relative error of any
+ * reported value under 1 / 2^SUB_BUCKET_BITS. Recording is a couple of shifts
+ * and one atomic increment; the count is only summed up when it is read.
+ */
+public class LatencyHistogram {
+
+	static final int SUB_BUCKET_BITS = 4;
+	static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	public void record(long nanos) {
+		long value = Math.max(0L, nanos);
+		counts.incrementAndGet(indexOf(value));
+		sum.add(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	public long getCount() {
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	public long getSum() {
+		return sum.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long n = getCount();
+		return n == 0 ? 0.0 : (double) sum.sum() / n;
+	}
+
+	/*
+	 * Upper bound of the bucket holding the given percentile (0-100).
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = 0;
+		long[] snapshot = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) return 0;
+		long rank = Math.max(1, (long) Math.ceil(total * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) return Math.min(upperBoundOf(i), max.get());
+		}
+		return max.get();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		sum.reset();
+		max.set(0);
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) return (int) value;
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+		return (shift + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBoundOf(int index) {
+		if (index < SUB_BUCKETS) return index;
+		int shift = index / SUB_BUCKETS - 1;
+		long subBucket = (index % SUB_BUCKETS) | SUB_BUCKETS;
+		return ((subBucket + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,43 @@
+package airlock.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import com.sun.net.httpserver.HttpServer;
+
+/*
+ * Serves AirLockMetrics as Prometheus text on http://localhost:<port>/metrics.
+ */
+public class MetricsEndpoint implements AutoCloseable {
+
+	private final HttpServer server;
+
+	public MetricsEndpoint(AirLockMetrics metrics, int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/metrics", exchange -> {
+			try {
+				byte[] body = metrics.getPrometheusText().getBytes(StandardCharsets.UTF_8);
+				exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+				exchange.sendResponseHeaders(200, body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			} finally {
+				exchange.close();
+			}
+		});
+		server.start();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+}
@@ -0,0 +1,69 @@
+package airlock.sensors;
+
+import airlock.entities.IAirLock;
+import airlock.entities.IPressureSensor;
+import airlock.exceptions.PressureException;
+
+/*
+ * One channel of a SensorBus seen as an IPressureSensor. getPressure returns
+ * the reading from the last poll (or the last write) and never touches the
+ * bus; a PollingScheduler keeps it up to date.
+ */
+public class BusPressureSensor implements IPressureSensor {
+
+	private final SensorBus bus;
+	private final int channel;
+	private volatile double pressure;
+	// Bumped by every write so a poll that raced it can tell its reading is stale.
+	private volatile long writes;
+
+	// Polling state, owned by the PollingScheduler the sensor was attached to.
+	volatile IAirLock airLock;
+	volatile long activeUntil;
+	volatile long nextPoll;
+
+	BusPressureSensor(SensorBus bus, int channel, double initialPressure) {
+		this.bus = bus;
+		this.channel = channel;
+		this.pressure = initialPressure;
+	}
+
+	@Override
+	public double getPressure() {
+		return pressure;
+	}
+
+	@Override
+	public synchronized void setPressure(double newPressure) throws PressureException {
+		bus.write(channel, newPressure);
+		pressure = newPressure;
+		writes++;
+	}
+
+	long getWriteCount() {
+		return writes;
+	}
+
+	/*
+	 * Applies a polled reading unless a write finished since the poll took
+	 * writeCount, in which case the reading may predate it and is dropped.
+	 */
+	synchronized boolean update(double reading, long writeCount) {
+		if (writes != writeCount) return false;
+		pressure = reading;
+		return true;
+	}
+
+	public SensorBus getBus() {
+		return bus;
+	}
+
+	public int getChannel() {
+		return channel;
+	}
+
+	public String toString() {
+		return String.format(
+			"BusPressureSensor: channel: %d, pressure: %3.1f bar", channel, getPressure());
+	}
+}
@@ -0,0 +1,93 @@
+package airlock.sensors;
+
+import java.util.concurrent.TimeUnit;
+
+import airlock.entities.IPressureSensor;
+import airlock.exceptions.PressureException;
+
+/*
+ * Decorates a slow pressure sensor so that reads within maxAge of the last
+ * device read are served from memory. Readers that miss queue on one lock and
+ * re-check the cache once they hold it, so concurrent misses in the same
+ * window share a single device read. setPressure writes through and drops the
+ * cached sample, so a read after a write always reaches the device.
+ */
+public class CachingPressureSensor implements IPressureSensor {
+
+	private static final class Sample {
+		final double pressure;
+		final long takenAt;
+
+		Sample(double pressure, long takenAt) {
+			this.pressure = pressure;
+			this.takenAt = takenAt;
+		}
+	}
+
+	private final IPressureSensor sensor;
+	private final long maxAgeNanos;
+	private final Object lock = new Object();
+	private volatile Sample sample;
+	private long deviceReads; // guarded by lock
+
+	public CachingPressureSensor(IPressureSensor sensor, long maxAge, TimeUnit unit) {
+		if (sensor == null) throw new IllegalArgumentException("Sensor must not be null.");
+		if (maxAge < 0) throw new IllegalArgumentException("Maximum sample age must not be negative.");
+		this.sensor = sensor;
+		this.maxAgeNanos = unit.toNanos(maxAge);
+	}
+
+	@Override
+	public double getPressure() {
+		Sample current = sample;
+		if (isFresh(current)) return current.pressure;
+		synchronized (lock) {
+			current = sample;
+			if (isFresh(current)) return current.pressure;
+			// Stamp before reading so the sample never looks younger than it is.
+			long takenAt = System.nanoTime();
+			double pressure = sensor.getPressure();
+			deviceReads++;
+			sample = new Sample(pressure, takenAt);
+			return pressure;
+		}
+	}
+
+	@Override
+	public void setPressure(double newPressure) throws PressureException {
+		synchronized (lock) {
+			sample = null;
+			sensor.setPressure(newPressure);
+		}
+	}
+
+	/*
+	 * Forces the next read to go to the device.
+	 */
+	public void invalidate() {
+		sample = null;
+	}
+
+	public IPressureSensor getSensor() {
+		return sensor;
+	}
+
+	public long getMaxAge(TimeUnit unit) {
+		return unit.convert(maxAgeNanos, TimeUnit.NANOSECONDS);
+	}
+
+	public long getDeviceReads() {
+		synchronized (lock) {
+			return deviceReads;
+		}
+	}
+
+	private boolean isFresh(Sample current) {
+		return current != null && System.nanoTime() - current.takenAt <= maxAgeNanos;
+	}
+
+	public String toString() {
+		return String.format(
+			"CachingPressureSensor: pressure: %3.1f bar", getPressure());
+	}
+}
@@ -0,0 +1,147 @@
+package airlock.sensors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import airlock.entities.IAirLock;
+
+/*
+ * Polls bus sensors in batches. Sensors are grouped by bus and every poll
+ * issues one readBatch per bus covering all of its sensors that are due.
+ *
+ * A sensor that belongs to a watched airlock is polled at the fast interval
+ * while that airlock is unsealed, and for one slow interval after any event
+ * it fires; an idle, sealed airlock's sensors drop to the slow interval.
+ * Sensors not tied to an airlock always use the slow interval.
+ */
+public class PollingScheduler implements AutoCloseable {
+
+	private static final class Group {
+		final SensorBus bus;
+		final List<BusPressureSensor> sensors = new ArrayList<>();
+		int[] channels = new int[0];
+		double[] readings = new double[0];
+		long[] writes = new long[0];
+		BusPressureSensor[] due = new BusPressureSensor[0];
+
+		Group(SensorBus bus) {
+			this.bus = bus;
+		}
+	}
+
+	private final long fastNanos;
+	private final long slowNanos;
+	private final Map<SensorBus, Group> groups = new LinkedHashMap<>();
+	private final AtomicLong batches = new AtomicLong();
+	private ScheduledExecutorService poller;
+
+	public PollingScheduler(long fastInterval, long slowInterval, TimeUnit unit) {
+		if (fastInterval < 0 || slowInterval < fastInterval) {
+			throw new IllegalArgumentException("Intervals must satisfy 0 <= fast <= slow.");
+		}
+		fastNanos = unit.toNanos(fastInterval);
+		slowNanos = unit.toNanos(slowInterval);
+	}
+
+	/*
+	 * Creates a sensor for the given channel, reading its first value
+	 * straight away.
+	 */
+	public synchronized BusPressureSensor attach(SensorBus bus, int channel) {
+		double[] reading = new double[1];
+		bus.readBatch(new int[] {channel}, 1, reading);
+		batches.incrementAndGet();
+		BusPressureSensor sensor = new BusPressureSensor(bus, channel, reading[0]);
+		sensor.nextPoll = System.nanoTime() + slowNanos;
+		Group group = groups.computeIfAbsent(bus, Group::new);
+		group.sensors.add(sensor);
+		int size = group.sensors.size();
+		if (group.channels.length < size) {
+			int capacity = Math.max(8, size * 2);
+			group.channels = Arrays.copyOf(group.channels, capacity);
+			group.readings = Arrays.copyOf(group.readings, capacity);
+			group.writes = Arrays.copyOf(group.writes, capacity);
+			group.due = Arrays.copyOf(group.due, capacity);
+		}
+		return sensor;
+	}
+
+	/*
+	 * Ties the sensors to an airlock so they are polled fast while it is
+	 * mid-cycle.
+	 */
+	public void watch(IAirLock airLock, BusPressureSensor... sensors) {
+		for (BusPressureSensor sensor : sensors) {
+			sensor.airLock = airLock;
+		}
+		airLock.addListener((source, event) -> {
+			long now = System.nanoTime();
+			for (BusPressureSensor sensor : sensors) {
+				sensor.activeUntil = now + slowNanos;
+				sensor.nextPoll = now;
+			}
+		});
+	}
+
+	public synchronized void start() {
+		if (poller != null) return;
+		poller = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "airlock-sensor-poll");
+			thread.setDaemon(true);
+			return thread;
+		});
+		poller.scheduleWithFixedDelay(this::poll, 0, Math.max(fastNanos, 1_000_000L), TimeUnit.NANOSECONDS);
+	}
+
+	/*
+	 * Reads every sensor that is due, one batch per bus, and returns how many
+	 * sensors were read. A reading is dropped if the sensor was written while
+	 * its batch was in flight, so a poll never overwrites a fresher write.
+	 */
+	public synchronized int poll() {
+		long now = System.nanoTime();
+		int read = 0;
+		for (Group group : groups.values()) {
+			int count = 0;
+			for (BusPressureSensor sensor : group.sensors) {
+				if (sensor.nextPoll - now > 0) continue;
+				group.channels[count] = sensor.getChannel();
+				group.writes[count] = sensor.getWriteCount();
+				group.due[count++] = sensor;
+				sensor.nextPoll = now + (isActive(sensor, now) ? fastNanos : slowNanos);
+			}
+			if (count == 0) continue;
+			group.bus.readBatch(group.channels, count, group.readings);
+			batches.incrementAndGet();
+			for (int i = 0; i < count; i++) {
+				group.due[i].update(group.readings[i], group.writes[i]);
+				group.due[i] = null;
+			}
+			read += count;
+		}
+		return read;
+	}
+
+	public long getBatchCount() {
+		return batches.get();
+	}
+
+	@Override
+	public synchronized void close() {
+		if (poller != null) poller.shutdownNow();
+		poller = null;
+	}
+
+	private static boolean isActive(BusPressureSensor sensor, long now) {
+		IAirLock airLock = sensor.airLock;
+		if (airLock == null) return false;
+		return !airLock.isSealed() || sensor.activeUntil - now > 0;
+	}
+}
@@ -0,0 +1,20 @@
+package airlock.sensors;
+
+import airlock.exceptions.PressureException;
+
+/*
+ * A shared bus of pressure sensors addressed by channel number. One call to
+ * readBatch is one bus transaction, however many channels it covers.
+ */
+public interface SensorBus {
+
+	int channelCount();
+
+	/*
+	 * Reads the first count channels listed in channels into the matching
+	 * slots of pressures.
+	 */
+	void readBatch(int[] channels, int count, double[] pressures);
+
+	void write(int channel, double pressure) throws PressureException;
+}
@@ -0,0 +1,85 @@
+package airlock.sensors;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import airlock.exceptions.PressureException;
+
+/*
+ * In-memory stand-in for a hardware sensor bus. Every transaction (batched
+ * read or write) can be given a fixed latency so polling behaviour can be
+ * tried out without the real devices.
+ */
+public class SimulatedSensorBus implements SensorBus {
+
+	private final long latencyNanos;
+	private final AtomicLong transactions = new AtomicLong();
+	private double[] pressures = new double[16];
+	private int channels;
+
+	public SimulatedSensorBus() {
+		this(0, TimeUnit.NANOSECONDS);
+	}
+
+	public SimulatedSensorBus(long latency, TimeUnit unit) {
+		latencyNanos = unit.toNanos(latency);
+	}
+
+	public synchronized int addChannel(double initialPressure) throws PressureException {
+		if (initialPressure < 0.0) throw new PressureException("Pressure reading is negative, this is not possible.");
+		if (channels == pressures.length) pressures = Arrays.copyOf(pressures, channels * 2);
+		pressures[channels] = initialPressure;
+		return channels++;
+	}
+
+	@Override
+	public synchronized int channelCount() {
+		return channels;
+	}
+
+	@Override
+	public void readBatch(int[] channelList, int count, double[] out) {
+		transaction();
+		synchronized (this) {
+			for (int i = 0; i < count; i++) {
+				out[i] = pressures[checked(channelList[i])];
+			}
+		}
+	}
+
+	@Override
+	public void write(int channel, double pressure) throws PressureException {
+		if (pressure < 0.0) throw new PressureException("Cannot set negative pressure");
+		transaction();
+		synchronized (this) {
+			pressures[checked(channel)] = pressure;
+		}
+	}
+
+	/*
+	 * Changes a channel as the outside world would, without a bus transaction.
+	 */
+	public synchronized void simulate(int channel, double pressure) {
+		pressures[checked(channel)] = pressure;
+	}
+
+	public long getTransactions() {
+		return transactions.get();
+	}
+
+	private int checked(int channel) {
+		if (channel < 0 || channel >= channels) throw new IllegalArgumentException("No such channel: " + channel);
+		return channel;
+	}
+
+	private void transaction() {
+		transactions.incrementAndGet();
+		if (latencyNanos > 0) {
+			long end = System.nanoTime() + latencyNanos;
+			while (System.nanoTime() < end) {
+				Thread.onSpinWait();
+			}
+		}
+	}
+}
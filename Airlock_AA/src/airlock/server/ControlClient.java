@@ -0,0 +1,88 @@
+package airlock.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Blocking client for ControlServer. send and sendPressure only buffer the
+ * request, so several can be pipelined before the responses are read back
+ * in order with receive.
+ */
+public class ControlClient implements AutoCloseable {
+
+	private final Socket socket;
+	private final DataOutputStream out;
+	private final DataInputStream in;
+	private int nextCorrelationId;
+
+	public ControlClient(int port) throws IOException {
+		socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		socket.setTcpNoDelay(true);
+		out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+		in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+	}
+
+	/*
+	 * Queues a console command such as "OX" and returns its correlation id.
+	 */
+	public int send(String airLockId, String code) throws IOException {
+		return write(airLockId, opcode(code, false), 0.0);
+	}
+
+	/*
+	 * Queues "SX" or "SI" with the new pressure and returns its correlation id.
+	 */
+	public int sendPressure(String airLockId, String code, double pressure) throws IOException {
+		return write(airLockId, opcode(code, true), pressure);
+	}
+
+	public ControlResponse receive() throws IOException {
+		out.flush();
+		int length = in.readInt();
+		if (length != ControlProtocol.RESPONSE_SIZE - 4) throw new IOException("Malformed response frame.");
+		int correlationId = in.readInt();
+		byte status = in.readByte();
+		int state = in.readUnsignedByte();
+		return new ControlResponse(correlationId, status, state);
+	}
+
+	public ControlResponse execute(String airLockId, String code) throws IOException {
+		send(airLockId, code);
+		return receive();
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		socket.close();
+	}
+
+	private static int opcode(String code, boolean pressure) {
+		int opcode = ControlProtocol.opcodeOf(code);
+		if (opcode < 0 || ControlProtocol.hasPressure(opcode) != pressure) {
+			throw new IllegalArgumentException("Not a " + (pressure ? "pressure" : "door or mode") + " command: " + code);
+		}
+		return opcode;
+	}
+
+	private int write(String airLockId, int opcode, double pressure) throws IOException {
+		byte[] id = airLockId.getBytes(StandardCharsets.UTF_8);
+		int correlationId = nextCorrelationId++;
+		out.writeInt(7 + id.length + (ControlProtocol.hasPressure(opcode) ? 8 : 0));
+		out.writeInt(correlationId);
+		out.writeByte(opcode);
+		out.writeShort(id.length);
+		out.write(id);
+		if (ControlProtocol.hasPressure(opcode)) out.writeDouble(pressure);
+		return correlationId;
+	}
+}
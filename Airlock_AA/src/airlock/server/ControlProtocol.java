@@ -0,0 +1,75 @@
+package airlock.server;
+
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+import airlock.entities.IAirLock;
+
+/*
+ * Binary framing of the control server. All numbers are big-endian.
+ *
+ * Request:  int    length of the rest of the frame
+ *           int    correlation id, echoed in the response
+ *           byte   opcode, the index of the console code in CODES
+ *           short  airlock id length, then the id in UTF-8
+ *           double pressure, for SX and SI only
+ *
+ * Response: int    length of the rest of the frame (always 6)
+ *           int    correlation id
+ *           byte   status: an AirLockResult ordinal, UNKNOWN_AIRLOCK,
+ *                  BAD_REQUEST or UNAVAILABLE
+ *           byte   airlock state after the command (IAirLock.STATE_* bits)
+ *
+ * Requests on one connection may be pipelined; their responses come back in
+ * the order they were sent.
+ */
+public final class ControlProtocol {
+
+	public static final String[] CODES = {"OX", "OI", "CX", "CI", "SX", "SI", "EX", "EI", "TM"};
+
+	public static final byte SET_ENVIRONMENT_PRESSURE = 4;
+	public static final byte SET_CABIN_PRESSURE = 5;
+
+	public static final byte UNKNOWN_AIRLOCK = 0x40;
+	public static final byte BAD_REQUEST = 0x41;
+	// The fleet could not run the command, e.g. because it is shutting down.
+	public static final byte UNAVAILABLE = 0x42;
+
+	public static final int MAX_FRAME = 1024;
+	public static final int RESPONSE_SIZE = 10;
+
+	static final AirLockCommand[] COMMANDS = new AirLockCommand[CODES.length];
+	static final AirLockResult[] RESULTS = AirLockResult.values();
+
+	static {
+		for (int i = 0; i < CODES.length; i++) {
+			COMMANDS[i] = AirLockCommand.fromCode(CODES[i]);
+		}
+	}
+
+	private ControlProtocol() {
+	}
+
+	/*
+	 * Opcode of a console code such as "OX", or -1 if there is none.
+	 */
+	public static int opcodeOf(String code) {
+		for (int i = 0; i < CODES.length; i++) {
+			if (CODES[i].equalsIgnoreCase(code)) return i;
+		}
+		return -1;
+	}
+
+	public static boolean hasPressure(int opcode) {
+		return opcode == SET_ENVIRONMENT_PRESSURE || opcode == SET_CABIN_PRESSURE;
+	}
+
+	/*
+	 * Runs the opcode through the result-code API; pressure is only used by
+	 * SX and SI.
+	 */
+	static AirLockResult run(IAirLock airLock, int opcode, double pressure) {
+		if (opcode == SET_ENVIRONMENT_PRESSURE) return airLock.trySetEnvironmentPressure(pressure);
+		if (opcode == SET_CABIN_PRESSURE) return airLock.trySetCabinPressure(pressure);
+		return COMMANDS[opcode].tryExecute(airLock);
+	}
+}
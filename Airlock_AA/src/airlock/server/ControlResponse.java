@@ -0,0 +1,44 @@
+package airlock.server;
+
+import airlock.entities.AirLockResult;
+
+public class ControlResponse {
+
+	private final int correlationId;
+	private final byte status;
+	private final int state;
+
+	ControlResponse(int correlationId, byte status, int state) {
+		this.correlationId = correlationId;
+		this.status = status;
+		this.state = state;
+	}
+
+	public int getCorrelationId() {
+		return correlationId;
+	}
+
+	public byte getStatus() {
+		return status;
+	}
+
+	/*
+	 * The command's result, or null for UNKNOWN_AIRLOCK, BAD_REQUEST and
+	 * UNAVAILABLE.
+	 */
+	public AirLockResult getResult() {
+		return status >= 0 && status < ControlProtocol.RESULTS.length ? ControlProtocol.RESULTS[status] : null;
+	}
+
+	public int getState() {
+		return state;
+	}
+
+	public String toString() {
+		AirLockResult result = getResult();
+		String text = result != null ? result.name()
+			: status == ControlProtocol.UNKNOWN_AIRLOCK ? "UNKNOWN_AIRLOCK"
+			: status == ControlProtocol.UNAVAILABLE ? "UNAVAILABLE" : "BAD_REQUEST";
+		return String.format("ControlResponse: id: %d, status: %s, state: %d", correlationId, text, state);
+	}
+}
@@ -0,0 +1,346 @@
+package airlock.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import airlock.entities.AirLockResult;
+import airlock.exceptions.FleetException;
+import airlock.fleet.AirLockFleet;
+
+/*
+ * Non-blocking TCP control server on localhost for the console command set,
+ * addressed by fleet airlock id (see ControlProtocol for the framing).
+ *
+ * A few reactor threads each run a Selector over their share of the
+ * connections; the first one also accepts. The reactors only parse and frame:
+ * each command is handed to AirLockFleet.submit, so it runs on the airlock's
+ * fleet worker in order with every other command for that airlock, and the
+ * result and state it leaves behind come back to the reactor to be written.
+ * Responses are still sent in request order per connection, each waiting for
+ * the ones before it. A connection that stops reading its responses stops
+ * being read from once its output, counting commands still running, passes
+ * WRITE_HIGH_WATER.
+ */
+public class ControlServer implements AutoCloseable {
+
+	private static final int READ_BUFFER = 16 * 1024;
+	private static final int WRITE_HIGH_WATER = 256 * 1024;
+	private static final int MIN_REQUEST = 7; // correlation id, opcode, id length
+
+	private final AirLockFleet fleet;
+	private final ServerSocketChannel listener;
+	private final Reactor[] reactors;
+	private final AtomicInteger connections = new AtomicInteger();
+	private int nextReactor; // only used by the accepting reactor
+	private volatile boolean running = true;
+
+	public ControlServer(AirLockFleet fleet, int port) throws IOException {
+		this(fleet, port, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	}
+
+	public ControlServer(AirLockFleet fleet, int port, int reactorCount) throws IOException {
+		if (fleet == null) throw new IllegalArgumentException("Fleet must not be null.");
+		if (reactorCount < 1) throw new IllegalArgumentException("Server needs at least one reactor.");
+		this.fleet = fleet;
+		listener = ServerSocketChannel.open();
+		try {
+			listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+			listener.configureBlocking(false);
+			reactors = new Reactor[reactorCount];
+			for (int i = 0; i < reactorCount; i++) {
+				reactors[i] = new Reactor("airlock-control-" + i);
+			}
+			listener.register(reactors[0].selector, SelectionKey.OP_ACCEPT);
+		} catch (IOException e) {
+			listener.close();
+			throw e;
+		}
+		for (Reactor reactor : reactors) {
+			reactor.thread.start();
+		}
+	}
+
+	public int getPort() {
+		return listener.socket().getLocalPort();
+	}
+
+	public int getConnectionCount() {
+		return connections.get();
+	}
+
+	@Override
+	public void close() {
+		running = false;
+		for (Reactor reactor : reactors) {
+			reactor.selector.wakeup();
+		}
+		for (Reactor reactor : reactors) {
+			try {
+				reactor.thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		try {
+			listener.close();
+		} catch (IOException e) {
+			// nothing left to release
+		}
+	}
+
+	private void accept() throws IOException {
+		SocketChannel channel;
+		while ((channel = listener.accept()) != null) {
+			channel.configureBlocking(false);
+			channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+			Reactor reactor = reactors[nextReactor];
+			nextReactor = nextReactor + 1 == reactors.length ? 0 : nextReactor + 1;
+			reactor.hand(channel);
+		}
+	}
+
+	private final class Reactor implements Runnable {
+
+		final Selector selector;
+		final Thread thread;
+		final ConcurrentLinkedQueue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+		// Connections with commands that finished on a fleet worker.
+		final ConcurrentLinkedQueue<Connection> ready = new ConcurrentLinkedQueue<>();
+
+		Reactor(String name) throws IOException {
+			selector = Selector.open();
+			thread = new Thread(this, name);
+			thread.setDaemon(true);
+		}
+
+		void hand(SocketChannel channel) {
+			pending.add(channel);
+			if (Thread.currentThread() != thread) selector.wakeup();
+		}
+
+		void ready(Connection connection) {
+			ready.add(connection);
+			if (Thread.currentThread() != thread) selector.wakeup();
+		}
+
+		@Override
+		public void run() {
+			try {
+				while (running) {
+					selector.select();
+					registerPending();
+					respondReady();
+					Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while (keys.hasNext()) {
+						SelectionKey key = keys.next();
+						keys.remove();
+						handle(key);
+					}
+				}
+			} catch (IOException e) {
+				// the selector itself failed; drop every connection it owned
+			} finally {
+				for (SelectionKey key : selector.keys()) {
+					if (key.attachment() instanceof Connection) ((Connection) key.attachment()).close();
+				}
+				try {
+					selector.close();
+				} catch (IOException e) {
+					// nothing left to release
+				}
+			}
+		}
+
+		private void registerPending() {
+			SocketChannel channel;
+			while ((channel = pending.poll()) != null) {
+				try {
+					SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+					key.attach(new Connection(channel, key, this));
+					connections.incrementAndGet();
+				} catch (IOException e) {
+					try {
+						channel.close();
+					} catch (IOException ignored) {
+						// already unusable
+					}
+				}
+			}
+		}
+
+		private void respondReady() {
+			Connection connection;
+			while ((connection = ready.poll()) != null) {
+				if (!connection.channel.isOpen()) continue;
+				try {
+					connection.drain();
+					connection.flush();
+				} catch (IOException e) {
+					connection.close();
+				}
+			}
+		}
+
+		private void handle(SelectionKey key) {
+			if (key.isValid() && key.isAcceptable()) {
+				try {
+					accept();
+				} catch (IOException e) {
+					// the client gave up before we accepted it
+				}
+				registerPending();
+				return;
+			}
+			Connection connection = (Connection) key.attachment();
+			try {
+				if (key.isValid() && key.isReadable()) connection.read();
+				if (key.isValid() && key.isWritable()) connection.flush();
+			} catch (IOException e) {
+				connection.close();
+			}
+		}
+	}
+
+	// A request whose response has not been written yet.
+	private static final class Pending {
+		final int correlationId;
+		volatile int response = -1; // status in the low byte, then the state
+
+		Pending(int correlationId) {
+			this.correlationId = correlationId;
+		}
+	}
+
+	private static int response(byte status, int state) {
+		return (status & 0xFF) | state << 8;
+	}
+
+	private final class Connection {
+
+		final SocketChannel channel;
+		final SelectionKey key;
+		final Reactor reactor;
+		final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+		final ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+		ByteBuffer out = ByteBuffer.allocate(4096);
+
+		Connection(SocketChannel channel, SelectionKey key, Reactor reactor) {
+			this.channel = channel;
+			this.key = key;
+			this.reactor = reactor;
+		}
+
+		void read() throws IOException {
+			if (channel.read(in) < 0) {
+				close();
+				return;
+			}
+			in.flip();
+			while (in.remaining() >= 4) {
+				int length = in.getInt(in.position());
+				if (length < MIN_REQUEST || length > ControlProtocol.MAX_FRAME) {
+					close();
+					return;
+				}
+				if (in.remaining() < 4 + length) break;
+				int end = in.position() + 4 + length;
+				in.position(in.position() + 4);
+				request(end);
+				in.position(end);
+			}
+			in.compact();
+			drain();
+			flush();
+		}
+
+		private void request(int end) {
+			int correlationId = in.getInt();
+			int opcode = in.get();
+			int idLength = in.getShort() & 0xFFFF;
+			Pending pending = new Pending(correlationId);
+			inFlight.add(pending);
+			if (opcode < 0 || opcode >= ControlProtocol.CODES.length || in.position() + idLength > end) {
+				pending.response = response(ControlProtocol.BAD_REQUEST, 0);
+				return;
+			}
+			String id = new String(in.array(), in.arrayOffset() + in.position(), idLength, StandardCharsets.UTF_8);
+			in.position(in.position() + idLength);
+			double pressure = 0.0;
+			if (ControlProtocol.hasPressure(opcode)) {
+				if (end - in.position() < 8) {
+					pending.response = response(ControlProtocol.BAD_REQUEST, 0);
+					return;
+				}
+				pressure = in.getDouble();
+			}
+			double value = pressure;
+			try {
+				fleet.submit(id, airLock -> {
+					AirLockResult result = ControlProtocol.run(airLock, opcode, value);
+					return response((byte) result.ordinal(), airLock.getState());
+				}).whenComplete((response, failure) -> {
+					pending.response = failure == null ? response : response(ControlProtocol.UNAVAILABLE, 0);
+					reactor.ready(this);
+				});
+			} catch (FleetException e) {
+				pending.response = response(ControlProtocol.UNKNOWN_AIRLOCK, 0);
+			}
+		}
+
+		// Writes every finished response that no earlier request is still waiting in front of.
+		void drain() {
+			Pending head;
+			while ((head = inFlight.peek()) != null) {
+				int response = head.response;
+				if (response < 0) return;
+				inFlight.poll();
+				respond(head.correlationId, (byte) response, response >>> 8);
+			}
+		}
+
+		private void respond(int correlationId, byte status, int state) {
+			if (out.remaining() < ControlProtocol.RESPONSE_SIZE) {
+				ByteBuffer grown = ByteBuffer.allocate(out.capacity() * 2);
+				out.flip();
+				grown.put(out);
+				out = grown;
+			}
+			out.putInt(ControlProtocol.RESPONSE_SIZE - 4).putInt(correlationId).put(status).put((byte) state);
+		}
+
+		void flush() throws IOException {
+			out.flip();
+			channel.write(out);
+			out.compact();
+			int buffered = out.position() + inFlight.size() * ControlProtocol.RESPONSE_SIZE;
+			int interest = buffered == 0 ? SelectionKey.OP_READ
+				: buffered < WRITE_HIGH_WATER ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+				: SelectionKey.OP_WRITE;
+			if (key.isValid() && key.interestOps() != interest) key.interestOps(interest);
+		}
+
+		void close() {
+			if (!channel.isOpen()) return;
+			key.cancel();
+			connections.decrementAndGet();
+			try {
+				channel.close();
+			} catch (IOException e) {
+				// already closed by the peer
+			}
+		}
+	}
+}
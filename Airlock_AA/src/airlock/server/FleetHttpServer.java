@@ -0,0 +1,215 @@
+package airlock.server;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import airlock.entities.AirLockResult;
+import airlock.entities.IAirLock;
+import airlock.exceptions.FleetException;
+import airlock.fleet.AirLockFleet;
+
+/*
+ * HTTP/JSON API over a fleet, on the JDK's built-in HttpServer, bound to
+ * localhost.
+ *
+ *   GET  /airlocks                       status of every airlock, optionally
+ *                                        filtered with ?sealed=true|false and
+ *                                        ?mode=AUTO|MANUAL
+ *   GET  /airlocks/{id}                  status of one airlock
+ *   POST /airlocks/{id}/{code}           run a console command (OX, OI, CX,
+ *                                        CI, EX, EI, TM, or SX/SI with
+ *                                        ?pressure=...)
+ *
+ * Responses are written with a JsonWriter straight into the chunked response
+ * body, so listing a large fleet never builds the whole document in memory.
+ * Commands are handed to AirLockFleet.submit and run on the airlock's fleet
+ * worker, in order with its other commands; the request thread waits for the
+ * result. A rejected command answers 409 with its AirLockResult, and one the
+ * fleet cannot run answers 503.
+ */
+public class FleetHttpServer implements AutoCloseable {
+
+	private final AirLockFleet fleet;
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	public FleetHttpServer(AirLockFleet fleet, int port) throws IOException {
+		this(fleet, port, 2 * Runtime.getRuntime().availableProcessors());
+	}
+
+	public FleetHttpServer(AirLockFleet fleet, int port, int threads) throws IOException {
+		if (fleet == null) throw new IllegalArgumentException("Fleet must not be null.");
+		this.fleet = fleet;
+		AtomicInteger counter = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "airlock-http-" + counter.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		});
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+		server.setExecutor(executor);
+		server.createContext("/airlocks", this::handle);
+		server.start();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			String[] path = exchange.getRequestURI().getPath().split("/");
+			String method = exchange.getRequestMethod();
+			// path[0] is empty and path[1] is "airlocks"
+			if (path.length == 2 && method.equals("GET")) {
+				list(exchange);
+			} else if (path.length == 3 && method.equals("GET")) {
+				show(exchange, path[2]);
+			} else if (path.length == 4 && method.equals("POST")) {
+				command(exchange, path[2], path[3]);
+			} else if (path.length >= 2 && path.length <= 4) {
+				error(exchange, 405, "Method not allowed.");
+			} else {
+				error(exchange, 404, "No such resource.");
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void list(HttpExchange exchange) throws IOException {
+		String query = exchange.getRequestURI().getRawQuery();
+		String sealed = parameter(query, "sealed");
+		String mode = parameter(query, "mode");
+		JsonWriter json = begin(exchange, 200);
+		json.beginArray();
+		for (String id : fleet.ids()) {
+			IAirLock airLock = fleet.get(id);
+			if (airLock == null) continue;
+			if (sealed != null && airLock.isSealed() != Boolean.parseBoolean(sealed)) continue;
+			if (mode != null && airLock.isInAutoMode() != mode.equalsIgnoreCase("AUTO")) continue;
+			status(json, id, airLock);
+		}
+		json.endArray();
+		json.flush();
+	}
+
+	private void show(HttpExchange exchange, String id) throws IOException {
+		IAirLock airLock = fleet.get(id);
+		if (airLock == null) {
+			error(exchange, 404, "Unknown airlock.");
+			return;
+		}
+		JsonWriter json = begin(exchange, 200);
+		status(json, id, airLock);
+		json.flush();
+	}
+
+	private void command(HttpExchange exchange, String id, String code) throws IOException {
+		if (fleet.get(id) == null) {
+			error(exchange, 404, "Unknown airlock.");
+			return;
+		}
+		int opcode = ControlProtocol.opcodeOf(code);
+		if (opcode < 0) {
+			error(exchange, 400, "Unknown command.");
+			return;
+		}
+		double pressure = 0.0;
+		if (ControlProtocol.hasPressure(opcode)) {
+			try {
+				pressure = Double.parseDouble(parameter(exchange.getRequestURI().getRawQuery(), "pressure"));
+			} catch (NullPointerException | NumberFormatException e) {
+				error(exchange, 400, "Command needs a numeric pressure parameter.");
+				return;
+			}
+		}
+		double value = pressure;
+		IAirLock[] target = new IAirLock[1];
+		AirLockResult result;
+		try {
+			result = fleet.submit(id, airLock -> {
+				target[0] = airLock;
+				return ControlProtocol.run(airLock, opcode, value);
+			}).get();
+		} catch (FleetException e) {
+			error(exchange, 404, "Unknown airlock.");
+			return;
+		} catch (ExecutionException e) {
+			error(exchange, 503, "The fleet could not run the command.");
+			return;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			error(exchange, 503, "The fleet could not run the command.");
+			return;
+		}
+		JsonWriter json = begin(exchange, result.isSuccess() ? 200 : 409);
+		json.beginObject()
+			.name("command").value(ControlProtocol.CODES[opcode])
+			.name("result").value(result.name())
+			.name("message").value(result.getMessage())
+			.name("airlock");
+		status(json, id, target[0]);
+		json.endObject();
+		json.flush();
+	}
+
+	private static void status(JsonWriter json, String id, IAirLock airLock) throws IOException {
+		json.beginObject()
+			.name("id").value(id)
+			.name("outerDoor").value(airLock.isOuterDoorOpen() ? "OPEN" : "CLOSED")
+			.name("innerDoor").value(airLock.isInnerDoorOpen() ? "OPEN" : "CLOSED")
+			.name("sealed").value(airLock.isSealed())
+			.name("mode").value(airLock.isInAutoMode() ? "AUTO" : "MANUAL")
+			.name("environmentPressure").value(airLock.getEnvironmentPressure())
+			.name("lockPressure").value(airLock.getLockPressure())
+			.name("cabinPressure").value(airLock.getCabinPressure())
+			.endObject();
+	}
+
+	private static void error(HttpExchange exchange, int code, String message) throws IOException {
+		JsonWriter json = begin(exchange, code);
+		json.beginObject().name("error").value(message).endObject();
+		json.flush();
+	}
+
+	private static JsonWriter begin(HttpExchange exchange, int code) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(code, 0);
+		return new JsonWriter(new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 8192));
+	}
+
+	// Value of a query parameter, or null. Values are not URL-decoded; none of
+	// ours need it.
+	private static String parameter(String query, String name) {
+		if (query == null) return null;
+		int start = 0;
+		while (start <= query.length()) {
+			int end = query.indexOf('&', start);
+			if (end < 0) end = query.length();
+			int equals = query.indexOf('=', start);
+			if (equals > start && equals < end && query.regionMatches(start, name, 0, name.length()) && equals - start == name.length()) {
+				return query.substring(equals + 1, end);
+			}
+			start = end + 1;
+		}
+		return null;
+	}
+}
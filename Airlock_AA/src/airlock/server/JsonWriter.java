@@ -0,0 +1,134 @@
+package airlock.server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/*
+ * Minimal streaming JSON writer. Values go straight to the underlying Writer
+ * as they are produced, so a large document never exists as one String.
+ * Commas are tracked per nesting level; callers are trusted to pair begin and
+ * end calls and to give every object member a name.
+ */
+public class JsonWriter {
+
+	private final Writer out;
+	private boolean[] hasMembers = new boolean[8];
+	private int depth;
+	private boolean afterName;
+
+	public JsonWriter(Writer out) {
+		this.out = out;
+	}
+
+	public JsonWriter beginObject() throws IOException {
+		return open('{');
+	}
+
+	public JsonWriter endObject() throws IOException {
+		return close('}');
+	}
+
+	public JsonWriter beginArray() throws IOException {
+		return open('[');
+	}
+
+	public JsonWriter endArray() throws IOException {
+		return close(']');
+	}
+
+	public JsonWriter name(String name) throws IOException {
+		separate();
+		string(name);
+		out.write(':');
+		afterName = true;
+		return this;
+	}
+
+	public JsonWriter value(String value) throws IOException {
+		separate();
+		if (value == null) out.write("null");
+		else string(value);
+		return this;
+	}
+
+	public JsonWriter value(boolean value) throws IOException {
+		separate();
+		out.write(value ? "true" : "false");
+		return this;
+	}
+
+	public JsonWriter value(long value) throws IOException {
+		separate();
+		out.write(Long.toString(value));
+		return this;
+	}
+
+	public JsonWriter value(double value) throws IOException {
+		separate();
+		if (Double.isNaN(value) || Double.isInfinite(value)) out.write("null");
+		else out.write(Double.toString(value));
+		return this;
+	}
+
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	private JsonWriter open(char bracket) throws IOException {
+		separate();
+		out.write(bracket);
+		if (++depth == hasMembers.length) hasMembers = Arrays.copyOf(hasMembers, depth * 2);
+		hasMembers[depth] = false;
+		return this;
+	}
+
+	private JsonWriter close(char bracket) throws IOException {
+		depth--;
+		out.write(bracket);
+		return this;
+	}
+
+	private void separate() throws IOException {
+		if (afterName) {
+			afterName = false;
+			return;
+		}
+		if (hasMembers[depth]) out.write(',');
+		hasMembers[depth] = true;
+	}
+
+	private void string(String value) throws IOException {
+		out.write('"');
+		int start = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= 0x20 && c != '"' && c != '\\') continue;
+			out.write(value, start, i - start);
+			switch (c) {
+				case '"' :
+					out.write("\\\"");
+					break;
+				case '\\' :
+					out.write("\\\\");
+					break;
+				case '\n' :
+					out.write("\\n");
+					break;
+				case '\r' :
+					out.write("\\r");
+					break;
+				case '\t' :
+					out.write("\\t");
+					break;
+				default :
+					out.write("\\u00");
+					out.write(Character.forDigit(c >> 4, 16));
+					out.write(Character.forDigit(c & 0xF, 16));
+			}
+			start = i + 1;
+		}
+		out.write(value, start, value.length() - start);
+		out.write('"');
+	}
+}
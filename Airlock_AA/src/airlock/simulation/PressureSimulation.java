@@ -0,0 +1,131 @@
+package airlock.simulation;
+
+import java.util.Arrays;
+
+import airlock.entities.IPressureSensor;
+import airlock.exceptions.PressureException;
+
+/*
+ * Time-stepped pressure model for a fleet of chambers. Every chamber has a
+ * volume and a pump and vent flow; each tick moves its pressure towards its
+ * target by at most flow / volume * dt, so equalisation takes a realistic time.
+ *
+ * State is kept in flat primitive arrays and step() is a branch-free loop over
+ * them, which C2 auto-vectorises. Not thread-safe: step and mutate from one
+ * thread.
+ */
+public class PressureSimulation {
+
+	private double[] pressure;
+	private double[] target;
+	private double[] riseRate; // bar per second while pumping up
+	private double[] fallRate; // bar per second while venting
+	private int size;
+
+	public PressureSimulation() {
+		this(16);
+	}
+
+	public PressureSimulation(int initialCapacity) {
+		int capacity = Math.max(1, initialCapacity);
+		pressure = new double[capacity];
+		target = new double[capacity];
+		riseRate = new double[capacity];
+		fallRate = new double[capacity];
+	}
+
+	/*
+	 * Adds a chamber and returns its index. Flows are in bar * m^3 per second
+	 * and the volume in m^3, so flow / volume is the rate of pressure change.
+	 */
+	public int addChamber(double volume, double pumpFlow, double ventFlow, double initialPressure) {
+		if (volume <= 0.0 || pumpFlow <= 0.0 || ventFlow <= 0.0) {
+			throw new IllegalArgumentException("Chamber volume and flows must be positive.");
+		}
+		if (initialPressure < 0.0) throw new IllegalArgumentException("Initial pressure cannot be negative.");
+		if (size == pressure.length) grow();
+		int index = size++;
+		pressure[index] = initialPressure;
+		target[index] = initialPressure;
+		riseRate[index] = pumpFlow / volume;
+		fallRate[index] = ventFlow / volume;
+		return index;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double getPressure(int chamber) {
+		return pressure[checkIndex(chamber)];
+	}
+
+	public double getTarget(int chamber) {
+		return target[checkIndex(chamber)];
+	}
+
+	public void setTarget(int chamber, double newTarget) throws PressureException {
+		if (newTarget < 0.0) throw new PressureException("Cannot set negative pressure");
+		target[checkIndex(chamber)] = newTarget;
+	}
+
+	public boolean isSettled(int chamber, double tolerance) {
+		return Math.abs(target[checkIndex(chamber)] - pressure[chamber]) <= tolerance;
+	}
+
+	// Seconds the chamber still needs to reach its target at full flow.
+	public double timeToSettle(int chamber) {
+		double difference = target[checkIndex(chamber)] - pressure[chamber];
+		return difference >= 0.0 ? difference / riseRate[chamber] : -difference / fallRate[chamber];
+	}
+
+	/*
+	 * Advances every chamber by dt seconds.
+	 */
+	public void step(double dt) {
+		double[] p = pressure;
+		double[] t = target;
+		double[] up = riseRate;
+		double[] down = fallRate;
+		int n = size;
+		for (int i = 0; i < n; i++) {
+			double difference = t[i] - p[i];
+			p[i] += Math.max(-down[i] * dt, Math.min(up[i] * dt, difference));
+		}
+	}
+
+	/*
+	 * Sensor view of one chamber. Reads return the simulated pressure; writes
+	 * set the chamber's target, as commanding the pump would, and the pressure
+	 * only gets there as the simulation is stepped.
+	 */
+	public IPressureSensor sensor(int chamber) {
+		checkIndex(chamber);
+		return new IPressureSensor() {
+			public double getPressure() {
+				return pressure[chamber];
+			}
+
+			public void setPressure(double newPressure) throws PressureException {
+				setTarget(chamber, newPressure);
+			}
+
+			public String toString() {
+				return String.format("SimulatedSensor: pressure: %3.1f bar", pressure[chamber]);
+			}
+		};
+	}
+
+	private int checkIndex(int chamber) {
+		if (chamber < 0 || chamber >= size) throw new IndexOutOfBoundsException("No chamber " + chamber);
+		return chamber;
+	}
+
+	private void grow() {
+		int capacity = pressure.length * 2;
+		pressure = Arrays.copyOf(pressure, capacity);
+		target = Arrays.copyOf(target, capacity);
+		riseRate = Arrays.copyOf(riseRate, capacity);
+		fallRate = Arrays.copyOf(fallRate, capacity);
+	}
+}
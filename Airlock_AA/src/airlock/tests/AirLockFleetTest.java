@@ -0,0 +1,165 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockCommand;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IDoor;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.FleetException;
+import airlock.exceptions.PressureException;
+import airlock.fleet.AirLockFleet;
+
+public class AirLockFleetTest {
+
+    private static AirLock newAirLock() throws DoorException, PressureException {
+        IPressureSensor enviromentSensor = new PressureSensor(10);
+        IPressureSensor lockSensor = new PressureSensor(10);
+        IPressureSensor cabinSensor = new PressureSensor(10);
+        IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+        IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        return new AirLock(outerDoor, innerDoor, lockSensor);
+    }
+
+    @Test
+    @DisplayName("Ensures registering the same airlock id twice throws a FleetException.")
+    void testRegisterDuplicateIdThrowsException() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(2)) {
+            fleet.register("A1", newAirLock());
+            assertThrows(FleetException.class, () -> fleet.register("A1", newAirLock()),
+            "Expected register to throw a FleetException due to a duplicate id. Exception not thrown.");
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures submitting to an unknown airlock id throws a FleetException.")
+    void testSubmitUnknownIdThrowsException() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(2)) {
+            assertThrows(FleetException.class, () -> fleet.submit("missing", AirLockCommand.OPEN_OUTER_DOOR),
+            "Expected submit to throw a FleetException due to an unknown id. Exception not thrown.");
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures commands submitted for one airlock run in submission order.")
+    void testCommandsRunInOrderPerAirLock() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(4)) {
+            AirLock airlock = newAirLock();
+            fleet.register("A1", airlock);
+
+            fleet.submit("A1", AirLockCommand.TOGGLE_OPERATION_MODE);
+            fleet.submit("A1", AirLockCommand.OPEN_INNER_DOOR);
+            fleet.submit("A1", AirLockCommand.OPEN_OUTER_DOOR).get();
+
+            assertTrue(airlock.isInAutoMode());
+            assertTrue(airlock.isOuterDoorOpen());
+            assertTrue(airlock.isInnerDoorClosed());
+            assertEquals(3, fleet.getCommandCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a rejected command completes its future exceptionally with the AirLockException.")
+    void testRejectedCommandCompletesExceptionally() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            fleet.register("A1", newAirLock());
+
+            CompletableFuture<Void> result = fleet.submit("A1", AirLockCommand.CLOSE_OUTER_DOOR);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get());
+            assertInstanceOf(AirLockException.class, e.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures submitting to a closed fleet returns a failed future instead of throwing.")
+    void testSubmitAfterCloseFailsFuture() throws Exception {
+        AirLockFleet fleet = new AirLockFleet(1);
+        fleet.register("A1", newAirLock());
+        fleet.close();
+
+        CompletableFuture<Void> result = fleet.submit("A1", AirLockCommand.TOGGLE_OPERATION_MODE);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Ensures command codes parse the same whatever the default locale.")
+    void testFromCodeIgnoresDefaultLocale() {
+        Locale original = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            assertEquals(AirLockCommand.EQUALISE_WITH_CABIN, AirLockCommand.fromCode("ei"));
+            assertEquals(AirLockCommand.OPEN_INNER_DOOR, AirLockCommand.fromCode("oi"));
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures commands for many airlocks are all executed across the shards.")
+    void testManyAirLocksAllExecuted() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(4)) {
+            CompletableFuture<?>[] results = new CompletableFuture<?>[100];
+            for (int i = 0; i < results.length; i++) {
+                fleet.register("A" + i, newAirLock());
+                results[i] = fleet.submit("A" + i, AirLockCommand.OPEN_OUTER_DOOR);
+            }
+            CompletableFuture.allOf(results).get();
+
+            for (String id : fleet.ids()) {
+                assertTrue(fleet.get(id).isOuterDoorOpen());
+            }
+            assertEquals(100, fleet.getCommandCount());
+            assertTrue(fleet.getCommandsPerSecond() > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures reading the command rate does not reset it for the next reader.")
+    void testCommandRateReadIsNotDestructive() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            fleet.register("A1", newAirLock());
+            for (int i = 0; i < 100; i++) {
+                fleet.submit("A1", AirLockCommand.TOGGLE_OPERATION_MODE);
+            }
+            fleet.submit("A1", AirLockCommand.TOGGLE_OPERATION_MODE).get();
+
+            double first = fleet.getCommandsPerSecond();
+            double second = fleet.getCommandsPerSecond();
+            assertTrue(first > 0);
+            assertTrue(second > 0, "a second reader should still see the commands.");
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a task that throws an Error still completes its future, and the airlock's worker keeps running.")
+    void testErrorCompletesFuture() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            fleet.register("A1", newAirLock());
+
+            CompletableFuture<Object> failed = fleet.submit("A1", airLock -> {
+                throw new AssertionError("task failed on purpose");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, e.getCause());
+
+            fleet.submit("A1", AirLockCommand.TOGGLE_OPERATION_MODE).get(5, TimeUnit.SECONDS);
+            assertTrue(fleet.get("A1").isInAutoMode());
+            assertEquals(2, fleet.getCommandCount());
+        }
+    }
+}
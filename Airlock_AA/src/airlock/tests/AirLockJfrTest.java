@@ -0,0 +1,107 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockResult;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.PressureSensor;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class AirLockJfrTest {
+
+    @TempDir
+    Path directory;
+
+    private List<RecordedEvent> record(Recording recording, Runnable work) throws Exception {
+        recording.start();
+        work.run();
+        recording.stop();
+        Path file = directory.resolve("airlock.jfr");
+        recording.dump(file);
+        List<RecordedEvent> events = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().startsWith("airlock.")) events.add(event);
+        }
+        return events;
+    }
+
+    private AirLock createAirLock() throws Exception {
+        PressureSensor enviromentSensor = new PressureSensor(10);
+        PressureSensor lockSensor = new PressureSensor(1);
+        PressureSensor cabinSensor = new PressureSensor(13);
+        Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+        Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        return new AirLock(outerDoor, innerDoor, lockSensor);
+    }
+
+    @Test
+    @DisplayName("Ensures door actuation, equalisation, mode change and rejection events reach a recording.")
+    void testEventsAreRecorded() {
+        try (Recording recording = new Recording()) {
+            recording.enable("airlock.DoorActuation");
+            recording.enable("airlock.Equalisation");
+            recording.enable("airlock.ModeChange");
+            recording.enable("airlock.RejectedCommand");
+            AirLock airlock = createAirLock();
+
+            List<RecordedEvent> events = record(recording, () -> {
+                airlock.tryToggleOperationMode();
+                airlock.tryOpenInnerDoor();
+                airlock.tryOpenInnerDoor();
+            });
+
+            List<String> names = new ArrayList<>();
+            for (RecordedEvent event : events) {
+                names.add(event.getEventType().getName());
+            }
+            assertTrue(names.contains("airlock.ModeChange"));
+            assertTrue(names.contains("airlock.DoorActuation"));
+
+            RecordedEvent equalisation = events.stream().filter(e -> e.getEventType().getName().equals("airlock.Equalisation")).findFirst().orElseThrow();
+            assertEquals(1.0, equalisation.getDouble("before"));
+            assertEquals(13.0, equalisation.getDouble("after"));
+
+            RecordedEvent rejected = events.stream().filter(e -> e.getEventType().getName().equals("airlock.RejectedCommand")).findFirst().orElseThrow();
+            assertEquals("OI", rejected.getString("command"));
+            assertEquals(AirLockResult.DOOR_ALREADY_OPEN.name(), rejected.getString("reason"));
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures disabled airlock events are left out of a recording.")
+    void testDisabledEventsAreNotRecorded() {
+        try (Recording recording = new Recording()) {
+            recording.enable("airlock.ModeChange");
+            recording.disable("airlock.DoorActuation");
+            AirLock airlock = createAirLock();
+
+            List<RecordedEvent> events = record(recording, () -> {
+                airlock.tryToggleOperationMode();
+                airlock.tryOpenInnerDoor();
+            });
+
+            assertFalse(events.isEmpty());
+            for (RecordedEvent event : events) {
+                assertNotEquals("airlock.DoorActuation", event.getEventType().getName());
+            }
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockEvent;
+import airlock.entities.AirLockListener;
+import airlock.entities.CycleScript;
+import airlock.entities.Door;
+import airlock.entities.DoorEvent;
+import airlock.entities.DoorState;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+public class AirLockListenerTest {
+
+    @Test
+    @DisplayName("Ensures an AUTO pass-through emits mode, door, seal and equalisation events in order.")
+    void testAutoCycleEvents() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(1);
+            IPressureSensor cabinSensor = new PressureSensor(13);
+            Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            List<AirLockEvent> events = new ArrayList<>();
+            airlock.addListener((source, event) -> events.add(event));
+
+            airlock.toggleOperationMode();
+            airlock.openInnerDoor();
+            airlock.openOuterDoor();
+
+            // Events follow the ops as applied: AUTO equalises before opening,
+            // and the auto-close seals the lock before the outer door unseals it.
+            assertEquals(List.of(
+                AirLockEvent.MODE_TOGGLED,
+                AirLockEvent.EQUALISED, AirLockEvent.INNER_DOOR_OPENED, AirLockEvent.UNSEALED,
+                AirLockEvent.INNER_DOOR_CLOSED, AirLockEvent.SEALED, AirLockEvent.EQUALISED,
+                AirLockEvent.OUTER_DOOR_OPENED, AirLockEvent.UNSEALED), events);
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a door cycled within one script is reported, not just the net change.")
+    void testScriptCycleEvents() throws AirLockException {
+        try {
+            IPressureSensor lockSensor = new PressureSensor(10);
+            Door outerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            List<AirLockEvent> events = new ArrayList<>();
+            airlock.addListener((source, event) -> events.add(event));
+            airlock.executeScript(CycleScript.compile("OI, CI"));
+
+            assertEquals(List.of(
+                AirLockEvent.INNER_DOOR_OPENED, AirLockEvent.UNSEALED,
+                AirLockEvent.INNER_DOOR_CLOSED, AirLockEvent.SEALED, AirLockEvent.EQUALISED), events);
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a rejected command emits no events and a removed listener is no longer called.")
+    void testNoEventsOnRejectionOrAfterRemoval() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            List<AirLockEvent> events = new ArrayList<>();
+            AirLockListener listener = (source, event) -> events.add(event);
+            airlock.addListener(listener);
+
+            airlock.tryCloseOuterDoor();
+            assertTrue(events.isEmpty());
+
+            airlock.removeListener(listener);
+            airlock.openOuterDoor();
+            assertTrue(events.isEmpty());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a listener sees the published state and may issue further commands.")
+    void testListenerSeesPublishedState() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            airlock.addListener((source, event) -> {
+                if (event == AirLockEvent.OUTER_DOOR_OPENED) {
+                    assertTrue(source.isOuterDoorOpen());
+                    source.tryCloseOuterDoor();
+                }
+            });
+            airlock.openOuterDoor();
+
+            assertTrue(airlock.isSealed());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a door notifies its listeners when it opens and closes.")
+    void testDoorEvents() throws DoorException, PressureException {
+        Door door = new Door(new PressureSensor(10), new PressureSensor(10), DoorState.CLOSED);
+        List<DoorEvent> events = new ArrayList<>();
+        door.addListener((source, event) -> events.add(event));
+
+        door.open();
+        door.close();
+        assertThrows(DoorException.class, () -> door.close());
+
+        assertEquals(List.of(DoorEvent.OPENED, DoorEvent.CLOSED), events);
+    }
+}
@@ -0,0 +1,192 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+import airlock.entities.CycleScript;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.PressureException;
+import airlock.metrics.AirLockMetrics;
+import airlock.metrics.LatencyHistogram;
+import airlock.metrics.MetricsEndpoint;
+
+public class AirLockMetricsTest {
+
+    private AirLock createAirLock(AirLockMetrics metrics) throws Exception {
+        PressureSensor enviromentSensor = new PressureSensor(10);
+        PressureSensor lockSensor = new PressureSensor(1);
+        PressureSensor cabinSensor = new PressureSensor(13);
+        Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+        Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+        airlock.attachMetrics(metrics);
+        return airlock;
+    }
+
+    @Test
+    @DisplayName("Ensures histogram percentiles stay within the bucket resolution of the recorded values.")
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i * 100L);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(1_000_000L, histogram.getMax());
+        assertEquals(500_050.0, histogram.getMean());
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 * 17 / 16, "median was " + median);
+        long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+        assertEquals(1_000_000L, histogram.getValueAtPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    @DisplayName("Ensures commands are timed and rejections are counted by reason.")
+    void testCommandsAndRejectionsAreCounted() {
+        try {
+            AirLockMetrics metrics = new AirLockMetrics();
+            AirLock airlock = createAirLock(metrics);
+
+            assertEquals(AirLockResult.OK, airlock.tryEqualiseWithEnvironmentPressure());
+            assertEquals(AirLockResult.OK, airlock.tryOpenOuterDoor());
+            assertEquals(AirLockResult.DOOR_ALREADY_OPEN, airlock.tryOpenOuterDoor());
+            assertEquals(AirLockResult.NOT_SEALED, airlock.tryEqualiseWithCabinPressure());
+            assertEquals(AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT, airlock.tryOpenInnerDoor());
+
+            assertEquals(5, metrics.getCommandCount());
+            assertEquals(2, metrics.getLatency(AirLockCommand.OPEN_OUTER_DOOR).getCount());
+            assertEquals(2, metrics.getCount("OX"));
+            assertEquals(3, metrics.getRejectionCount());
+            assertEquals(1, metrics.getRejections(AirLockResult.DOOR_ALREADY_OPEN));
+            assertEquals(1, metrics.getRejections("not_sealed"));
+            assertEquals(1, metrics.getRejections(AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT));
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures script steps are timed per command and a rejected script counts its failing step.")
+    void testScriptStepsAreCounted() {
+        try {
+            AirLockMetrics metrics = new AirLockMetrics();
+            AirLock airlock = createAirLock(metrics);
+
+            assertTrue(airlock.runScript(CycleScript.compile("EX, OX, CX")).isSuccess());
+            assertFalse(airlock.runScript(CycleScript.compile("CX")).isSuccess());
+
+            assertEquals(4, metrics.getCommandCount());
+            assertEquals(1, metrics.getLatency(AirLockCommand.OPEN_OUTER_DOOR).getCount());
+            assertEquals(2, metrics.getCount("CX"));
+            assertEquals(1, metrics.getRejectionCount());
+            assertEquals(1, metrics.getRejections(AirLockResult.DOOR_ALREADY_CLOSED));
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures command counts stay exact when latency is sampled.")
+    void testSampledLatencyKeepsExactCounts() {
+        try {
+            AirLockMetrics metrics = new AirLockMetrics(4);
+            AirLock airlock = createAirLock(metrics);
+            for (int i = 0; i < 1000; i++) {
+                airlock.tryToggleOperationMode();
+            }
+
+            assertEquals(1000, metrics.getCount("TM"));
+            long timed = metrics.getLatency(AirLockCommand.TOGGLE_OPERATION_MODE).getCount();
+            assertTrue(timed > 0 && timed < 1000, "timed " + timed);
+            assertThrows(IllegalArgumentException.class, () -> new AirLockMetrics(3));
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a negative pressure reading is counted as a rejection by the sensor.")
+    void testNegativePressureIsCounted() {
+        AirLockMetrics metrics = new AirLockMetrics();
+        try {
+            PressureSensor sensor = new PressureSensor(1.0);
+            sensor.attachMetrics(metrics);
+            sensor.setPressure(-1.0);
+            fail("A PressureException should have been thrown.");
+        } catch (PressureException e) {
+            assertEquals(1, metrics.getRejections(AirLockResult.NEGATIVE_PRESSURE));
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures metrics are readable through the platform MBean server.")
+    void testMBeanRegistration() {
+        try {
+            AirLockMetrics metrics = new AirLockMetrics();
+            AirLock airlock = createAirLock(metrics);
+            airlock.tryCloseOuterDoor();
+
+            ObjectName name = metrics.register("metrics-test");
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                assertEquals(1L, server.getAttribute(name, "CommandCount"));
+                assertEquals(1L, server.getAttribute(name, "RejectionCount"));
+                assertEquals(1L, server.invoke(name, "getRejections", new Object[] {"DOOR_ALREADY_CLOSED"}, new String[] {String.class.getName()}));
+            } finally {
+                server.unregisterMBean(name);
+            }
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures the endpoint serves latency summaries and rejection counters as Prometheus text.")
+    void testPrometheusEndpoint() {
+        try {
+            AirLockMetrics metrics = new AirLockMetrics();
+            AirLock airlock = createAirLock(metrics);
+            airlock.tryToggleOperationMode();
+            airlock.tryCloseInnerDoor();
+
+            try (MetricsEndpoint endpoint = new MetricsEndpoint(metrics, 0)) {
+                String text;
+                try (InputStream in = new URL("http://localhost:" + endpoint.getPort() + "/metrics").openStream()) {
+                    text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+                assertTrue(text.contains("# TYPE airlock_command_latency_seconds summary"));
+                assertTrue(text.contains("airlock_command_latency_seconds_count{command=\"TM\"} 1"));
+                assertTrue(text.contains("airlock_command_latency_seconds{command=\"CI\",quantile=\"0.99\"}"));
+                assertTrue(text.contains("airlock_rejections_total{reason=\"door_already_closed\"} 1"));
+                assertTrue(text.contains("airlock_rejections_total{reason=\"negative_pressure\"} 0"));
+            }
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockProfile;
+import airlock.entities.AirLockResult;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.OperationMode;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+class AirLockProfileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Ensures profiles load from a file, in order, with missing settings taken from the default profile.")
+    void testLoadProfiles() {
+        try {
+            Path file = directory.resolve("profiles.properties");
+            Files.writeString(file, String.join("\n",
+                "crew.defaultMode = AUTO",
+                "cargo.tolerance = 0.01",
+                "cargo.maxPressure = 2.0",
+                "cargo.autoModeAllowed = false"));
+
+            Map<String, AirLockProfile> profiles = AirLockProfile.load(file);
+            assertArrayEquals(new String[] {"crew", "cargo"}, profiles.keySet().toArray());
+
+            AirLockProfile crew = profiles.get("crew");
+            assertEquals(OperationMode.AUTO, crew.getDefaultMode());
+            assertEquals(Door.TOLERANCE, crew.getTolerance());
+
+            AirLockProfile cargo = profiles.get("cargo");
+            assertEquals(10_000, cargo.getToleranceMicroBar());
+            assertTrue(cargo.isInRange(2.0));
+            assertFalse(cargo.isInRange(2.000001));
+            assertFalse(cargo.isAutoModeAllowed());
+
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures invalid settings and unknown keys are rejected when profiles are loaded.")
+    void testInvalidProfilesAreRejected() {
+        String[][] invalid = {
+            {"cargo.tolerance", "-0.1"},
+            {"cargo.tolerance", "lots"},
+            {"cargo.maxPressure", "-1"},
+            {"cargo.defaultMode", "SIDEWAYS"},
+            {"cargo.autoModeAllowed", "maybe"},
+            {"cargo.tolerence", "0.01"},
+            {"tolerance", "0.01"},
+        };
+        for (String[] setting : invalid) {
+            Properties properties = new Properties();
+            properties.setProperty(setting[0], setting[1]);
+            assertThrows(IllegalArgumentException.class, () -> AirLockProfile.fromProperties(properties),
+                setting[0] + " = " + setting[1] + " should be rejected.");
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> new AirLockProfile("cargo", 0.001, 0.0, 1.0, OperationMode.AUTO, false));
+    }
+
+    @Test
+    @DisplayName("Ensures doors with different profiles apply their own tolerance to the same pressures.")
+    void testToleranceIsPerDoor() {
+        try {
+            AirLockProfile loose = new AirLockProfile("loose", 0.01, 0.0, 20.0, OperationMode.MANUAL, true);
+            Door strict = new Door(new PressureSensor(10.0), new PressureSensor(10.005), DoorState.CLOSED);
+            Door relaxed = new Door(new PressureSensor(10.0), new PressureSensor(10.005), DoorState.CLOSED, loose);
+
+            assertThrows(DoorException.class, () -> strict.open());
+            relaxed.open();
+            assertTrue(relaxed.isOpen());
+            assertSame(loose, relaxed.getProfile());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures an airlock enforces its profile's pressure range and AUTO mode policy.")
+    void testAirLockEnforcesProfile() {
+        try {
+            AirLockProfile cargo = new AirLockProfile("cargo", 0.001, 0.0, 2.0, OperationMode.MANUAL, false);
+            PressureSensor lockSensor = new PressureSensor(1.0);
+            Door outerDoor = new Door(new PressureSensor(0.5), lockSensor, DoorState.CLOSED, cargo);
+            Door innerDoor = new Door(new PressureSensor(1.0), lockSensor, DoorState.CLOSED, cargo);
+            AirLock airLock = new AirLock(outerDoor, innerDoor, lockSensor, cargo);
+
+            assertEquals(AirLockResult.PRESSURE_OUT_OF_RANGE, airLock.trySetEnvironmentPressure(2.5));
+            assertEquals(0.5, outerDoor.getExternalPressure());
+            assertEquals(AirLockResult.OK, airLock.trySetEnvironmentPressure(1.5));
+
+            assertFalse(airLock.canToggleOperationMode());
+            assertEquals(AirLockResult.AUTO_MODE_NOT_ALLOWED, airLock.tryToggleOperationMode());
+            assertFalse(airLock.isInAutoMode());
+
+            assertThrows(IllegalArgumentException.class,
+                () -> new AirLock(outerDoor, innerDoor, lockSensor, OperationMode.AUTO, cargo));
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures NaN and infinite pressures are out of range and are rejected by the airlock and the sensors.")
+    void testNonFinitePressuresAreRejected() {
+        try {
+            for (double pressure : new double[] {Double.NaN, Double.POSITIVE_INFINITY, 1e300}) {
+                assertFalse(AirLockProfile.DEFAULT.isInRange(pressure), pressure + " should be out of range.");
+            }
+
+            PressureSensor lockSensor = new PressureSensor(1.0);
+            Door outerDoor = new Door(new PressureSensor(1.0), lockSensor, DoorState.OPEN);
+            Door innerDoor = new Door(new PressureSensor(1.0), lockSensor, DoorState.OPEN);
+            AirLock airLock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            assertEquals(AirLockResult.PRESSURE_OUT_OF_RANGE, airLock.trySetEnvironmentPressure(Double.NaN));
+            assertEquals(AirLockResult.PRESSURE_OUT_OF_RANGE, airLock.trySetCabinPressure(Double.POSITIVE_INFINITY));
+            assertEquals(1.0, airLock.getEnvironmentPressure());
+            assertEquals(1.0, airLock.getLockPressure());
+            assertEquals(1.0, airLock.getCabinPressure());
+
+            assertThrows(PressureException.class, () -> lockSensor.setPressure(Double.NaN));
+            assertThrows(PressureException.class, () -> new PressureSensor(Double.POSITIVE_INFINITY));
+            assertEquals(1.0, lockSensor.getPressure());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package airlock.tests;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.concurrent.CountDownLatch;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -10,6 +12,9 @@ import airlock.entities.DoorState;
 import airlock.entities.IDoor;
 import airlock.entities.IPressureSensor;
 import airlock.entities.AirLock;
+import airlock.entities.AirLockResult;
+import airlock.entities.CycleScript;
+import airlock.entities.OperationMode;
 import airlock.entities.PressureSensor;
 import airlock.exceptions.AirLockException;
 import airlock.exceptions.DoorException;
@@ -873,4 +878,276 @@ public class AirLockTest {
             fail(e);
         }
     }
+
+    @Test
+    @DisplayName("Ensures that in AUTO mode concurrent openOuterDoor and openInnerDoor calls never leave both doors open.")
+    void testConcurrentOpenInAutoNeverOpensBothDoors() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+            airlock.toggleOperationMode(); // setting mode to auto.
+
+            CountDownLatch start = new CountDownLatch(1);
+            Thread outer = new Thread(() -> {
+                try {
+                    start.await();
+                    airlock.openOuterDoor();
+                } catch (AirLockException | InterruptedException e) {
+                    // losing the race is expected
+                }
+            });
+            Thread inner = new Thread(() -> {
+                try {
+                    start.await();
+                    airlock.openInnerDoor();
+                } catch (AirLockException | InterruptedException e) {
+                    // losing the race is expected
+                }
+            });
+            outer.start();
+            inner.start();
+            start.countDown();
+            outer.join();
+            inner.join();
+
+            assertFalse(airlock.isOuterDoorOpen() && airlock.isInnerDoorOpen());
+            assertFalse(outerDoor.isOpen() && innerDoor.isOpen());
+            assertEquals(outerDoor.isOpen(), airlock.isOuterDoorOpen());
+            assertEquals(innerDoor.isOpen(), airlock.isInnerDoorOpen());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures the throwing commands wait for a running command instead of failing, while the try variants report BUSY.")
+    void testBlockingCommandsWaitForRunningCommand() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PressureSensor lockPressure = new PressureSensor(10);
+        IPressureSensor lockSensor = new IPressureSensor() {
+            public double getPressure() {
+                return lockPressure.getPressure();
+            }
+            public void setPressure(double newPressure) throws PressureException {
+                inside.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lockPressure.setPressure(newPressure);
+            }
+        };
+        IDoor outerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+        IDoor innerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+        AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+        Thread equalising = new Thread(() -> airlock.tryEqualiseWithCabinPressure());
+        equalising.start();
+        inside.await();
+        assertEquals(AirLockResult.BUSY, airlock.tryToggleOperationMode());
+
+        AirLockException[] failure = new AirLockException[1];
+        Thread toggling = new Thread(() -> {
+            try {
+                airlock.toggleOperationMode();
+            } catch (AirLockException e) {
+                failure[0] = e;
+            }
+        });
+        toggling.start();
+        Thread.sleep(50);
+        assertTrue(toggling.isAlive(), "toggleOperationMode should wait while another command runs.");
+
+        release.countDown();
+        equalising.join();
+        toggling.join();
+        assertNull(failure[0]);
+        assertTrue(airlock.isInAutoMode());
+    }
+
+    @Test
+    @DisplayName("Ensures executeScript waits for a running command instead of failing, while runScript reports BUSY.")
+    void testExecuteScriptWaitsForRunningCommand() throws Exception {
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PressureSensor lockPressure = new PressureSensor(10);
+        IPressureSensor lockSensor = new IPressureSensor() {
+            public double getPressure() {
+                return lockPressure.getPressure();
+            }
+            public void setPressure(double newPressure) throws PressureException {
+                inside.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lockPressure.setPressure(newPressure);
+            }
+        };
+        IDoor outerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+        IDoor innerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+        AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+        CycleScript script = CycleScript.compile("TM");
+
+        Thread equalising = new Thread(() -> airlock.tryEqualiseWithCabinPressure());
+        equalising.start();
+        inside.await();
+        assertEquals(AirLockResult.BUSY, airlock.runScript(script).getResult());
+
+        AirLockException[] failure = new AirLockException[1];
+        Thread scripting = new Thread(() -> {
+            try {
+                airlock.executeScript(script);
+            } catch (AirLockException e) {
+                failure[0] = e;
+            }
+        });
+        scripting.start();
+        Thread.sleep(50);
+        assertTrue(scripting.isAlive(), "executeScript should wait while another command runs.");
+
+        release.countDown();
+        equalising.join();
+        scripting.join();
+        assertNull(failure[0]);
+        assertTrue(airlock.isInAutoMode());
+    }
+
+    @Test
+    @DisplayName("Ensures tryOpenOuterDoor returns DOOR_ALREADY_OPEN rather than throwing when the outer door is already open.")
+    void testTryOpenOuterDoorReturnsAlreadyOpen() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.OPEN);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            assertFalse(airlock.canOpenOuterDoor());
+            assertEquals(AirLockResult.DOOR_ALREADY_OPEN, airlock.tryOpenOuterDoor());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures that in MANUAL mode tryOpenInnerDoor reports an unbalanced pressure and leaves the airlock sealed.")
+    void testTryOpenInnerDoorManualReturnsPressureDifference() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(1);
+            IPressureSensor cabinSensor = new PressureSensor(20);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            assertFalse(airlock.canOpenInnerDoor());
+            assertEquals(AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT, airlock.tryOpenInnerDoor());
+            assertTrue(airlock.isSealed());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures tryToggleOperationMode returns NOT_SEALED when a door is open.")
+    void testTryToggleOperationModeReturnsNotSealed() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.OPEN);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            assertFalse(airlock.canToggleOperationMode());
+            assertEquals(AirLockResult.NOT_SEALED, airlock.tryToggleOperationMode());
+            assertTrue(airlock.isInManualMode());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures that in AUTO mode canOpenOuterDoor and tryOpenOuterDoor succeed after equalising pressure.")
+    void testTryOpenOuterDoorAutoEqualises() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(1);
+            IPressureSensor cabinSensor = new PressureSensor(20);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            assertEquals(AirLockResult.OK, airlock.tryToggleOperationMode());
+            assertTrue(airlock.canOpenOuterDoor());
+            assertEquals(AirLockResult.OK, airlock.tryOpenOuterDoor());
+            assertTrue(airlock.isOuterDoorOpen());
+            assertTrue(airlock.canCloseOuterDoor());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a new environment pressure spreads through open doors and negative pressures are rejected.")
+    void testSetEnvironmentPressureSpreadsThroughOpenDoors() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.OPEN);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            airlock.setEnvironmentPressure(12);
+            assertEquals(12, airlock.getEnvironmentPressure());
+            assertEquals(12, airlock.getLockPressure());
+            assertEquals(10, airlock.getCabinPressure());
+
+            airlock.setCabinPressure(8);
+            assertEquals(12, airlock.getLockPressure());
+            assertEquals(8, airlock.getCabinPressure());
+
+            assertEquals(AirLockResult.NEGATIVE_PRESSURE, airlock.trySetEnvironmentPressure(-1));
+            assertEquals(12, airlock.getEnvironmentPressure());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures an airlock cannot be constructed in AUTO mode with both doors open.")
+    void testAutoModeWithBothDoorsOpenIsRejected() {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.OPEN);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.OPEN);
+
+            assertThrows(DoorException.class, () -> new AirLock(outerDoor, innerDoor, lockSensor, OperationMode.AUTO));
+            assertTrue(new AirLock(outerDoor, innerDoor, lockSensor, OperationMode.MANUAL).isInManualMode());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
 }
@@ -0,0 +1,116 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IDoor;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+import airlock.fleet.AsyncAirLock;
+
+public class AsyncAirLockTest {
+
+    private static AirLock newAirLock() throws DoorException, PressureException {
+        IPressureSensor enviromentSensor = new PressureSensor(10);
+        IPressureSensor lockSensor = new PressureSensor(1);
+        IPressureSensor cabinSensor = new PressureSensor(13);
+        IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+        IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        return new AirLock(outerDoor, innerDoor, lockSensor);
+    }
+
+    @Test
+    @DisplayName("Ensures commands queued without waiting run in submission order.")
+    void testCommandsRunInOrder() throws Exception {
+        AirLock airlock = newAirLock();
+        AsyncAirLock async = new AsyncAirLock(airlock);
+
+        async.toggleOperationMode();
+        async.openInnerDoor();
+        async.openOuterDoor();
+        async.closeOuterDoor().get();
+
+        assertTrue(airlock.isInAutoMode());
+        assertTrue(airlock.isSealed());
+        assertEquals(13.0, airlock.lockSensor.getPressure());
+    }
+
+    @Test
+    @DisplayName("Ensures a rejected command completes its future exceptionally with the AirLockException.")
+    void testRejectedCommandCompletesExceptionally() throws Exception {
+        AsyncAirLock async = new AsyncAirLock(newAirLock());
+
+        CompletableFuture<Void> result = async.closeOuterDoor();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get());
+        assertInstanceOf(AirLockException.class, e.getCause());
+    }
+
+    @Test
+    @DisplayName("Ensures submit completes with the result code rather than an exception.")
+    void testSubmitReturnsResultCode() throws Exception {
+        AsyncAirLock async = new AsyncAirLock(newAirLock());
+
+        assertEquals(AirLockResult.DOOR_ALREADY_CLOSED, async.submit(AirLockCommand.CLOSE_INNER_DOOR).get());
+        assertEquals(AirLockResult.OK, async.submit(AirLockCommand.TOGGLE_OPERATION_MODE).get());
+    }
+
+    @Test
+    @DisplayName("Ensures thousands of queued commands across many airlocks all complete.")
+    void testManyInFlightCommands() throws Exception {
+        AsyncAirLock[] airlocks = new AsyncAirLock[200];
+        CompletableFuture<?>[] results = new CompletableFuture<?>[airlocks.length * 50];
+        for (int i = 0; i < airlocks.length; i++) {
+            airlocks[i] = new AsyncAirLock(newAirLock());
+        }
+        for (int n = 0; n < 50; n++) {
+            for (int i = 0; i < airlocks.length; i++) {
+                results[n * airlocks.length + i] = airlocks[i].submit(AirLockCommand.TOGGLE_OPERATION_MODE);
+            }
+        }
+        CompletableFuture.allOf(results).get();
+
+        for (AsyncAirLock async : airlocks) {
+            assertTrue(async.getAirLock().isInManualMode());
+            assertEquals(0, async.pendingCommands());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures commands fail instead of hanging when the executor rejects them, and run again once it accepts.")
+    void testRejectingExecutorFailsQueuedCommands() throws Exception {
+        AtomicBoolean rejecting = new AtomicBoolean(true);
+        Executor executor = task -> {
+            if (rejecting.get()) throw new RejectedExecutionException("shut down");
+            task.run();
+        };
+        AirLock airlock = newAirLock();
+        AsyncAirLock async = new AsyncAirLock(airlock, executor);
+
+        CompletableFuture<AirLockResult> rejected = async.submit(AirLockCommand.TOGGLE_OPERATION_MODE);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(0, async.pendingCommands());
+        assertTrue(airlock.isInManualMode());
+
+        rejecting.set(false);
+        assertEquals(AirLockResult.OK, async.submit(AirLockCommand.TOGGLE_OPERATION_MODE).get(5, TimeUnit.SECONDS));
+        assertTrue(airlock.isInAutoMode());
+    }
+}
@@ -0,0 +1,106 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import airlock.batch.BatchRunner;
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+class BatchRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    private final StringWriter out = new StringWriter();
+    private final StringWriter err = new StringWriter();
+
+    private AirLock airLock() throws DoorException, PressureException {
+        IPressureSensor lockSensor = new PressureSensor(1.0);
+        return new AirLock(
+            new Door(new PressureSensor(1.0), lockSensor, DoorState.CLOSED),
+            new Door(new PressureSensor(1.0), lockSensor, DoorState.CLOSED),
+            lockSensor);
+    }
+
+    private int run(String script, boolean quiet) throws IOException, DoorException, PressureException {
+        return BatchRunner.run(airLock(), new BufferedReader(new StringReader(script)), new PrintWriter(out, true), quiet);
+    }
+
+    @Test
+    @DisplayName("Ensures a batch of accepted commands prints OK for each line and reports no failures.")
+    void testAcceptedCommands() {
+        try {
+            assertEquals(0, run("# pass through\nOX\n\nCX\nsx 2.5\nQ\nOI\n", false));
+            assertEquals("2 OX OK\n4 CX OK\n5 SX OK\n3 commands, 0 failed\n", out.toString().replace("\r", ""));
+
+        } catch (IOException | DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures rejected and malformed commands are counted as failures and reported in quiet mode.")
+    void testRejectedAndMalformedCommands() {
+        try {
+            assertEquals(6, run("OX\nOX\nZZ\nSX\nSX lots\nSI NaN\nOI extra\n", true));
+            assertEquals("2 OX DOOR_ALREADY_OPEN\n3 ZZ UNRECOGNISED\n4 SX INVALID_PRESSURE\n"
+                + "5 SX INVALID_PRESSURE\n6 SI INVALID_PRESSURE\n7 OI UNRECOGNISED\n7 commands, 6 failed\n",
+                out.toString().replace("\r", ""));
+
+        } catch (IOException | DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures execute maps the outcome of a batch file to the process exit status.")
+    void testExitStatus() {
+        try {
+            Path good = Files.writeString(directory.resolve("good.txt"), "OX\nCX\n");
+            Path bad = Files.writeString(directory.resolve("bad.txt"), "CX\n");
+            PrintWriter o = new PrintWriter(out);
+            PrintWriter e = new PrintWriter(err);
+
+            assertEquals(BatchRunner.EXIT_OK, BatchRunner.execute(airLock(), good.toString(), new StringReader(""), o, e, true));
+            assertEquals(BatchRunner.EXIT_FAILED, BatchRunner.execute(airLock(), bad.toString(), new StringReader(""), o, e, true));
+            assertEquals(BatchRunner.EXIT_OK, BatchRunner.execute(airLock(), null, new StringReader("TM\n"), o, e, true));
+            assertEquals("", err.toString());
+
+        } catch (IOException | DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a missing batch file exits with the I/O error status and prints only the error.")
+    void testMissingFile() {
+        try {
+            String missing = directory.resolve("missing.txt").toString();
+            int status = BatchRunner.execute(airLock(), missing, new StringReader(""), new PrintWriter(out), new PrintWriter(err), false);
+
+            assertEquals(BatchRunner.EXIT_IO_ERROR, status);
+            assertEquals("", out.toString());
+            assertTrue(err.toString().startsWith("Batch error: cannot read " + missing));
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+}
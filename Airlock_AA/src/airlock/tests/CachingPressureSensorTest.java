@@ -0,0 +1,148 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.PressureException;
+import airlock.sensors.CachingPressureSensor;
+
+public class CachingPressureSensorTest {
+
+    /* Stands in for a hardware sensor: counts reads and takes a while over each. */
+    static class SlowSensor implements IPressureSensor {
+        final AtomicInteger reads = new AtomicInteger();
+        final long delayMillis;
+        volatile double pressure;
+
+        SlowSensor(double pressure, long delayMillis) {
+            this.pressure = pressure;
+            this.delayMillis = delayMillis;
+        }
+
+        public double getPressure() {
+            reads.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return pressure;
+        }
+
+        public void setPressure(double newPressure) throws PressureException {
+            if (newPressure < 0.0) throw new PressureException("Cannot set negative pressure");
+            pressure = newPressure;
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures reads inside the staleness bound are served from the cache.")
+    void testReadsWithinWindowAreCached() {
+        SlowSensor device = new SlowSensor(5.0, 0);
+        CachingPressureSensor sensor = new CachingPressureSensor(device, 1, TimeUnit.HOURS);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(5.0, sensor.getPressure());
+        }
+        assertEquals(1, device.reads.get());
+        assertEquals(1, sensor.getDeviceReads());
+    }
+
+    @Test
+    @DisplayName("Ensures a sample older than the staleness bound is read again.")
+    void testStaleSampleIsReread() throws InterruptedException {
+        SlowSensor device = new SlowSensor(5.0, 0);
+        CachingPressureSensor sensor = new CachingPressureSensor(device, 5, TimeUnit.MILLISECONDS);
+
+        sensor.getPressure();
+        device.pressure = 7.0;
+        Thread.sleep(20);
+        assertEquals(7.0, sensor.getPressure());
+        assertEquals(2, device.reads.get());
+    }
+
+    @Test
+    @DisplayName("Ensures setPressure writes through and invalidates the cached sample.")
+    void testWriteInvalidatesCache() {
+        try {
+            SlowSensor device = new SlowSensor(5.0, 0);
+            CachingPressureSensor sensor = new CachingPressureSensor(device, 1, TimeUnit.HOURS);
+
+            sensor.getPressure();
+            sensor.setPressure(9.0);
+            assertEquals(9.0, device.pressure);
+            assertEquals(9.0, sensor.getPressure());
+            assertEquals(2, device.reads.get());
+
+            assertThrows(PressureException.class, () -> sensor.setPressure(-1.0));
+
+        } catch (PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures concurrent misses in one window coalesce into a single device read.")
+    void testConcurrentReadsCoalesce() throws InterruptedException {
+        SlowSensor device = new SlowSensor(3.0, 50);
+        CachingPressureSensor sensor = new CachingPressureSensor(device, 1, TimeUnit.HOURS);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger wrong = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    if (sensor.getPressure() != 3.0) wrong.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        assertEquals(0, wrong.get());
+        assertEquals(1, device.reads.get());
+    }
+
+    @Test
+    @DisplayName("Ensures an AUTO pass-through reads each cached sensor far less often than it asks for pressure.")
+    void testAirLockCycleUsesFewerDeviceReads() {
+        try {
+            SlowSensor environment = new SlowSensor(10.0, 0);
+            SlowSensor cabin = new SlowSensor(13.0, 0);
+            IPressureSensor enviromentSensor = new CachingPressureSensor(environment, 1, TimeUnit.HOURS);
+            IPressureSensor cabinSensor = new CachingPressureSensor(cabin, 1, TimeUnit.HOURS);
+            IPressureSensor lockSensor = new PressureSensor(1);
+            Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            airlock.toggleOperationMode();
+            airlock.openInnerDoor();
+            airlock.openOuterDoor();
+            airlock.closeOuterDoor();
+            assertEquals(1, environment.reads.get());
+            assertEquals(1, cabin.reads.get());
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
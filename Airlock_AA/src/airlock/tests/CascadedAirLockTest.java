@@ -0,0 +1,250 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLockProfile;
+import airlock.entities.AirLockResult;
+import airlock.entities.CascadedAirLock;
+import airlock.entities.ChamberPump;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IDoor;
+import airlock.entities.IPressureSensor;
+import airlock.entities.OperationMode;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+class CascadedAirLockTest {
+
+    private final List<IDoor> doors = new ArrayList<>();
+    private final List<IPressureSensor> chambers = new ArrayList<>();
+
+    // Environment, then one sensor per chamber, then the cabin.
+    private void build(double... pressures) throws DoorException, PressureException {
+        for (int i = 1; i < pressures.length - 1; i++) {
+            chambers.add(new PressureSensor(pressures[i]));
+        }
+        doors.add(new Door(new PressureSensor(pressures[0]), chambers.get(0), DoorState.CLOSED));
+        for (int i = 1; i < chambers.size(); i++) {
+            doors.add(new Door(chambers.get(i - 1), chambers.get(i), DoorState.CLOSED));
+        }
+        doors.add(new Door(new PressureSensor(pressures[pressures.length - 1]), chambers.get(chambers.size() - 1), DoorState.CLOSED));
+    }
+
+    @Test
+    @DisplayName("Ensures an AUTO pass through three chambers steps the pressure one stage per door and keeps one door open at a time.")
+    void testStagedAutoPass() {
+        try {
+            build(0.0, 1.2, 1.2, 1.2, 1.2);
+            CascadedAirLock airLock = new CascadedAirLock(doors, chambers,
+                OperationMode.AUTO, AirLockProfile.DEFAULT, ChamberPump.INSTANT, Runnable::run);
+
+            airLock.openOuterDoor();
+            assertEquals(0.0, airLock.getChamberPressure(0));
+            assertEquals(0.4, airLock.getChamberPressure(1), 1e-9, "Chamber 1 is pre-equalised for door 1.");
+            assertEquals(1.2, airLock.getChamberPressure(2));
+
+            airLock.openDoor(1);
+            assertTrue(airLock.isOuterDoorClosed());
+            assertEquals(0.4, airLock.getChamberPressure(0), 1e-9);
+            assertEquals(0.8, airLock.getChamberPressure(2), 1e-9, "Chamber 2 is pre-equalised for door 2.");
+
+            airLock.openDoor(2);
+            airLock.openInnerDoor();
+            assertEquals(1.2, airLock.getChamberPressure(2));
+            for (int door = 0; door < 3; door++) {
+                assertFalse(airLock.isDoorOpen(door));
+            }
+            assertTrue(airLock.isInnerDoorOpen());
+
+            // Back out again: the stages are used in reverse.
+            airLock.openDoor(2);
+            assertEquals(0.8, airLock.getChamberPressure(1), 1e-9);
+            assertEquals(0.4, airLock.getChamberPressure(0), 1e-9, "Chamber 0 is pre-equalised for door 1.");
+
+        } catch (AirLockException | DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures the next chamber pre-equalises in the background while the current door is open, and is not pumped twice.")
+    void testPreEqualisationIsPipelined() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            build(0.0, 1.0, 1.0, 1.0);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger pumped = new AtomicInteger();
+            ChamberPump slowPump = (chamber, target) -> {
+                if (chamber == chambers.get(1)) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                pumped.incrementAndGet();
+                chamber.setPressure(target);
+            };
+            CascadedAirLock airLock = new CascadedAirLock(doors, chambers,
+                OperationMode.AUTO, AirLockProfile.DEFAULT, slowPump, executor);
+
+            assertEquals(AirLockResult.OK, airLock.tryOpenOuterDoor());
+            assertTrue(airLock.isOuterDoorOpen(), "The outer door opens without waiting for chamber 1.");
+            assertEquals(1.0, airLock.getChamberPressure(1));
+            assertEquals(1, pumped.get());
+
+            release.countDown();
+            assertEquals(AirLockResult.OK, airLock.tryOpenDoor(1));
+            assertEquals(0.5, airLock.getChamberPressure(1), 1e-9);
+            assertEquals(0.5, airLock.getChamberPressure(0), 1e-9);
+            assertEquals(3, pumped.get(), "Chamber 0 for the stage and chamber 1 once, in the background.");
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures closing the last open door equalises the chain with the cabin and pre-equalises the next stage again in AUTO mode.")
+    void testCloseSealsAndEqualises() {
+        try {
+            build(0.0, 1.2, 1.2, 1.2, 1.2);
+            CascadedAirLock airLock = new CascadedAirLock(doors, chambers,
+                OperationMode.AUTO, AirLockProfile.DEFAULT, ChamberPump.INSTANT, Runnable::run);
+
+            airLock.openOuterDoor();
+            assertEquals(0.0, airLock.getChamberPressure(0));
+            airLock.closeOuterDoor();
+            assertTrue(airLock.isSealed());
+            assertEquals(1.2, airLock.getChamberPressure(0), 1e-9);
+            assertEquals(0.4, airLock.getChamberPressure(1), 1e-9, "Chamber 1 is pre-equalised for door 1 again.");
+            assertEquals(1.2, airLock.getChamberPressure(2), 1e-9);
+
+            assertEquals(AirLockResult.PRESSURE_OUT_OF_RANGE, airLock.trySetEnvironmentPressure(Double.NaN));
+            assertEquals(AirLockResult.PRESSURE_OUT_OF_RANGE, airLock.trySetCabinPressure(Double.POSITIVE_INFINITY));
+            assertEquals(0.0, airLock.getEnvironmentPressure());
+            assertEquals(1.2, airLock.getCabinPressure());
+
+        } catch (AirLockException | DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a pre-equalisation the executor rejects leaves the door open and the chamber is pumped on the next open.")
+    void testRejectedPreEqualisation() {
+        try {
+            build(0.0, 1.0, 1.0, 1.0);
+            Executor rejecting = command -> {
+                throw new RejectedExecutionException("shut down");
+            };
+            CascadedAirLock airLock = new CascadedAirLock(doors, chambers,
+                OperationMode.AUTO, AirLockProfile.DEFAULT, ChamberPump.INSTANT, rejecting);
+
+            assertEquals(AirLockResult.OK, airLock.tryOpenOuterDoor());
+            assertTrue(airLock.isOuterDoorOpen());
+            assertEquals(1.0, airLock.getChamberPressure(1));
+
+            assertEquals(AirLockResult.OK, airLock.tryOpenDoor(1));
+            assertEquals(0.5, airLock.getChamberPressure(0), 1e-9);
+            assertEquals(0.5, airLock.getChamberPressure(1), 1e-9);
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures the throwing commands wait for a running command where the try* ones return BUSY.")
+    void testBlockingCommandsWait() throws InterruptedException {
+        try {
+            build(0.0, 0.0, 1.0, 1.0);
+            CountDownLatch pumping = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ChamberPump slowPump = (chamber, target) -> {
+                pumping.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                chamber.setPressure(target);
+            };
+            CascadedAirLock airLock = new CascadedAirLock(doors, chambers,
+                OperationMode.MANUAL, AirLockProfile.DEFAULT, slowPump, Runnable::run);
+
+            Thread equalising = new Thread(() -> airLock.tryEqualiseWithCabinPressure());
+            equalising.start();
+            assertTrue(pumping.await(5, TimeUnit.SECONDS));
+            assertEquals(AirLockResult.BUSY, airLock.tryToggleOperationMode());
+
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread toggling = new Thread(() -> {
+                try {
+                    airLock.toggleOperationMode();
+                } catch (AirLockException e) {
+                    failure.set(e);
+                }
+            });
+            toggling.start();
+            release.countDown();
+            equalising.join(5000);
+            toggling.join(5000);
+            assertNull(failure.get());
+            assertTrue(airLock.isInAutoMode());
+            assertEquals(1.0, airLock.getLockPressure());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures the end doors keep the IAirLock semantics in MANUAL mode.")
+    void testManualEnds() {
+        try {
+            build(1.0, 1.0, 0.5, 0.5);
+            CascadedAirLock airLock = new CascadedAirLock(doors, chambers);
+
+            assertEquals(AirLockResult.OK, airLock.tryOpenOuterDoor());
+            assertEquals(AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT, airLock.tryOpenDoor(1));
+            assertEquals(AirLockResult.NOT_SEALED, airLock.tryEqualiseWithCabinPressure());
+            assertEquals(AirLockResult.OK, airLock.trySetEnvironmentPressure(0.8));
+            assertEquals(0.8, airLock.getLockPressure());
+            assertEquals(0.5, airLock.getChamberPressure(1));
+
+            assertEquals(AirLockResult.OK, airLock.tryCloseOuterDoor());
+            assertTrue(airLock.isSealed());
+            assertEquals(0.5, airLock.getLockPressure(), "Sealing equalises the chain with the cabin.");
+            assertEquals(AirLockResult.OK, airLock.tryOpenInnerDoor());
+            assertEquals(AirLockResult.DOOR_ALREADY_OPEN, airLock.tryOpenInnerDoor());
+            assertEquals(AirLockResult.NOT_SEALED, airLock.tryToggleOperationMode());
+
+            assertThrows(IllegalArgumentException.class, () -> new CascadedAirLock(doors, chambers.subList(0, 1)));
+            assertThrows(DoorException.class, () -> new CascadedAirLock(doors.subList(0, 1), List.of()));
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+}
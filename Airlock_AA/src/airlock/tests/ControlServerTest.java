@@ -0,0 +1,161 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockResult;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IAirLock;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.fleet.AirLockFleet;
+import airlock.server.ControlClient;
+import airlock.server.ControlProtocol;
+import airlock.server.ControlResponse;
+import airlock.server.ControlServer;
+
+public class ControlServerTest {
+
+    private static AirLock newAirLock() throws Exception {
+        IPressureSensor enviromentSensor = new PressureSensor(10);
+        IPressureSensor lockSensor = new PressureSensor(1);
+        IPressureSensor cabinSensor = new PressureSensor(13);
+        Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+        Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        return new AirLock(outerDoor, innerDoor, lockSensor);
+    }
+
+    @Test
+    @DisplayName("Ensures console commands run against the addressed airlock and return typed results and state.")
+    void testCommandsReturnResults() {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            AirLock airlock = newAirLock();
+            fleet.register("A1", airlock);
+            try (ControlServer server = new ControlServer(fleet, 0, 2);
+                 ControlClient client = new ControlClient(server.getPort())) {
+
+                assertEquals(AirLockResult.OK, client.execute("A1", "TM").getResult());
+                ControlResponse opened = client.execute("A1", "OI");
+                assertEquals(AirLockResult.OK, opened.getResult());
+                assertEquals(IAirLock.STATE_INNER_OPEN | IAirLock.STATE_AUTO, opened.getState());
+                assertEquals(AirLockResult.DOOR_ALREADY_OPEN, client.execute("A1", "OI").getResult());
+                assertEquals(AirLockResult.NOT_SEALED, client.execute("A1", "EX").getResult());
+
+                client.sendPressure("A1", "SI", 14);
+                assertEquals(AirLockResult.OK, client.receive().getResult());
+                assertEquals(14, airlock.getLockPressure());
+                client.sendPressure("A1", "SX", -1);
+                assertEquals(AirLockResult.NEGATIVE_PRESSURE, client.receive().getResult());
+
+                ControlResponse unknown = client.execute("B7", "OX");
+                assertNull(unknown.getResult());
+                assertEquals(ControlProtocol.UNKNOWN_AIRLOCK, unknown.getStatus());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures pipelined requests are answered in order with their correlation ids.")
+    void testPipelinedRequests() {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            fleet.register("A1", newAirLock());
+            try (ControlServer server = new ControlServer(fleet, 0, 1);
+                 ControlClient client = new ControlClient(server.getPort())) {
+
+                List<Integer> sent = new ArrayList<>();
+                for (int i = 0; i < 5000; i++) {
+                    sent.add(client.send("A1", "TM"));
+                }
+                client.flush();
+                for (int i = 0; i < sent.size(); i++) {
+                    ControlResponse response = client.receive();
+                    assertEquals(sent.get(i), response.getCorrelationId());
+                    assertEquals(AirLockResult.OK, response.getResult());
+                    assertEquals(i % 2 == 0, (response.getState() & IAirLock.STATE_AUTO) != 0);
+                }
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures commands run on the fleet workers and keep their response order when a later one finishes first.")
+    void testCommandsRunOnFleetWorkers() {
+        try (AirLockFleet fleet = new AirLockFleet(2)) {
+            fleet.register("A1", newAirLock());
+            fleet.register("A2", newAirLock());
+            CountDownLatch release = new CountDownLatch(1);
+            fleet.submit("A1", airLock -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+            try (ControlServer server = new ControlServer(fleet, 0, 1);
+                 ControlClient client = new ControlClient(server.getPort())) {
+
+                int first = client.send("A1", "TM");
+                int second = client.send("A2", "TM");
+                client.flush();
+                long deadline = System.nanoTime() + 5_000_000_000L;
+                while (fleet.getCommandCount() < 1 && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+                assertEquals(1, fleet.getCommandCount(), "A2's command should run while A1's worker is busy.");
+                release.countDown();
+
+                ControlResponse response = client.receive();
+                assertEquals(first, response.getCorrelationId());
+                assertEquals(IAirLock.STATE_SEALED | IAirLock.STATE_AUTO, response.getState());
+                assertEquals(second, client.receive().getCorrelationId());
+                assertEquals(3, fleet.getCommandCount());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures many concurrent connections are served by a couple of reactor threads.")
+    void testManyConnections() {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            for (int i = 0; i < 50; i++) {
+                fleet.register("A" + i, newAirLock());
+            }
+            try (ControlServer server = new ControlServer(fleet, 0, 2)) {
+                List<ControlClient> clients = new ArrayList<>();
+                try {
+                    for (int i = 0; i < 500; i++) {
+                        ControlClient client = new ControlClient(server.getPort());
+                        clients.add(client);
+                        client.send("A" + (i % 50), "CX");
+                        client.flush();
+                    }
+                    for (ControlClient client : clients) {
+                        assertEquals(AirLockResult.DOOR_ALREADY_CLOSED, client.receive().getResult());
+                    }
+                    assertEquals(500, server.getConnectionCount());
+                } finally {
+                    for (ControlClient client : clients) {
+                        client.close();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+import airlock.entities.CycleScript;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IDoor;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.entities.ScriptResult;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+public class CycleScriptTest {
+
+    @Test
+    @DisplayName("Ensures a script compiles from the Main command codes.")
+    void testCompileParsesCodes() throws AirLockException {
+        CycleScript script = CycleScript.compile("OI, CI, EX, ox cx");
+
+        assertEquals(5, script.length());
+        assertEquals(AirLockCommand.EQUALISE_WITH_ENVIRONMENT, script.getStep(2));
+        assertEquals("OI, CI, EX, OX, CX", script.toString());
+    }
+
+    @Test
+    @DisplayName("Ensures compiling an unknown command code throws an AirLockException.")
+    void testCompileRejectsUnknownCode() {
+        assertThrows(AirLockException.class, () -> CycleScript.compile("OI, XX"),
+        "Expected compile to throw an AirLockException due to an unknown command code. Exception not thrown.");
+    }
+
+    @Test
+    @DisplayName("Ensures a valid manual pass-through script runs to completion.")
+    void testRunScriptSucceeds() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(13);
+            IPressureSensor cabinSensor = new PressureSensor(13);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            ScriptResult result = airlock.runScript(CycleScript.compile("OI, CI, EX, OX, CX"));
+
+            assertTrue(result.isSuccess());
+            assertTrue(airlock.isSealed());
+            assertEquals(13.0, lockSensor.getPressure());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a script that cannot succeed is rejected at the failing step before any door moves.")
+    void testRunScriptValidatesBeforeExecuting() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(10);
+            IPressureSensor cabinSensor = new PressureSensor(10);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            ScriptResult result = airlock.runScript(CycleScript.compile("OI, OX, TM"));
+
+            assertFalse(result.isSuccess());
+            assertFalse(result.wasExecuted());
+            assertEquals(2, result.getFailedStep());
+            assertEquals(AirLockResult.NOT_SEALED, result.getResult());
+            assertTrue(airlock.isInnerDoorClosed());
+            assertTrue(airlock.isOuterDoorClosed());
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a pressure failure part way through reports the exact failing step.")
+    void testRunScriptReportsPressureFailure() throws AirLockException {
+        try {
+            IPressureSensor enviromentSensor = new PressureSensor(10);
+            IPressureSensor lockSensor = new PressureSensor(13);
+            IPressureSensor cabinSensor = new PressureSensor(13);
+            IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            ScriptResult result = airlock.runScript(CycleScript.compile("OI, CI, OX"));
+
+            assertTrue(result.wasExecuted());
+            assertEquals(2, result.getFailedStep());
+            assertEquals(AirLockCommand.OPEN_OUTER_DOOR, result.getFailedCommand());
+            assertEquals(AirLockResult.PRESSURE_DIFFERENCE_TOO_GREAT, result.getResult());
+            assertThrows(AirLockException.class, () -> airlock.executeScript(CycleScript.compile("OX")),
+            "Expected executeScript to throw an AirLockException due to unbalanced pressure. Exception not thrown.");
+
+        } catch (DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+}
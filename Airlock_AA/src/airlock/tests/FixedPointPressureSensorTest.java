@@ -0,0 +1,99 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockProfile;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.FixedPointPressureSensor;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.entities.Pressures;
+import airlock.exceptions.AirLockException;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+class FixedPointPressureSensorTest {
+
+    @Test
+    @DisplayName("Ensures readings are stored as whole micro-bar and negative pressures are rejected.")
+    void testStoresMicroBar() {
+        try {
+            FixedPointPressureSensor sensor = new FixedPointPressureSensor(10.0000004);
+            assertEquals(10_000_000L, sensor.getMicroBar());
+            assertEquals(10.0, sensor.getPressure());
+
+            sensor.setMicroBar(1_500_000L);
+            assertEquals(1.5, sensor.getPressure());
+
+            assertThrows(PressureException.class, () -> sensor.setMicroBar(-1));
+            assertThrows(PressureException.class, () -> sensor.setPressure(-0.0000001));
+            assertEquals(1_500_000L, sensor.getMicroBar());
+
+        } catch (PressureException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures NaN, infinite and out-of-range pressures are rejected instead of converted to 0 or Long.MIN/MAX_VALUE.")
+    void testNonFinitePressuresAreRejected() {
+        for (double pressure : new double[] {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1e13}) {
+            assertThrows(IllegalArgumentException.class, () -> Pressures.toMicroBar(pressure), "toMicroBar(" + pressure + ")");
+        }
+        assertEquals(-1_500_000L, Pressures.toMicroBar(-1.5));
+        assertEquals(9_000_000_000_000_000_000L, Pressures.toMicroBar(9e12));
+    }
+
+    @Test
+    @DisplayName("Ensures a door is balanced at exactly the tolerance and unbalanced one micro-bar past it, whatever the sensor type.")
+    void testToleranceIsExact() {
+        try {
+            long tolerance = AirLockProfile.DEFAULT.getToleranceMicroBar();
+            IPressureSensor outside = FixedPointPressureSensor.ofMicroBar(10_000_000L);
+            IPressureSensor inside = FixedPointPressureSensor.ofMicroBar(10_000_000L + tolerance);
+            Door door = new Door(outside, inside, DoorState.CLOSED);
+            door.open();
+            assertTrue(door.isOpen());
+
+            inside.setMicroBar(10_000_000L + tolerance + 1);
+            door.close();
+            assertThrows(DoorException.class, () -> door.open());
+
+            // 10.001 - 10 is not exactly 0.001 as doubles; in micro-bar it is.
+            Door mixed = new Door(new PressureSensor(10), new PressureSensor(10.001), DoorState.CLOSED);
+            assertEquals(tolerance, mixed.getInternalMicroBar() - mixed.getExternalMicroBar());
+            assertTrue(Pressures.isBalanced(mixed, tolerance));
+
+        } catch (PressureException | DoorException e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures an AUTO cycle copies pressures between fixed-point sensors without rounding drift.")
+    void testAutoCycleWithFixedPointSensors() {
+        try {
+            IPressureSensor environment = new FixedPointPressureSensor(0.1);
+            IPressureSensor lock = new FixedPointPressureSensor(1.0);
+            IPressureSensor cabin = new FixedPointPressureSensor(1.013);
+            Door outerDoor = new Door(environment, lock, DoorState.CLOSED);
+            Door innerDoor = new Door(cabin, lock, DoorState.CLOSED);
+            AirLock airLock = new AirLock(outerDoor, innerDoor, lock);
+
+            airLock.toggleOperationMode();
+            airLock.openInnerDoor();
+            assertEquals(cabin.getMicroBar(), lock.getMicroBar());
+            airLock.openOuterDoor();
+            assertEquals(environment.getMicroBar(), lock.getMicroBar());
+            assertTrue(airLock.isInnerDoorClosed());
+
+        } catch (AirLockException | DoorException | PressureException e) {
+            fail(e);
+        }
+    }
+}
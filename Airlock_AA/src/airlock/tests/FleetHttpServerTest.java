@@ -0,0 +1,132 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.fleet.AirLockFleet;
+import airlock.server.FleetHttpServer;
+import airlock.server.JsonWriter;
+
+public class FleetHttpServerTest {
+
+    private static AirLock newAirLock(DoorState outerState) throws Exception {
+        IPressureSensor enviromentSensor = new PressureSensor(10);
+        IPressureSensor lockSensor = new PressureSensor(10);
+        IPressureSensor cabinSensor = new PressureSensor(13);
+        Door outerDoor = new Door(enviromentSensor, lockSensor, outerState);
+        Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        return new AirLock(outerDoor, innerDoor, lockSensor);
+    }
+
+    private static HttpResponse<String> send(HttpClient client, String method, String uri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri)).method(method, HttpRequest.BodyPublishers.noBody()).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Ensures JsonWriter separates members and escapes strings.")
+    void testJsonWriter() {
+        try {
+            StringWriter out = new StringWriter();
+            new JsonWriter(out).beginObject()
+                .name("a").value("x\"y\n")
+                .name("b").beginArray().value(1).value(true).value(2.5).endArray()
+                .name("c").beginObject().endObject()
+                .endObject();
+            assertEquals("{\"a\":\"x\\\"y\\n\",\"b\":[1,true,2.5],\"c\":{}}", out.toString());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures status can be listed, filtered and fetched per airlock.")
+    void testStatusQueries() {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            fleet.register("A1", newAirLock(DoorState.CLOSED));
+            fleet.register("A2", newAirLock(DoorState.OPEN));
+            try (FleetHttpServer server = new FleetHttpServer(fleet, 0, 2)) {
+                HttpClient client = HttpClient.newHttpClient();
+                String base = "http://localhost:" + server.getPort() + "/airlocks";
+
+                HttpResponse<String> all = send(client, "GET", base);
+                assertEquals(200, all.statusCode());
+                assertTrue(all.body().contains("\"id\":\"A1\"") && all.body().contains("\"id\":\"A2\""));
+
+                HttpResponse<String> unsealed = send(client, "GET", base + "?sealed=false");
+                assertEquals("[{\"id\":\"A2\",\"outerDoor\":\"OPEN\",\"innerDoor\":\"CLOSED\",\"sealed\":false,\"mode\":\"MANUAL\","
+                    + "\"environmentPressure\":10.0,\"lockPressure\":10.0,\"cabinPressure\":13.0}]", unsealed.body());
+
+                assertEquals(200, send(client, "GET", base + "/A1").statusCode());
+                assertEquals(404, send(client, "GET", base + "/B9").statusCode());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures commands run through the fleet and return their AirLockResult, with 409 for rejections.")
+    void testCommands() {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            AirLock airlock = newAirLock(DoorState.CLOSED);
+            fleet.register("A1", airlock);
+            try (FleetHttpServer server = new FleetHttpServer(fleet, 0, 2)) {
+                HttpClient client = HttpClient.newHttpClient();
+                String base = "http://localhost:" + server.getPort() + "/airlocks/A1/";
+
+                HttpResponse<String> opened = send(client, "POST", base + "OX");
+                assertEquals(200, opened.statusCode());
+                assertTrue(opened.body().startsWith("{\"command\":\"OX\",\"result\":\"OK\""));
+                assertTrue(airlock.isOuterDoorOpen());
+
+                HttpResponse<String> again = send(client, "POST", base + "OX");
+                assertEquals(409, again.statusCode());
+                assertTrue(again.body().contains("\"result\":\"DOOR_ALREADY_OPEN\""));
+
+                assertEquals(200, send(client, "POST", base + "SX?pressure=11.5").statusCode());
+                assertEquals(11.5, airlock.getLockPressure());
+                assertEquals(400, send(client, "POST", base + "SX").statusCode());
+                assertEquals(400, send(client, "POST", base + "ZZ").statusCode());
+                assertEquals(405, send(client, "DELETE", base + "OX").statusCode());
+                assertEquals(3, fleet.getCommandCount());
+                assertEquals(404, send(client, "POST", base.replace("A1", "B7") + "OX").statusCode());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a command the closed fleet cannot run answers 503 and leaves the airlock alone.")
+    void testClosedFleetAnswersUnavailable() {
+        AirLockFleet fleet = new AirLockFleet(1);
+        try {
+            AirLock airlock = newAirLock(DoorState.OPEN);
+            fleet.register("A1", airlock);
+            fleet.close();
+            try (FleetHttpServer server = new FleetHttpServer(fleet, 0, 2)) {
+                HttpClient client = HttpClient.newHttpClient();
+                String base = "http://localhost:" + server.getPort() + "/airlocks/A1/";
+
+                assertEquals(503, send(client, "POST", base + "CX").statusCode());
+                assertTrue(airlock.isOuterDoorOpen());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockProfile;
+import airlock.entities.AirLockResult;
+import airlock.entities.CascadedAirLock;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IAirLock;
+import airlock.entities.IDoor;
+import airlock.entities.IPressureSensor;
+import airlock.entities.OperationMode;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+import airlock.fleet.AirLockFleet;
+import airlock.fleet.AirLockSnapshot;
+import airlock.fleet.SnapshotReader;
+import airlock.fleet.SnapshotWriter;
+
+public class FleetSnapshotTest {
+
+    private static AirLock newAirLock(double environment, double lock, double cabin) throws DoorException, PressureException {
+        IPressureSensor enviromentSensor = new PressureSensor(environment);
+        IPressureSensor lockSensor = new PressureSensor(lock);
+        IPressureSensor cabinSensor = new PressureSensor(cabin);
+        IDoor outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+        IDoor innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        return new AirLock(outerDoor, innerDoor, lockSensor);
+    }
+
+    @Test
+    @DisplayName("Ensures a restored airlock keeps its door states, pressures and AUTO mode.")
+    void testRestoreKeepsModeAndDoors() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1); AirLockFleet restored = new AirLockFleet(1)) {
+            AirLock auto = newAirLock(10, 1, 13);
+            auto.toggleOperationMode();
+            auto.openOuterDoor();
+            fleet.register("auto", auto);
+            fleet.register("manual", newAirLock(2, 3, 4));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+                assertEquals(2, writer.writeFull(fleet));
+            }
+            assertEquals(2, SnapshotReader.restore(new ByteArrayInputStream(bytes.toByteArray()), restored));
+
+            IAirLock copy = restored.get("auto");
+            assertTrue(copy.isInAutoMode());
+            assertTrue(copy.isOuterDoorOpen());
+            assertTrue(copy.isUnsealed());
+            assertEquals(10.0, copy.getLockPressure());
+            assertEquals(AirLockSnapshot.of(fleet.get("manual")), AirLockSnapshot.of(restored.get("manual")));
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures delta frames only hold changed or removed airlocks and replay to the latest state.")
+    void testDeltaFrames() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            for (int i = 0; i < 10; i++) {
+                fleet.register("A" + i, newAirLock(5, 5, 5));
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+                writer.writeFull(fleet);
+                assertEquals(0, writer.writeDelta(fleet));
+
+                fleet.get("A3").toggleOperationMode();
+                fleet.unregister("A7");
+                assertEquals(2, writer.writeDelta(fleet));
+            }
+
+            Map<String, AirLockSnapshot> states = SnapshotReader.read(new ByteArrayInputStream(bytes.toByteArray()));
+            assertEquals(9, states.size());
+            assertFalse(states.containsKey("A7"));
+            assertTrue(states.get("A3").isInAutoMode());
+            assertFalse(states.get("A4").isInAutoMode());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a restored airlock keeps its profile.")
+    void testRestoreKeepsProfile() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1); AirLockFleet restored = new AirLockFleet(1)) {
+            AirLockProfile cargo = new AirLockProfile("cargo", 0.25, 0.5, 20.0, OperationMode.MANUAL, false);
+            IPressureSensor lockSensor = new PressureSensor(3);
+            IDoor outerDoor = new Door(new PressureSensor(3), lockSensor, DoorState.CLOSED, cargo);
+            IDoor innerDoor = new Door(new PressureSensor(4), lockSensor, DoorState.CLOSED, cargo);
+            fleet.register("cargo", new AirLock(outerDoor, innerDoor, lockSensor, cargo));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+                writer.writeFull(fleet);
+            }
+            SnapshotReader.restore(new ByteArrayInputStream(bytes.toByteArray()), restored);
+
+            IAirLock copy = restored.get("cargo");
+            assertEquals(cargo, copy.getProfile());
+            assertEquals(AirLockResult.AUTO_MODE_NOT_ALLOWED, copy.tryToggleOperationMode());
+            assertEquals(AirLockResult.PRESSURE_OUT_OF_RANGE, copy.trySetCabinPressure(25.0));
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures snapshots taken while commands run always restore to a consistent airlock.")
+    void testSnapshotsDuringCommandsAreConsistent() throws Exception {
+        AirLock airLock = newAirLock(5, 5, 5);
+        airLock.toggleOperationMode();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread cycling = new Thread(() -> {
+            while (running.get()) {
+                airLock.tryOpenOuterDoor();
+                airLock.tryOpenInnerDoor();
+                airLock.tryCloseInnerDoor();
+            }
+        });
+        cycling.start();
+        try {
+            for (int i = 0; i < 20_000; i++) {
+                AirLockSnapshot snapshot = AirLockSnapshot.of(airLock);
+                assertNotEquals(snapshot.isSealed(), snapshot.isOuterDoorOpen() || snapshot.isInnerDoorOpen());
+                snapshot.restore();
+            }
+        } finally {
+            running.set(false);
+            cycling.join();
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a large fleet round-trips through a snapshot.")
+    void testLargeFleetRoundTrip() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1); AirLockFleet restored = new AirLockFleet(1)) {
+            for (int i = 0; i < 20_000; i++) {
+                fleet.register("A" + i, newAirLock(i % 11, i % 11, i % 13));
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+                writer.writeFull(fleet);
+            }
+            // id, flags, three pressures and a profile index: the shared profile is written once.
+            assertTrue(bytes.size() < 20_000 * 40, "snapshot is " + bytes.size() + " bytes");
+            assertEquals(20_000, SnapshotReader.restore(new ByteArrayInputStream(bytes.toByteArray()), restored));
+            assertEquals(5.0, restored.get("A19999").getCabinPressure());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures airlocks sharing a profile in a frame reference one profile table entry.")
+    void testProfileTablePerFrame() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            AirLockProfile cargo = new AirLockProfile("cargo", 0.25, 0.5, 20.0, OperationMode.MANUAL, false);
+            for (int i = 0; i < 3; i++) {
+                IPressureSensor lockSensor = new PressureSensor(3);
+                IDoor outerDoor = new Door(new PressureSensor(3), lockSensor, DoorState.CLOSED, cargo);
+                IDoor innerDoor = new Door(new PressureSensor(4), lockSensor, DoorState.CLOSED, cargo);
+                fleet.register("C" + i, new AirLock(outerDoor, innerDoor, lockSensor, cargo));
+                fleet.register("D" + i, newAirLock(1, 2, 3));
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+                writer.writeFull(fleet);
+            }
+            String text = new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1);
+            assertEquals(text.indexOf("cargo"), text.lastIndexOf("cargo"));
+            assertEquals(text.indexOf("default"), text.lastIndexOf("default"));
+
+            Map<String, AirLockSnapshot> states = SnapshotReader.read(new ByteArrayInputStream(bytes.toByteArray()));
+            assertEquals(cargo, states.get("C2").getProfile());
+            assertEquals(AirLockProfile.DEFAULT, states.get("D2").getProfile());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a fleet holding an airlock that cannot be restored is rejected before anything is written.")
+    void testUnsupportedAirLockIsRejected() throws Exception {
+        try (AirLockFleet fleet = new AirLockFleet(1)) {
+            IPressureSensor chamber = new PressureSensor(1);
+            IDoor outerDoor = new Door(new PressureSensor(1), chamber, DoorState.CLOSED);
+            IDoor innerDoor = new Door(new PressureSensor(1), chamber, DoorState.CLOSED);
+            fleet.register("cascaded", new CascadedAirLock(Arrays.asList(outerDoor, innerDoor), Arrays.asList(chamber)));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+                assertThrows(IllegalArgumentException.class, () -> writer.writeFull(fleet));
+            }
+            assertEquals(0, bytes.size());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.Door;
+import airlock.entities.OperationMode;
+import airlock.verification.Invariant;
+import airlock.verification.Invariants;
+import airlock.verification.ModelCheckResult;
+import airlock.verification.ModelChecker;
+import airlock.verification.RandomAirLockSimulator;
+import airlock.verification.Scenario;
+import airlock.verification.Subject;
+import airlock.verification.Violation;
+
+public class ModelCheckerTest {
+
+    @Test
+    @DisplayName("Ensures every reachable state from every valid configuration satisfies the invariants.")
+    void testAllReachableStatesAreSafe() {
+        ModelCheckResult result = new ModelChecker().run();
+        assertTrue(result.passed(), () -> result + "\n" + result.getViolations());
+        assertTrue(result.getStates() > 0);
+        assertEquals(0, result.getTransitions() % result.getStates());
+    }
+
+    @Test
+    @DisplayName("Ensures the checker also passes with more pressure levels around the tolerance.")
+    void testFinerPressureLevels() {
+        double t = Door.TOLERANCE;
+        double[] levels = {0.0, 1.0, 10.0, 10.0 + t * 0.5, 10.0 + t, 10.0 + t * 1.5, 10.0 + t * 2.0, 13.0};
+        ModelCheckResult result = new ModelChecker(levels, Invariants.DEFAULTS).run();
+        assertTrue(result.passed(), () -> result + "\n" + result.getViolations());
+    }
+
+    @Test
+    @DisplayName("Ensures a broken property is reported with a path that replays to the same failure.")
+    void testViolationPathReplays() {
+        Invariant innerNeverOpensInAuto = subject ->
+            subject.airLock.isInAutoMode() && subject.airLock.isInnerDoorOpen() ? "inner door open in AUTO" : null;
+        List<Invariant> invariants = List.of(innerNeverOpensInAuto);
+        ModelCheckResult result = new ModelChecker(ModelChecker.defaultLevels(), invariants).run();
+
+        assertFalse(result.passed());
+        Violation shortest = result.getViolations().get(0);
+        assertEquals("inner door open in AUTO", shortest.getMessage());
+        Violation replayed = new RandomAirLockSimulator(0, invariants).replay(shortest.getScenario());
+        assertNotNull(replayed);
+        assertEquals(shortest.getMessage(), replayed.getMessage());
+    }
+
+    @Test
+    @DisplayName("Ensures a door moved behind the airlock's back is reported as disagreeing with the state word.")
+    void testStateWordDriftIsDetected() throws Exception {
+        Subject subject = new Scenario(10.0, 10.0, 10.0, OperationMode.MANUAL).start();
+        assertNull(Invariants.AIRLOCK_MATCHES_DOORS.check(subject));
+
+        subject.outerDoor.open();
+        assertTrue(subject.airLock.isOuterDoorOpen(), "The door query asks the door itself.");
+        assertEquals("airlock and outer door disagree", Invariants.AIRLOCK_MATCHES_DOORS.check(subject));
+    }
+}
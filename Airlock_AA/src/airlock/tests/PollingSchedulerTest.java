@@ -0,0 +1,152 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.exceptions.PressureException;
+import airlock.sensors.BusPressureSensor;
+import airlock.sensors.PollingScheduler;
+import airlock.sensors.SensorBus;
+import airlock.sensors.SimulatedSensorBus;
+
+public class PollingSchedulerTest {
+
+    @Test
+    @DisplayName("Ensures every due sensor on a bus is read in one batched transaction.")
+    void testBatchedReadPerBus() {
+        try (PollingScheduler scheduler = new PollingScheduler(0, 0, TimeUnit.MILLISECONDS)) {
+            SimulatedSensorBus bus = new SimulatedSensorBus();
+            BusPressureSensor[] sensors = new BusPressureSensor[100];
+            for (int i = 0; i < sensors.length; i++) {
+                sensors[i] = scheduler.attach(bus, bus.addChannel(i));
+            }
+            for (int i = 0; i < sensors.length; i++) {
+                bus.simulate(i, i + 0.5);
+            }
+            long before = bus.getTransactions();
+
+            assertEquals(100, scheduler.poll());
+            assertEquals(before + 1, bus.getTransactions());
+            for (int i = 0; i < sensors.length; i++) {
+                assertEquals(i + 0.5, sensors[i].getPressure());
+            }
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures writes through a bus sensor reach the device and the cached reading.")
+    void testWriteThrough() {
+        try (PollingScheduler scheduler = new PollingScheduler(0, 0, TimeUnit.MILLISECONDS)) {
+            SimulatedSensorBus bus = new SimulatedSensorBus();
+            BusPressureSensor sensor = scheduler.attach(bus, bus.addChannel(1.0));
+
+            sensor.setPressure(4.0);
+            assertEquals(4.0, sensor.getPressure());
+            bus.simulate(sensor.getChannel(), 6.0);
+            assertEquals(4.0, sensor.getPressure());
+            scheduler.poll();
+            assertEquals(6.0, sensor.getPressure());
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a poll that read the bus before a write does not overwrite the written pressure.")
+    void testStalePollDoesNotClobberWrite() throws Exception {
+        SimulatedSensorBus device = new SimulatedSensorBus();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        boolean[] armed = new boolean[1];
+        SensorBus bus = new SensorBus() {
+            public int channelCount() {
+                return device.channelCount();
+            }
+            public void readBatch(int[] channels, int count, double[] pressures) {
+                device.readBatch(channels, count, pressures);
+                if (!armed[0]) return;
+                reading.countDown();
+                try {
+                    written.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            public void write(int channel, double pressure) throws PressureException {
+                device.write(channel, pressure);
+            }
+        };
+        try (PollingScheduler scheduler = new PollingScheduler(0, 0, TimeUnit.MILLISECONDS)) {
+            BusPressureSensor sensor = scheduler.attach(bus, device.addChannel(1.0));
+            armed[0] = true;
+
+            Thread polling = new Thread(scheduler::poll);
+            polling.start();
+            reading.await();
+            sensor.setPressure(4.0);
+            written.countDown();
+            polling.join();
+
+            assertEquals(4.0, sensor.getPressure());
+            armed[0] = false;
+            scheduler.poll();
+            assertEquals(4.0, sensor.getPressure());
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures an unsealed airlock's sensors are polled fast and a sealed, idle one's slowly.")
+    void testAdaptiveRate() {
+        try (PollingScheduler scheduler = new PollingScheduler(0, 1, TimeUnit.HOURS)) {
+            SimulatedSensorBus bus = new SimulatedSensorBus();
+            BusPressureSensor enviromentSensor = scheduler.attach(bus, bus.addChannel(10));
+            BusPressureSensor lockSensor = scheduler.attach(bus, bus.addChannel(10));
+            BusPressureSensor cabinSensor = scheduler.attach(bus, bus.addChannel(13));
+            Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+            scheduler.watch(airlock, enviromentSensor, lockSensor, cabinSensor);
+
+            // Sealed and idle: nothing is due for an hour.
+            assertEquals(0, scheduler.poll());
+
+            airlock.openOuterDoor();
+            assertEquals(3, scheduler.poll());
+            bus.simulate(enviromentSensor.getChannel(), 10.0005);
+            assertEquals(3, scheduler.poll());
+            assertEquals(10.0005, enviromentSensor.getPressure());
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures the background poller keeps readings current.")
+    void testBackgroundPolling() throws Exception {
+        try (PollingScheduler scheduler = new PollingScheduler(1, 1, TimeUnit.MILLISECONDS)) {
+            SimulatedSensorBus bus = new SimulatedSensorBus();
+            BusPressureSensor sensor = scheduler.attach(bus, bus.addChannel(1.0));
+            scheduler.start();
+            bus.simulate(sensor.getChannel(), 2.0);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (sensor.getPressure() != 2.0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(2.0, sensor.getPressure());
+        }
+    }
+}
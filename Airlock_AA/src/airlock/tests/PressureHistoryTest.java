@@ -0,0 +1,118 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.PressureHistory;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.PressureException;
+
+class PressureHistoryTest {
+
+	@Test
+	@DisplayName("Ensures min, max and mean only consider samples inside the requested window.")
+	void testWindowQueries() {
+		PressureHistory history = new PressureHistory(8);
+		history.record(10, 1.0);
+		history.record(20, 4.0);
+		history.record(30, 2.0);
+		history.record(40, 9.0);
+
+		assertEquals(2.0, history.min(15, 35));
+		assertEquals(4.0, history.max(15, 35));
+		assertEquals(3.0, history.mean(15, 35));
+		assertEquals(9.0, history.max(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertTrue(Double.isNaN(history.mean(41, 50)));
+	}
+
+	@Test
+	@DisplayName("Ensures the oldest samples are overwritten once the history is full.")
+	void testOverwritesOldestWhenFull() {
+		PressureHistory history = new PressureHistory(3);
+		for (int i = 1; i <= 5; i++) {
+			history.record(i, i);
+		}
+
+		assertEquals(3, history.size());
+		assertEquals(3.0, history.min(Long.MIN_VALUE, Long.MAX_VALUE));
+
+		long[] timestamps = new long[3];
+		double[] pressures = new double[3];
+		assertEquals(3, history.export(timestamps, pressures));
+		assertArrayEquals(new long[] {3, 4, 5}, timestamps);
+		assertArrayEquals(new double[] {3.0, 4.0, 5.0}, pressures);
+	}
+
+	@Test
+	@DisplayName("Ensures export copies only the newest samples when the output arrays are smaller than the history.")
+	void testExportIntoSmallerArrays() {
+		PressureHistory history = new PressureHistory(4);
+		for (int i = 1; i <= 6; i++) {
+			history.record(i, i * 10.0);
+		}
+
+		long[] timestamps = new long[2];
+		double[] pressures = new double[2];
+		assertEquals(2, history.export(timestamps, pressures));
+		assertArrayEquals(new long[] {5, 6}, timestamps);
+		assertArrayEquals(new double[] {50.0, 60.0}, pressures);
+	}
+
+	@Test
+	@DisplayName("Ensures a PressureSensor records every setPressure once history is enabled.")
+	void testPressureSensorRecordsHistory() throws PressureException {
+		try {
+			PressureSensor sensor = new PressureSensor(1.0);
+			assertNull(sensor.getHistory());
+
+			sensor.enableHistory(16);
+			sensor.setPressure(2.0);
+			sensor.setPressure(6.0);
+
+			PressureHistory history = sensor.getHistory();
+			assertEquals(2, history.size());
+			assertEquals(4.0, history.mean(Long.MIN_VALUE, Long.MAX_VALUE));
+
+		} catch (PressureException e) {
+			fail("A PressureException was thrown unexpectedly.");
+		}
+	}
+
+	@Test
+	@DisplayName("Ensures samples from concurrent setPressure calls are stored in timestamp order.")
+	void testConcurrentSamplesStayOrdered() throws InterruptedException {
+		try {
+			PressureSensor sensor = new PressureSensor(1.0);
+			sensor.enableHistory(4096);
+			Thread[] writers = new Thread[4];
+			for (int t = 0; t < writers.length; t++) {
+				double value = t + 1.0;
+				writers[t] = new Thread(() -> {
+					try {
+						for (int i = 0; i < 1000; i++) {
+							sensor.setPressure(value);
+						}
+					} catch (PressureException e) {
+						throw new IllegalStateException(e);
+					}
+				});
+				writers[t].start();
+			}
+			for (Thread writer : writers) {
+				writer.join();
+			}
+
+			long[] timestamps = new long[4096];
+			double[] pressures = new double[4096];
+			assertEquals(4000, sensor.getHistory().export(timestamps, pressures));
+			for (int i = 1; i < 4000; i++) {
+				assertTrue(timestamps[i - 1] <= timestamps[i], "Sample " + i + " is older than the one before it.");
+			}
+
+		} catch (PressureException e) {
+			fail("A PressureException was thrown unexpectedly.");
+		}
+	}
+}
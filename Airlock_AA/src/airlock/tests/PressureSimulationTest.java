@@ -0,0 +1,57 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.IPressureSensor;
+import airlock.exceptions.PressureException;
+import airlock.simulation.PressureSimulation;
+
+class PressureSimulationTest {
+
+	@Test
+	@DisplayName("Ensures a chamber pumps up at flow / volume bar per second and stops at its target.")
+	void testPumpRateAndClampAtTarget() throws PressureException {
+		PressureSimulation simulation = new PressureSimulation();
+		int chamber = simulation.addChamber(2.0, 4.0, 1.0, 1.0);
+		simulation.setTarget(chamber, 5.0);
+
+		assertEquals(2.0, simulation.timeToSettle(chamber), 1e-9);
+		simulation.step(1.0);
+		assertEquals(3.0, simulation.getPressure(chamber), 1e-9);
+		simulation.step(10.0);
+		assertEquals(5.0, simulation.getPressure(chamber), 1e-9);
+		assertTrue(simulation.isSettled(chamber, 0.001));
+	}
+
+	@Test
+	@DisplayName("Ensures venting uses the vent flow rather than the pump flow.")
+	void testVentRate() throws PressureException {
+		PressureSimulation simulation = new PressureSimulation();
+		int chamber = simulation.addChamber(2.0, 4.0, 1.0, 5.0);
+		simulation.setTarget(chamber, 1.0);
+
+		simulation.step(2.0);
+		assertEquals(4.0, simulation.getPressure(chamber), 1e-9);
+		assertFalse(simulation.isSettled(chamber, 0.001));
+	}
+
+	@Test
+	@DisplayName("Ensures the sensor view reads the simulated pressure and sets the target on write.")
+	void testSensorView() throws PressureException {
+		PressureSimulation simulation = new PressureSimulation(1);
+		simulation.addChamber(1.0, 1.0, 1.0, 1.0);
+		int chamber = simulation.addChamber(1.0, 1.0, 1.0, 2.0);
+		IPressureSensor sensor = simulation.sensor(chamber);
+
+		sensor.setPressure(3.0);
+		assertEquals(2.0, sensor.getPressure(), 1e-9);
+		assertEquals(3.0, simulation.getTarget(chamber), 1e-9);
+		simulation.step(0.5);
+		assertEquals(2.5, sensor.getPressure(), 1e-9);
+		assertThrows(PressureException.class, () -> sensor.setPressure(-1.0),
+		"Expected setPressure to throw an exception as negative pressure is not possible. Exception not thrown.");
+	}
+}
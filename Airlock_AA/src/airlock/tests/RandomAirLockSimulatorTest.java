@@ -0,0 +1,43 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.verification.Invariant;
+import airlock.verification.RandomAirLockSimulator;
+import airlock.verification.SimulationResult;
+import airlock.verification.Violation;
+
+public class RandomAirLockSimulatorTest {
+
+    @Test
+    @DisplayName("Ensures random command sequences never break the airlock invariants.")
+    void testInvariantsHold() {
+        SimulationResult result = new RandomAirLockSimulator(20240611L).run(20_000, 40);
+        assertTrue(result.passed(), () -> result.toString());
+        assertEquals(20_000, result.getSequences());
+        assertEquals(20_000L * 40, result.getSteps());
+    }
+
+    @Test
+    @DisplayName("Ensures a broken invariant is found, shrunk to a minimal sequence and reproduced from the seed.")
+    void testFailureIsShrunkAndReproducible() {
+        Invariant outerNeverOpens = subject -> subject.airLock.isOuterDoorOpen() ? "outer door opened" : null;
+        RandomAirLockSimulator simulator = new RandomAirLockSimulator(42L, List.of(outerNeverOpens));
+
+        SimulationResult result = simulator.run(2_000, 40);
+        assertFalse(result.passed());
+        Violation shrunk = result.getViolation();
+        assertEquals("outer door opened", shrunk.getMessage());
+        assertTrue(shrunk.getScenario().length() <= 2, () -> shrunk.toString());
+        assertTrue(shrunk.getScenario().length() <= result.getOriginalViolation().getScenario().length());
+        assertNotNull(simulator.replay(shrunk.getScenario()));
+
+        SimulationResult again = new RandomAirLockSimulator(42L, List.of(outerNeverOpens)).run(2_000, 40);
+        assertEquals(result.getViolation().toString(), again.getViolation().toString());
+    }
+}
@@ -0,0 +1,184 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IPressureSensor;
+import airlock.entities.PressureSensor;
+import airlock.ui.TerminalDashboard;
+
+public class TerminalDashboardTest {
+
+    private static AirLock newAirLock() throws Exception {
+        IPressureSensor enviromentSensor = new PressureSensor(10);
+        IPressureSensor lockSensor = new PressureSensor(10);
+        IPressureSensor cabinSensor = new PressureSensor(13);
+        Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+        Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+        return new AirLock(outerDoor, innerDoor, lockSensor);
+    }
+
+    @Test
+    @DisplayName("Ensures the first render draws every cell and an unchanged fleet writes nothing.")
+    void testIdleRenderWritesNothing() {
+        try {
+            StringWriter out = new StringWriter();
+            TerminalDashboard dashboard = new TerminalDashboard(out, 1004);
+            for (int i = 0; i < 1000; i++) {
+                dashboard.add("A" + i, newAirLock());
+            }
+
+            assertEquals(8000, dashboard.render());
+            assertTrue(out.toString().contains("A999"));
+            int length = out.getBuffer().length();
+
+            assertEquals(0, dashboard.render());
+            assertEquals(length, out.getBuffer().length());
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures only the rows inside the viewport are drawn, and scrolling redraws at the new offset.")
+    void testViewportLimitsDrawnRows() {
+        try {
+            StringWriter out = new StringWriter();
+            TerminalDashboard dashboard = new TerminalDashboard(out, 24);
+            for (int i = 0; i < 1000; i++) {
+                dashboard.add("A" + i, newAirLock());
+            }
+
+            assertEquals(21, dashboard.getVisibleRows());
+            assertEquals(168, dashboard.render());
+            String frame = out.toString();
+            assertTrue(frame.contains("\u001b[3;1HA0 "));
+            assertTrue(frame.contains("\u001b[23;1HA20 "));
+            assertFalse(frame.contains("A21 "));
+            assertFalse(frame.contains("\u001b[24;1HA"));
+
+            out.getBuffer().setLength(0);
+            dashboard.scrollTo(500);
+            assertEquals(168, dashboard.render());
+            frame = out.toString();
+            assertTrue(frame.contains("\u001b[3;1HA500 "));
+            assertFalse(frame.contains("A0 "));
+
+            dashboard.scrollBy(10_000);
+            assertEquals(979, dashboard.getScrollOffset());
+            out.getBuffer().setLength(0);
+            dashboard.render();
+            assertTrue(out.toString().contains("\u001b[23;1HA999 "));
+
+            out.getBuffer().setLength(0);
+            dashboard.setTerminalLines(13);
+            assertEquals(80, dashboard.render());
+            assertFalse(out.toString().contains("A989 "));
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures only the cells that changed are rewritten, at their own screen position.")
+    void testOnlyChangedCellsAreRewritten() {
+        try {
+            StringWriter out = new StringWriter();
+            TerminalDashboard dashboard = new TerminalDashboard(out);
+            dashboard.add("A0", newAirLock());
+            AirLock airlock = newAirLock();
+            dashboard.add("A1", airlock);
+            dashboard.render();
+            out.getBuffer().setLength(0);
+
+            airlock.openOuterDoor();
+            // Outer door and seal changed on the second airlock row (line 4).
+            assertEquals(2, dashboard.render());
+            String frame = out.toString();
+            assertTrue(frame.contains("\u001b[4;14HOPEN"));
+            assertTrue(frame.contains("\u001b[4;30HUNSEALED"));
+            assertFalse(frame.contains("\u001b[3;"));
+
+            out.getBuffer().setLength(0);
+            airlock.setEnvironmentPressure(10.04);
+            assertEquals(0, dashboard.render());
+            airlock.setEnvironmentPressure(11.5);
+            assertEquals(2, dashboard.render());
+            assertTrue(out.toString().contains("11.5"));
+
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a state change triggers a render without waiting for the timer.")
+    void testEventTriggersRender() {
+        try {
+            StringWriter out = new StringWriter();
+            AirLock airlock = newAirLock();
+            try (TerminalDashboard dashboard = new TerminalDashboard(out)) {
+                dashboard.add("A0", airlock);
+                dashboard.start(1, TimeUnit.HOURS);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (!out.toString().contains("A0") && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+
+                airlock.toggleOperationMode();
+                while (!out.toString().contains("AUTO") && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+                assertTrue(out.toString().contains("AUTO"));
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a failed write does not stop the timer, and the next good render redraws the screen.")
+    void testFailedWriteKeepsRefreshing() {
+        try {
+            StringWriter screen = new StringWriter();
+            AtomicInteger failures = new AtomicInteger(3);
+            Writer out = new Writer() {
+                public void write(char[] chars, int offset, int length) throws IOException {
+                    if (failures.getAndDecrement() > 0) throw new IOException("terminal unavailable");
+                    screen.write(chars, offset, length);
+                }
+
+                public void flush() {
+                }
+
+                public void close() {
+                }
+            };
+            try (TerminalDashboard dashboard = new TerminalDashboard(out)) {
+                dashboard.add("A0", newAirLock());
+                dashboard.start(1, TimeUnit.MILLISECONDS);
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (!screen.toString().contains("A0") && System.nanoTime() < deadline) {
+                    Thread.sleep(1);
+                }
+                assertTrue(screen.toString().contains("\u001b[2J"), "The whole screen is redrawn after the failures.");
+                assertTrue(screen.toString().contains("13.0"));
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package airlock.tests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockResult;
+import airlock.entities.CycleScript;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IAirLock;
+import airlock.entities.PressureSensor;
+import airlock.journal.JournalEvent;
+import airlock.journal.SyncPolicy;
+import airlock.journal.TransitionJournal;
+
+public class TransitionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Ensures an AUTO pass-through records mode, door, seal and pressure events in order.")
+    void testAirLockCycleIsJournaled() throws Exception {
+        Path file = directory.resolve("airlock.journal");
+        try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.everyEvent())) {
+            PressureSensor enviromentSensor = new PressureSensor(10);
+            PressureSensor lockSensor = new PressureSensor(1);
+            PressureSensor cabinSensor = new PressureSensor(13);
+            Door outerDoor = new Door(enviromentSensor, lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(cabinSensor, lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+
+            airlock.attachJournal(journal, 7);
+            lockSensor.attachJournal(journal, 8);
+
+            airlock.toggleOperationMode();
+            airlock.openInnerDoor();
+            airlock.closeInnerDoor();
+        }
+
+        List<JournalEvent> events = new ArrayList<>();
+        List<Integer> sources = new ArrayList<>();
+        long count = TransitionJournal.read(file, (sequence, time, source, event, value) -> {
+            events.add(event);
+            sources.add(source);
+        });
+
+        assertEquals(List.of(
+            JournalEvent.AUTO_MODE,
+            JournalEvent.PRESSURE_SET, JournalEvent.PRESSURE_SET,
+            JournalEvent.INNER_DOOR_OPENED, JournalEvent.UNSEALED,
+            JournalEvent.INNER_DOOR_CLOSED, JournalEvent.SEALED,
+            JournalEvent.PRESSURE_SET), events);
+        assertEquals(events.size(), count);
+        assertEquals(7, sources.get(0));
+        assertEquals(8, sources.get(1));
+    }
+
+    @Test
+    @DisplayName("Ensures reopening a journal appends after the existing records.")
+    void testReopenAppends() throws Exception {
+        Path file = directory.resolve("reopen.journal");
+        try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.none())) {
+            journal.append(1, JournalEvent.DOOR_OPENED, 0.0);
+            journal.append(1, JournalEvent.DOOR_CLOSED, 0.0);
+        }
+        try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.interval(10))) {
+            assertEquals(2, journal.size());
+            journal.append(2, JournalEvent.PRESSURE_SET, 4.5);
+        }
+
+        double[] lastValue = new double[1];
+        long count = TransitionJournal.read(file, (sequence, time, source, event, value) -> lastValue[0] = value);
+        assertEquals(3, count);
+        assertEquals(4.5, lastValue[0]);
+    }
+
+    @Test
+    @DisplayName("Ensures concurrent appends from many threads each get their own record.")
+    void testConcurrentAppends() throws Exception {
+        Path file = directory.resolve("concurrent.journal");
+        Thread[] writers = new Thread[4];
+        try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.everyBytes(64 * 1024))) {
+            for (int t = 0; t < writers.length; t++) {
+                int source = t;
+                writers[t] = new Thread(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        journal.append(source, JournalEvent.PRESSURE_SET, i);
+                    }
+                });
+                writers[t].start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+
+        int[] perSource = new int[writers.length];
+        long count = TransitionJournal.read(file, (sequence, time, source, event, value) -> perSource[source]++);
+        assertEquals(40_000, count);
+        for (int n : perSource) {
+            assertEquals(10_000, n);
+        }
+    }
+
+    @Test
+    @DisplayName("Ensures a torn slot is skipped rather than ending the journal, and reopening appends after the last record.")
+    void testTornSlotIsSkipped() throws Exception {
+        Path file = directory.resolve("torn.journal");
+        try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.none())) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(1, JournalEvent.PRESSURE_SET, i);
+            }
+        }
+        // Slot 1 as a writer that had reserved it but not yet written would leave it.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(TransitionJournal.RECORD_SIZE), 2L * TransitionJournal.RECORD_SIZE);
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        assertEquals(2, TransitionJournal.read(file, (sequence, time, source, event, value) -> sequences.add(sequence)));
+        assertEquals(List.of(0L, 2L), sequences);
+
+        try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.none())) {
+            assertEquals(3, journal.size());
+            journal.append(1, JournalEvent.PRESSURE_SET, 3);
+        }
+        sequences.clear();
+        assertEquals(3, TransitionJournal.read(file, (sequence, time, source, event, value) -> sequences.add(sequence)));
+        assertEquals(List.of(0L, 2L, 3L), sequences);
+    }
+
+    @Test
+    @DisplayName("Ensures appending to a closed journal throws instead of writing to a stale mapping.")
+    void testAppendAfterCloseThrows() throws Exception {
+        Path file = directory.resolve("closed.journal");
+        TransitionJournal journal = new TransitionJournal(file, SyncPolicy.everyEvent());
+        journal.append(1, JournalEvent.DOOR_OPENED, 0.0);
+        journal.close();
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> journal.append(1, JournalEvent.DOOR_CLOSED, 0.0));
+        assertEquals(1, TransitionJournal.read(file, (sequence, time, source, event, value) -> { }));
+    }
+
+    @Test
+    @DisplayName("Ensures a door cycled within one script is journaled, not just the net change.")
+    void testScriptTransitionsAreJournaled() throws Exception {
+        Path file = directory.resolve("script.journal");
+        try (TransitionJournal journal = new TransitionJournal(file, SyncPolicy.none())) {
+            PressureSensor lockSensor = new PressureSensor(10);
+            Door outerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+            Door innerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+            AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+            airlock.attachJournal(journal, 1);
+
+            assertTrue(airlock.runScript(CycleScript.compile("OI, CI")).isSuccess());
+        }
+
+        List<JournalEvent> events = new ArrayList<>();
+        TransitionJournal.read(file, (sequence, time, source, event, value) -> events.add(event));
+        assertEquals(List.of(
+            JournalEvent.INNER_DOOR_OPENED, JournalEvent.UNSEALED,
+            JournalEvent.INNER_DOOR_CLOSED, JournalEvent.SEALED), events);
+    }
+
+    @Test
+    @DisplayName("Ensures a journal closed while still attached drops records instead of failing commands.")
+    void testClosedAttachedJournalDropsRecords() throws Exception {
+        Path file = directory.resolve("detached.journal");
+        TransitionJournal journal = new TransitionJournal(file, SyncPolicy.none());
+        PressureSensor lockSensor = new PressureSensor(10);
+        Door outerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+        Door innerDoor = new Door(new PressureSensor(10), lockSensor, DoorState.CLOSED);
+        AirLock airlock = new AirLock(outerDoor, innerDoor, lockSensor);
+        airlock.attachJournal(journal, 1);
+        outerDoor.attachJournal(journal, 2);
+        lockSensor.attachJournal(journal, 3);
+        journal.close();
+
+        assertEquals(AirLockResult.OK, airlock.tryOpenOuterDoor());
+        assertTrue(outerDoor.isOpen());
+        assertEquals(IAirLock.STATE_OUTER_OPEN, airlock.getState());
+        assertEquals(AirLockResult.OK, airlock.tryCloseOuterDoor());
+        assertTrue(airlock.isSealed());
+        assertTrue(journal.getDroppedCount() >= 6);
+    }
+}
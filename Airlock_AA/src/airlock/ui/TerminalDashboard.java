@@ -0,0 +1,256 @@
+package airlock.ui;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import airlock.entities.AirLockListener;
+import airlock.entities.IAirLock;
+
+/*
+ * Live ANSI terminal view of many airlocks, one row each. The last text drawn
+ * in every cell is remembered and a render only repositions the cursor and
+ * rewrites the cells whose text has changed, so an idle fleet costs a scan
+ * of the rows and no output at all.
+ *
+ * Only the rows that fit on the terminal are drawn: a viewport starting at
+ * the scroll offset and as tall as the terminal allows below the header.
+ * Moving the viewport or resizing the terminal redraws the whole screen.
+ *
+ * Renders happen on a timer (which also picks up pressure changes made
+ * outside any command) and straight after any airlock event, coalesced so a
+ * burst of events causes one render. A failed write is reported once, to
+ * the render thread's uncaught exception handler, and the timer keeps
+ * going; the next render that succeeds redraws the whole screen.
+ */
+public class TerminalDashboard implements AutoCloseable {
+
+	static final String ESC = "\u001b[";
+
+	private static final String[] HEADERS = {"Airlock", "Outer", "Inner", "Seal", "Mode", "Env bar", "Lock bar", "Cabin bar"};
+	private static final int[] WIDTHS = {12, 7, 7, 9, 7, 9, 9, 9};
+	private static final int CELLS = HEADERS.length;
+	private static final int FIRST_ROW = 3;
+	private static final int DEFAULT_LINES = 24;
+
+	private static final class Row {
+		final String id;
+		final IAirLock airLock;
+		final String[] drawn = new String[CELLS];
+		final long[] tenths = new long[CELLS]; // pressure cells only
+
+		Row(String id, IAirLock airLock) {
+			this.id = id;
+			this.airLock = airLock;
+		}
+	}
+
+	private final Writer out;
+	private final List<Row> rows = new ArrayList<>();
+	private final StringBuilder frame = new StringBuilder(4096);
+	private final AtomicBoolean renderPending = new AtomicBoolean();
+	private final AirLockListener listener = (source, event) -> requestRender();
+	private final int[] columns = new int[CELLS];
+	private int visibleRows;
+	private int scrollOffset;
+	private boolean drawnOnce;
+	private boolean failing; // guarded by this
+	private volatile ScheduledExecutorService renderer;
+
+	/*
+	 * Sizes the viewport from the LINES environment variable, or a 24 line
+	 * terminal if it is not set.
+	 */
+	public TerminalDashboard(Writer out) {
+		this(out, terminalLines());
+	}
+
+	public TerminalDashboard(Writer out, int terminalLines) {
+		this.out = out;
+		setTerminalLines(terminalLines);
+		int column = 1;
+		for (int i = 0; i < CELLS; i++) {
+			columns[i] = column;
+			column += WIDTHS[i] + 1;
+		}
+	}
+
+	public synchronized void add(String id, IAirLock airLock) {
+		rows.add(new Row(id, airLock));
+		airLock.addListener(listener);
+		drawnOnce = false;
+	}
+
+	public synchronized int size() {
+		return rows.size();
+	}
+
+	/*
+	 * Call when the terminal is resized. The last line is left for the cursor.
+	 */
+	public synchronized void setTerminalLines(int lines) {
+		if (lines <= FIRST_ROW) throw new IllegalArgumentException("The terminal must have more than " + FIRST_ROW + " lines.");
+		visibleRows = lines - FIRST_ROW;
+		scrollOffset = Math.max(0, Math.min(scrollOffset, rows.size() - visibleRows));
+		drawnOnce = false;
+	}
+
+	public synchronized int getVisibleRows() {
+		return visibleRows;
+	}
+
+	/*
+	 * Moves the viewport so the given row is at the top, clamped so the
+	 * viewport stays within the fleet.
+	 */
+	public synchronized void scrollTo(int row) {
+		int offset = Math.max(0, Math.min(row, rows.size() - visibleRows));
+		if (offset == scrollOffset) return;
+		scrollOffset = offset;
+		drawnOnce = false;
+	}
+
+	public synchronized void scrollBy(int rowCount) {
+		scrollTo(scrollOffset + rowCount);
+	}
+
+	public synchronized int getScrollOffset() {
+		return scrollOffset;
+	}
+
+	public synchronized void start(long refreshInterval, TimeUnit unit) {
+		if (renderer != null) return;
+		renderer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "airlock-dashboard");
+			thread.setDaemon(true);
+			return thread;
+		});
+		renderer.scheduleWithFixedDelay(this::renderQuietly, 0, refreshInterval, unit);
+	}
+
+	/*
+	 * Brings the screen up to date and returns how many cells were rewritten.
+	 */
+	public synchronized int render() throws IOException {
+		renderPending.set(false);
+		frame.setLength(0);
+		int written = 0;
+		if (!drawnOnce) {
+			frame.append(ESC).append("2J").append(ESC).append("?25l");
+			for (int i = 0; i < CELLS; i++) {
+				cell(1, i, HEADERS[i]);
+			}
+			for (Row row : rows) {
+				Arrays.fill(row.drawn, null);
+			}
+			drawnOnce = true;
+		}
+		int end = Math.min(rows.size(), scrollOffset + visibleRows);
+		for (int r = scrollOffset; r < end; r++) {
+			Row row = rows.get(r);
+			IAirLock airLock = row.airLock;
+			written += update(row, r, 0, row.id);
+			written += update(row, r, 1, airLock.isOuterDoorOpen() ? "OPEN" : "closed");
+			written += update(row, r, 2, airLock.isInnerDoorOpen() ? "OPEN" : "closed");
+			written += update(row, r, 3, airLock.isSealed() ? "sealed" : "UNSEALED");
+			written += update(row, r, 4, airLock.isInAutoMode() ? "AUTO" : "manual");
+			written += updatePressure(row, r, 5, airLock.getEnvironmentPressure());
+			written += updatePressure(row, r, 6, airLock.getLockPressure());
+			written += updatePressure(row, r, 7, airLock.getCabinPressure());
+		}
+		if (frame.length() > 0) {
+			frame.append(ESC).append(FIRST_ROW + end - scrollOffset).append(";1H");
+			try {
+				out.append(frame);
+				out.flush();
+			} catch (IOException e) {
+				// the remembered cells no longer match the screen
+				drawnOnce = false;
+				throw e;
+			}
+		}
+		return written;
+	}
+
+	@Override
+	public synchronized void close() {
+		if (renderer != null) renderer.shutdownNow();
+		renderer = null;
+		for (Row row : rows) {
+			row.airLock.removeListener(listener);
+		}
+		try {
+			out.append(ESC).append("?25h");
+			out.flush();
+		} catch (IOException e) {
+			// the terminal has gone away
+		}
+	}
+
+	private void requestRender() {
+		ScheduledExecutorService current = renderer;
+		if (current != null && renderPending.compareAndSet(false, true)) {
+			current.execute(this::renderQuietly);
+		}
+	}
+
+	// Never throws, since an exception would cancel the scheduled refresh.
+	private synchronized void renderQuietly() {
+		try {
+			render();
+			failing = false;
+		} catch (IOException | RuntimeException e) {
+			if (failing) return;
+			failing = true;
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread,
+				e instanceof IOException ? new UncheckedIOException((IOException) e) : e);
+		}
+	}
+
+	private int update(Row row, int index, int cell, String text) {
+		if (text.equals(row.drawn[cell])) return 0;
+		row.drawn[cell] = text;
+		cell(FIRST_ROW + index - scrollOffset, cell, text);
+		return 1;
+	}
+
+	// Pressures are shown to one decimal place and compared as whole tenths,
+	// so an unchanged reading allocates no text.
+	private int updatePressure(Row row, int index, int cell, double pressure) {
+		long tenths = Math.round(pressure * 10.0);
+		if (row.drawn[cell] != null && row.tenths[cell] == tenths) return 0;
+		row.tenths[cell] = tenths;
+		String sign = tenths < 0 ? "-" : "";
+		return update(row, index, cell, sign + Math.abs(tenths / 10) + "." + Math.abs(tenths % 10));
+	}
+
+	private static int terminalLines() {
+		try {
+			String lines = System.getenv("LINES");
+			return lines == null ? DEFAULT_LINES : Math.max(FIRST_ROW + 1, Integer.parseInt(lines.trim()));
+		} catch (NumberFormatException e) {
+			return DEFAULT_LINES;
+		}
+	}
+
+	private void cell(int line, int cell, String text) {
+		frame.append(ESC).append(line).append(';').append(columns[cell]).append('H');
+		int width = WIDTHS[cell];
+		if (text.length() > width) {
+			frame.append(text, 0, width);
+		} else {
+			frame.append(text);
+			for (int i = text.length(); i < width; i++) {
+				frame.append(' ');
+			}
+		}
+	}
+}
@@ -0,0 +1,10 @@
+package airlock.verification;
+
+/*
+ * A property that must hold after every step. Returns null when it holds, or
+ * a description of what is wrong.
+ */
+public interface Invariant {
+
+	String check(Subject subject);
+}
@@ -0,0 +1,52 @@
+package airlock.verification;
+
+import java.util.List;
+
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+import airlock.entities.IAirLock;
+import airlock.entities.Pressures;
+
+/*
+ * The airlock safety properties checked by default.
+ */
+public final class Invariants {
+
+	public static final Invariant AUTO_NEVER_BOTH_OPEN = subject -> {
+		AirLock airLock = subject.airLock;
+		return airLock.isInAutoMode() && airLock.isOuterDoorOpen() && airLock.isInnerDoorOpen()
+			? "both doors are open in AUTO mode" : null;
+	};
+
+	public static final Invariant SEALED_IFF_BOTH_CLOSED = subject -> {
+		AirLock airLock = subject.airLock;
+		boolean bothClosed = airLock.isOuterDoorClosed() && airLock.isInnerDoorClosed();
+		return airLock.isSealed() != bothClosed
+			? "sealed is " + airLock.isSealed() + " but both doors closed is " + bothClosed : null;
+	};
+
+	public static final Invariant OPEN_DOOR_IS_BALANCED = subject -> {
+		if (subject.outerDoor.isOpen() && !balanced(subject.outerDoor)) return "outer door is open across a pressure difference";
+		if (subject.innerDoor.isOpen() && !balanced(subject.innerDoor)) return "inner door is open across a pressure difference";
+		return null;
+	};
+
+	// The door bits of the airlock's state word, not its door queries, which
+	// ask the doors themselves.
+	public static final Invariant AIRLOCK_MATCHES_DOORS = subject -> {
+		int state = subject.airLock.getState();
+		if (((state & IAirLock.STATE_OUTER_OPEN) != 0) != subject.outerDoor.isOpen()) return "airlock and outer door disagree";
+		if (((state & IAirLock.STATE_INNER_OPEN) != 0) != subject.innerDoor.isOpen()) return "airlock and inner door disagree";
+		return null;
+	};
+
+	public static final List<Invariant> DEFAULTS = List.of(
+		AUTO_NEVER_BOTH_OPEN, SEALED_IFF_BOTH_CLOSED, OPEN_DOOR_IS_BALANCED, AIRLOCK_MATCHES_DOORS);
+
+	private Invariants() {
+	}
+
+	private static boolean balanced(Door door) {
+		return Pressures.isBalanced(door, door.getProfile().getToleranceMicroBar());
+	}
+}
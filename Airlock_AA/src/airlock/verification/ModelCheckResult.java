@@ -0,0 +1,46 @@
+package airlock.verification;
+
+import java.util.List;
+
+public final class ModelCheckResult {
+
+	private final int states;
+	private final long transitions;
+	private final int depth;
+	private final List<Violation> violations;
+
+	ModelCheckResult(int states, long transitions, int depth, List<Violation> violations) {
+		this.states = states;
+		this.transitions = transitions;
+		this.depth = depth;
+		this.violations = List.copyOf(violations);
+	}
+
+	public boolean passed() {
+		return violations.isEmpty();
+	}
+
+	public int getStates() {
+		return states;
+	}
+
+	public long getTransitions() {
+		return transitions;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/*
+	 * Every violating state or transition found, shortest path first.
+	 */
+	public List<Violation> getViolations() {
+		return violations;
+	}
+
+	public String toString() {
+		return String.format("ModelCheckResult: %d states, %d transitions, depth %d, %d violations",
+			states, transitions, depth, violations.size());
+	}
+}
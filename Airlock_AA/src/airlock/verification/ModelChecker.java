@@ -0,0 +1,294 @@
+package airlock.verification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockCommand;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.IAirLock;
+import airlock.entities.OperationMode;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+/*
+ * Exhaustive breadth-first exploration of the real AirLock implementation.
+ *
+ * Pressures are limited to a small set of levels chosen around
+ * Door.TOLERANCE (by default a base pressure, two values just inside and just
+ * outside the tolerance from it, and vacuum); every command and every SX/SI to
+ * one of the levels keeps all three pressures inside the set, so the state
+ * space is finite. A state is packed into an int:
+ *
+ *   bit 0-1  outer and inner Door open
+ *   bit 2-3  outer and inner door open in the AirLock's state word
+ *   bit 4-5  sealed, AUTO, also from the state word
+ *   then three LEVEL_BITS fields: environment, lock and cabin pressure level
+ *
+ * and the visited set is a bitset over that range. Each BFS level is expanded
+ * in parallel on the common ForkJoin pool: a state is rebuilt from its code,
+ * one action is applied, and the successor is claimed with a CAS on its
+ * visited bit. Every state is checked against the invariants when it is first
+ * seen; a violating state is reported with the shortest path that reaches it,
+ * as a replayable Scenario, and is not expanded further. The constructors can
+ * only rebuild states whose word agrees with the doors, so a state that does
+ * not encode back to itself once rebuilt is reported rather than expanded.
+ */
+public class ModelChecker {
+
+	private static final int LEVEL_BITS = 3;
+	private static final int CONTROL_BITS = 6;
+	private static final int NO_PARENT = -1;
+	private static final AirLockCommand[] COMMANDS = AirLockCommand.values();
+
+	// A violating state (action < 0) or a transition out of state that failed.
+	private static final class Found {
+		final int state;
+		final int action;
+		final String message;
+
+		Found(int state, int action, String message) {
+			this.state = state;
+			this.action = action;
+			this.message = message;
+		}
+	}
+
+	public static double[] defaultLevels() {
+		return new double[] {0.0, 10.0, 10.0 + Door.TOLERANCE * 0.6, 10.0 + Door.TOLERANCE * 1.2};
+	}
+
+	private final double[] levels;
+	private final List<Invariant> invariants;
+	private final int actionCount;
+
+	public ModelChecker() {
+		this(defaultLevels(), Invariants.DEFAULTS);
+	}
+
+	public ModelChecker(double[] levels, List<Invariant> invariants) {
+		if (levels.length < 1 || levels.length > 1 << LEVEL_BITS) {
+			throw new IllegalArgumentException("Between 1 and " + (1 << LEVEL_BITS) + " pressure levels are supported.");
+		}
+		for (double level : levels) {
+			if (level < 0.0) throw new IllegalArgumentException("Pressure levels must not be negative.");
+		}
+		this.levels = levels.clone();
+		this.invariants = List.copyOf(invariants);
+		this.actionCount = COMMANDS.length + 2 * levels.length;
+	}
+
+	public ModelCheckResult run() {
+		int stateCount = 1 << (CONTROL_BITS + 3 * LEVEL_BITS);
+		AtomicLongArray visited = new AtomicLongArray((stateCount + 63) >>> 6);
+		int[] parent = new int[stateCount];
+		byte[] parentAction = new byte[stateCount];
+		ConcurrentLinkedQueue<Found> violations = new ConcurrentLinkedQueue<>();
+		LongAdder transitions = new LongAdder();
+
+		int[] frontier = initialStates(visited, parent, violations);
+		int reached = frontier.length;
+		int depth = 0;
+		while (frontier.length > 0) {
+			int[] current = frontier;
+			int[] next = new int[current.length * actionCount];
+			AtomicInteger nextSize = new AtomicInteger();
+			IntStream.range(0, current.length).parallel().forEach(i -> {
+				int state = current[i];
+				if (encode(build(state)) != state) {
+					violations.add(new Found(state, -1, "the state word disagrees with the doors"));
+					return;
+				}
+				for (int action = 0; action < actionCount; action++) {
+					transitions.increment();
+					Subject subject = build(state);
+					String problem = apply(subject, action);
+					int successor = problem == null ? encode(subject) : state;
+					if (problem == null && successor < 0) problem = "a pressure left the modelled levels";
+					if (problem != null) {
+						violations.add(new Found(state, action, problem));
+						continue;
+					}
+					if (!claim(visited, successor)) continue;
+					parent[successor] = state;
+					parentAction[successor] = (byte) action;
+					problem = check(subject);
+					if (problem != null) {
+						violations.add(new Found(successor, -1, problem));
+					} else {
+						next[nextSize.getAndIncrement()] = successor;
+					}
+				}
+			});
+			frontier = Arrays.copyOf(next, nextSize.get());
+			reached += frontier.length;
+			if (frontier.length > 0) depth++;
+		}
+
+		List<Violation> found = new ArrayList<>();
+		for (Found violation : violations) {
+			Scenario path = pathTo(violation.state, parent, parentAction);
+			if (violation.action >= 0) {
+				Scenario.Step[] steps = Arrays.copyOf(path.steps, path.steps.length + 1);
+				steps[path.steps.length] = stepFor(violation.action);
+				path = path.withSteps(steps);
+			}
+			found.add(new Violation(path, path.steps.length - 1, violation.message));
+		}
+		found.sort((a, b) -> Integer.compare(a.getScenario().length(), b.getScenario().length()));
+		return new ModelCheckResult(countVisited(visited), transitions.sum(), depth, found);
+	}
+
+	private int[] initialStates(AtomicLongArray visited, int[] parent, ConcurrentLinkedQueue<Found> violations) {
+		List<Integer> initial = new ArrayList<>();
+		for (DoorState outer : DoorState.values()) {
+			for (DoorState inner : DoorState.values()) {
+				for (OperationMode mode : OperationMode.values()) {
+					for (double environment : levels) {
+						for (double lock : levels) {
+							for (double cabin : levels) {
+								Subject subject;
+								try {
+									subject = new Scenario(environment, lock, cabin, outer, inner, mode).start();
+								} catch (DoorException | PressureException e) {
+									continue; // not a configuration the constructors accept
+								}
+								int state = encode(subject);
+								if (!claim(visited, state)) continue;
+								parent[state] = NO_PARENT;
+								String problem = check(subject);
+								if (problem != null) {
+									violations.add(new Found(state, -1, problem));
+								} else {
+									initial.add(state);
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		return initial.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private String apply(Subject subject, int action) {
+		try {
+			stepFor(action).apply(subject.airLock);
+			return null;
+		} catch (RuntimeException e) {
+			return "step threw " + e;
+		}
+	}
+
+	private Scenario.Step stepFor(int action) {
+		if (action < COMMANDS.length) return Scenario.Step.command(COMMANDS[action]);
+		int level = (action - COMMANDS.length) % levels.length;
+		return action - COMMANDS.length < levels.length
+			? Scenario.Step.setEnvironmentPressure(levels[level])
+			: Scenario.Step.setCabinPressure(levels[level]);
+	}
+
+	private String check(Subject subject) {
+		for (Invariant invariant : invariants) {
+			String problem = invariant.check(subject);
+			if (problem != null) return problem;
+		}
+		return null;
+	}
+
+	// -1 if a pressure is not one of the levels.
+	int encode(Subject subject) {
+		AirLock airLock = subject.airLock;
+		int environment = levelOf(airLock.getEnvironmentPressure());
+		int lock = levelOf(airLock.getLockPressure());
+		int cabin = levelOf(airLock.getCabinPressure());
+		if ((environment | lock | cabin) < 0) return -1;
+		int word = airLock.getState();
+		int state = 0;
+		if (subject.outerDoor.isOpen()) state |= 1;
+		if (subject.innerDoor.isOpen()) state |= 1 << 1;
+		if ((word & IAirLock.STATE_OUTER_OPEN) != 0) state |= 1 << 2;
+		if ((word & IAirLock.STATE_INNER_OPEN) != 0) state |= 1 << 3;
+		if ((word & IAirLock.STATE_SEALED) != 0) state |= 1 << 4;
+		if ((word & IAirLock.STATE_AUTO) != 0) state |= 1 << 5;
+		state |= environment << CONTROL_BITS;
+		state |= lock << (CONTROL_BITS + LEVEL_BITS);
+		state |= cabin << (CONTROL_BITS + 2 * LEVEL_BITS);
+		return state;
+	}
+
+	// The caller checks that the rebuilt subject encodes back to the state.
+	private Subject build(int state) {
+		try {
+			return scenarioFor(state).start();
+		} catch (DoorException | PressureException e) {
+			throw new IllegalStateException("State " + state + " cannot be rebuilt", e);
+		}
+	}
+
+	private Scenario scenarioFor(int state, Scenario.Step... steps) {
+		int mask = (1 << LEVEL_BITS) - 1;
+		return new Scenario(
+			levels[(state >>> CONTROL_BITS) & mask],
+			levels[(state >>> (CONTROL_BITS + LEVEL_BITS)) & mask],
+			levels[(state >>> (CONTROL_BITS + 2 * LEVEL_BITS)) & mask],
+			(state & 1) != 0 ? DoorState.OPEN : DoorState.CLOSED,
+			(state & 2) != 0 ? DoorState.OPEN : DoorState.CLOSED,
+			(state & (1 << 5)) != 0 ? OperationMode.AUTO : OperationMode.MANUAL,
+			steps);
+	}
+
+	private Scenario pathTo(int state, int[] parent, byte[] parentAction) {
+		List<Scenario.Step> steps = new ArrayList<>();
+		int current = state;
+		while (parent[current] != NO_PARENT) {
+			steps.add(stepFor(parentAction[current]));
+			current = parent[current];
+		}
+		Collections.reverse(steps);
+		return scenarioFor(current, steps.toArray(new Scenario.Step[0]));
+	}
+
+	private int levelOf(double pressure) {
+		for (int i = 0; i < levels.length; i++) {
+			if (levels[i] == pressure) return i;
+		}
+		return -1;
+	}
+
+	private static boolean claim(AtomicLongArray visited, int state) {
+		int word = state >>> 6;
+		long bit = 1L << state;
+		while (true) {
+			long current = visited.get(word);
+			if ((current & bit) != 0) return false;
+			if (visited.compareAndSet(word, current, current | bit)) return true;
+		}
+	}
+
+	private static int countVisited(AtomicLongArray visited) {
+		int count = 0;
+		for (int i = 0; i < visited.length(); i++) {
+			count += Long.bitCount(visited.get(i));
+		}
+		return count;
+	}
+
+	public static void main(String[] args) {
+		long start = System.nanoTime();
+		ModelCheckResult result = new ModelChecker().run();
+		System.out.printf("%s (%.2f s)%n", result, (System.nanoTime() - start) / 1e9);
+		for (Violation violation : result.getViolations()) {
+			System.out.println(violation);
+		}
+		if (!result.passed()) System.exit(1);
+	}
+}
@@ -0,0 +1,185 @@
+package airlock.verification;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+import airlock.entities.AirLockCommand;
+import airlock.entities.OperationMode;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+/*
+ * Runs random command sequences against fresh AirLock/Door/PressureSensor
+ * stacks and checks a set of invariants after every step.
+ *
+ * Sequence i is generated from (seed, i) alone, so a run is reproducible
+ * whatever the thread count; sequences run in parallel on the common
+ * ForkJoin pool. The failing sequence with the lowest index is reported,
+ * after shrinking it to the fewest steps and roundest pressures that still
+ * break the same invariant.
+ *
+ * Usage: java airlock.verification.RandomAirLockSimulator [seed] [sequences] [length]
+ */
+public class RandomAirLockSimulator {
+
+	private static final double[] COMMON_PRESSURES = {0.0, 1.0, 5.0, 10.0, 13.0};
+	private static final AirLockCommand[] COMMANDS = AirLockCommand.values();
+
+	private final long seed;
+	private final List<Invariant> invariants;
+
+	public RandomAirLockSimulator(long seed) {
+		this(seed, Invariants.DEFAULTS);
+	}
+
+	public RandomAirLockSimulator(long seed, List<Invariant> invariants) {
+		this.seed = seed;
+		this.invariants = List.copyOf(invariants);
+	}
+
+	public SimulationResult run(int sequences, int length) {
+		LongAdder steps = new LongAdder();
+		Violation[] first = new Violation[1];
+		int[] firstIndex = {Integer.MAX_VALUE};
+		IntStream.range(0, sequences).parallel().forEach(index -> {
+			synchronized (first) {
+				if (index > firstIndex[0]) return;
+			}
+			Violation violation = replay(generate(index, length));
+			steps.add(violation == null ? length : violation.getStep() + 1);
+			if (violation == null) return;
+			synchronized (first) {
+				if (index < firstIndex[0]) {
+					firstIndex[0] = index;
+					first[0] = violation;
+				}
+			}
+		});
+		Violation original = first[0];
+		return new SimulationResult(sequences, steps.sum(), original, original == null ? null : shrink(original));
+	}
+
+	/*
+	 * The index-th random scenario for this seed.
+	 */
+	public Scenario generate(int index, int length) {
+		SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+		Scenario.Step[] steps = new Scenario.Step[length];
+		for (int i = 0; i < length; i++) {
+			int choice = random.nextInt(10);
+			if (choice < 8) steps[i] = Scenario.Step.command(COMMANDS[random.nextInt(COMMANDS.length)]);
+			else if (choice == 8) steps[i] = Scenario.Step.setEnvironmentPressure(stepPressure(random));
+			else steps[i] = Scenario.Step.setCabinPressure(stepPressure(random));
+		}
+		return new Scenario(pressure(random), pressure(random), pressure(random),
+			random.nextBoolean() ? OperationMode.AUTO : OperationMode.MANUAL, steps);
+	}
+
+	/*
+	 * Runs the scenario and returns the first violation, or null.
+	 */
+	public Violation replay(Scenario scenario) {
+		Subject subject;
+		try {
+			subject = scenario.start();
+		} catch (DoorException | PressureException e) {
+			throw new IllegalArgumentException("Scenario cannot be started: " + e.getMessage(), e);
+		}
+		String problem = check(subject);
+		if (problem != null) return new Violation(scenario, -1, problem);
+		for (int i = 0; i < scenario.steps.length; i++) {
+			try {
+				scenario.steps[i].apply(subject.airLock);
+			} catch (RuntimeException e) {
+				return new Violation(scenario, i, "step threw " + e);
+			}
+			problem = check(subject);
+			if (problem != null) return new Violation(scenario, i, problem);
+		}
+		return null;
+	}
+
+	public Violation shrink(Violation violation) {
+		String message = violation.getMessage();
+		Violation best = truncate(violation);
+		boolean progress = true;
+		while (progress) {
+			progress = false;
+			Scenario.Step[] steps = best.getScenario().steps;
+			for (int chunk = Math.max(1, steps.length / 2); chunk >= 1 && !progress; chunk /= 2) {
+				for (int start = 0; start + chunk <= steps.length; start += chunk) {
+					Scenario.Step[] candidate = new Scenario.Step[steps.length - chunk];
+					System.arraycopy(steps, 0, candidate, 0, start);
+					System.arraycopy(steps, start + chunk, candidate, start, steps.length - start - chunk);
+					Violation found = replay(best.getScenario().withSteps(candidate));
+					if (found != null && found.getMessage().equals(message)) {
+						best = truncate(found);
+						progress = true;
+						break;
+					}
+				}
+			}
+		}
+		return simplifyPressures(best, message);
+	}
+
+	private String check(Subject subject) {
+		for (Invariant invariant : invariants) {
+			String problem = invariant.check(subject);
+			if (problem != null) return problem;
+		}
+		return null;
+	}
+
+	private static Violation truncate(Violation violation) {
+		Scenario scenario = violation.getScenario();
+		int length = violation.getStep() + 1;
+		if (length == scenario.steps.length) return violation;
+		return new Violation(scenario.withSteps(Arrays.copyOf(scenario.steps, length)), violation.getStep(), violation.getMessage());
+	}
+
+	// Rounds each pressure, one at a time, wherever the failure survives it.
+	private Violation simplifyPressures(Violation violation, String message) {
+		Violation best = violation;
+		for (int which = 0; which < 3; which++) {
+			Scenario scenario = best.getScenario();
+			double[] pressures = {scenario.environmentPressure, scenario.lockPressure, scenario.cabinPressure};
+			double rounded = Math.rint(pressures[which]);
+			if (rounded == pressures[which]) continue;
+			pressures[which] = rounded;
+			Violation found = replay(scenario.withPressures(pressures[0], pressures[1], pressures[2]));
+			if (found != null && found.getMessage().equals(message)) best = truncate(found);
+		}
+		for (int i = 0; i < best.getScenario().steps.length; i++) {
+			Scenario.Step[] steps = best.getScenario().steps.clone();
+			Scenario.Step step = steps[i];
+			if (step.command != null || Math.rint(step.pressure) == step.pressure) continue;
+			steps[i] = step.cabin ? Scenario.Step.setCabinPressure(Math.rint(step.pressure)) : Scenario.Step.setEnvironmentPressure(Math.rint(step.pressure));
+			Violation found = replay(best.getScenario().withSteps(steps));
+			if (found != null && found.getMessage().equals(message)) best = truncate(found);
+		}
+		return best;
+	}
+
+	private static double pressure(SplittableRandom random) {
+		if (random.nextInt(10) < 7) return COMMON_PRESSURES[random.nextInt(COMMON_PRESSURES.length)];
+		return random.nextDouble(20.0);
+	}
+
+	private static double stepPressure(SplittableRandom random) {
+		return random.nextInt(20) == 0 ? -1.0 : pressure(random);
+	}
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+		int sequences = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+		int length = args.length > 2 ? Integer.parseInt(args[2]) : 40;
+		long start = System.nanoTime();
+		SimulationResult result = new RandomAirLockSimulator(seed).run(sequences, length);
+		System.out.printf("seed %d: %s (%.1f s)%n", seed, result, (System.nanoTime() - start) / 1e9);
+		if (!result.passed()) System.exit(1);
+	}
+}
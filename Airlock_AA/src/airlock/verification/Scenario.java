@@ -0,0 +1,107 @@
+package airlock.verification;
+
+import java.util.Arrays;
+
+import airlock.entities.AirLock;
+import airlock.entities.AirLockCommand;
+import airlock.entities.AirLockResult;
+import airlock.entities.Door;
+import airlock.entities.DoorState;
+import airlock.entities.OperationMode;
+import airlock.entities.PressureSensor;
+import airlock.exceptions.DoorException;
+import airlock.exceptions.PressureException;
+
+/*
+ * A starting configuration (pressures, door states and mode) and the
+ * commands to run against it. Immutable, so it can be replayed as often as
+ * shrinking needs.
+ */
+public final class Scenario {
+
+	public static final class Step {
+		final AirLockCommand command; // null for SX and SI
+		final boolean cabin;
+		final double pressure;
+
+		private Step(AirLockCommand command, boolean cabin, double pressure) {
+			this.command = command;
+			this.cabin = cabin;
+			this.pressure = pressure;
+		}
+
+		public static Step command(AirLockCommand command) {
+			return new Step(command, false, 0.0);
+		}
+
+		public static Step setEnvironmentPressure(double pressure) {
+			return new Step(null, false, pressure);
+		}
+
+		public static Step setCabinPressure(double pressure) {
+			return new Step(null, true, pressure);
+		}
+
+		AirLockResult apply(AirLock airLock) {
+			if (command != null) return command.tryExecute(airLock);
+			return cabin ? airLock.trySetCabinPressure(pressure) : airLock.trySetEnvironmentPressure(pressure);
+		}
+
+		public String toString() {
+			if (command != null) return command.getCode();
+			return (cabin ? "SI " : "SX ") + pressure;
+		}
+	}
+
+	final double environmentPressure;
+	final double lockPressure;
+	final double cabinPressure;
+	final DoorState outerState;
+	final DoorState innerState;
+	final OperationMode mode;
+	final Step[] steps;
+
+	public Scenario(double environmentPressure, double lockPressure, double cabinPressure, OperationMode mode, Step... steps) {
+		this(environmentPressure, lockPressure, cabinPressure, DoorState.CLOSED, DoorState.CLOSED, mode, steps);
+	}
+
+	public Scenario(double environmentPressure, double lockPressure, double cabinPressure,
+	                DoorState outerState, DoorState innerState, OperationMode mode, Step... steps) {
+		this.environmentPressure = environmentPressure;
+		this.lockPressure = lockPressure;
+		this.cabinPressure = cabinPressure;
+		this.outerState = outerState;
+		this.innerState = innerState;
+		this.mode = mode;
+		this.steps = steps.clone();
+	}
+
+	public int length() {
+		return steps.length;
+	}
+
+	Scenario withSteps(Step[] newSteps) {
+		return new Scenario(environmentPressure, lockPressure, cabinPressure, outerState, innerState, mode, newSteps);
+	}
+
+	Scenario withPressures(double environment, double lock, double cabin) {
+		return new Scenario(environment, lock, cabin, outerState, innerState, mode, steps);
+	}
+
+	/*
+	 * A fresh airlock in this scenario's starting state.
+	 */
+	public Subject start() throws DoorException, PressureException {
+		PressureSensor environmentSensor = new PressureSensor(environmentPressure);
+		PressureSensor lockSensor = new PressureSensor(lockPressure);
+		PressureSensor cabinSensor = new PressureSensor(cabinPressure);
+		Door outerDoor = new Door(environmentSensor, lockSensor, outerState);
+		Door innerDoor = new Door(cabinSensor, lockSensor, innerState);
+		return new Subject(new AirLock(outerDoor, innerDoor, lockSensor, mode), outerDoor, innerDoor);
+	}
+
+	public String toString() {
+		return String.format("Scenario: environment %s, lock %s, cabin %s bar, outer %s, inner %s, %s mode, steps %s",
+			environmentPressure, lockPressure, cabinPressure, outerState, innerState, mode, Arrays.toString(steps));
+	}
+}
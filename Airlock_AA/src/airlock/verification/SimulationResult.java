@@ -0,0 +1,48 @@
+package airlock.verification;
+
+public final class SimulationResult {
+
+	private final long sequences;
+	private final long steps;
+	private final Violation original;
+	private final Violation shrunk;
+
+	SimulationResult(long sequences, long steps, Violation original, Violation shrunk) {
+		this.sequences = sequences;
+		this.steps = steps;
+		this.original = original;
+		this.shrunk = shrunk;
+	}
+
+	public boolean passed() {
+		return original == null;
+	}
+
+	public long getSequences() {
+		return sequences;
+	}
+
+	public long getSteps() {
+		return steps;
+	}
+
+	/*
+	 * The failure as first found, or null if every sequence passed.
+	 */
+	public Violation getOriginalViolation() {
+		return original;
+	}
+
+	/*
+	 * The failure cut down to as few steps and as round pressures as still
+	 * reproduce it, or null if every sequence passed.
+	 */
+	public Violation getViolation() {
+		return shrunk;
+	}
+
+	public String toString() {
+		if (passed()) return String.format("SimulationResult: %d sequences, %d steps, no violations", sequences, steps);
+		return String.format("SimulationResult: %d sequences, %d steps, %s", sequences, steps, shrunk);
+	}
+}
@@ -0,0 +1,21 @@
+package airlock.verification;
+
+import airlock.entities.AirLock;
+import airlock.entities.Door;
+
+/*
+ * The airlock under test together with its doors, so invariants can compare
+ * the airlock's view with the doors' own state.
+ */
+public final class Subject {
+
+	public final AirLock airLock;
+	public final Door outerDoor;
+	public final Door innerDoor;
+
+	Subject(AirLock airLock, Door outerDoor, Door innerDoor) {
+		this.airLock = airLock;
+		this.outerDoor = outerDoor;
+		this.innerDoor = innerDoor;
+	}
+}
@@ -0,0 +1,34 @@
+package airlock.verification;
+
+/*
+ * An invariant that failed: the scenario, the step after which it failed
+ * (-1 for the starting state) and what was wrong.
+ */
+public final class Violation {
+
+	private final Scenario scenario;
+	private final int step;
+	private final String message;
+
+	Violation(Scenario scenario, int step, String message) {
+		this.scenario = scenario;
+		this.step = step;
+		this.message = message;
+	}
+
+	public Scenario getScenario() {
+		return scenario;
+	}
+
+	public int getStep() {
+		return step;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public String toString() {
+		return String.format("Violation after step %d: %s%n%s", step, message, scenario);
+	}
+}